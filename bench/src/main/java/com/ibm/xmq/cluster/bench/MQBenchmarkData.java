@@ -0,0 +1,250 @@
+package com.ibm.xmq.cluster.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.ibm.xmq.cluster.MQClusterQueueData;
+import com.ibm.xmq.cluster.MQClusterQueueManagerData;
+import com.ibm.xmq.cluster.MQCollectionTask;
+import com.ibm.xmq.cluster.MQGraphBuilder;
+import com.ibm.xmq.cluster.MQQueueManagerData;
+import com.ibm.xmq.cluster.MQQueueManagerInventory;
+import com.ibm.xmq.cluster.MQQueueManagerInventoryData;
+import com.ibm.xmq.cluster.MQRecordSink;
+import com.ibm.xmq.cluster.MQSimulatedEstate;
+import com.ibm.xmq.cluster.MQTransportFactory;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQBenchmarkData Class
+ *
+ * Synthetic datasets of the benchmarks, collected from a simulated estate of 
+ * about 100 queue managers per cluster, 2 of them full repositories, and as 
+ * many cluster queues as queue managers. Datasets are kept per size for the 
+ * benchmarks of a fork.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQBenchmarkData implements MQRecordSink {
+	
+	private static final int QUEUE_MANAGERS_PER_CLUSTER = 100;
+	
+	private static final Map<Integer, MQBenchmarkData> datasets = new HashMap<Integer, MQBenchmarkData>();
+	
+	private MQSimulatedEstate estate;
+	private String inventoryFileName;
+	private List<MQQueueManagerData> queueManagers;
+	private List<MQClusterQueueManagerData> clusterQueueManagers;
+	private List<MQClusterQueueData> clusterQueues;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param queueManagers Number of queue managers
+	 */
+	private MQBenchmarkData(int queueManagers) 
+		throws IOException {
+		
+		this.estate = newEstate(queueManagers, "");
+		this.inventoryFileName = writeInventory(this.estate);
+		this.queueManagers = new ArrayList<MQQueueManagerData>();
+		this.clusterQueueManagers = new ArrayList<MQClusterQueueManagerData>();
+		this.clusterQueues = new ArrayList<MQClusterQueueData>();
+		
+		MQTransportFactory transportFactory = new MQTransportFactory(this.estate);
+		MQQueueManagerInventory inventory = new MQQueueManagerInventory(this.inventoryFileName, Collections.<String>emptyList());
+		MQQueueManagerInventoryData inventoryEntry;
+		
+		while ((inventoryEntry = inventory.next()) != null) {
+			MQCollectionTask task = new MQCollectionTask(inventory, inventoryEntry, true, null, null, null);
+			task.setRecordSink(this);
+			task.setTransportFactory(transportFactory);
+			
+			if (!task.call().isSuccess()) throw new IOException("Collection of simulated queue manager " + inventoryEntry.getQmName() + " failed");
+		} // end while
+	}
+	
+	/**
+	 * Get the dataset of an estate size, collected on first use
+	 * 
+	 * @param queueManagers Number of queue managers
+	 * @return dataset The dataset
+	 */
+	public static synchronized MQBenchmarkData forSize(int queueManagers) 
+		throws IOException {
+		
+		MQBenchmarkData dataset = datasets.get(queueManagers);
+		
+		if (dataset == null) {
+			dataset = new MQBenchmarkData(queueManagers);
+			datasets.put(queueManagers, dataset);
+		}
+		
+		return dataset;
+	}
+	
+	/**
+	 * Create a simulated estate
+	 * 
+	 * @param queueManagers Number of queue managers
+	 * @param parameters Additional estate parameters, name=value separated by ','
+	 * @return estate The estate
+	 */
+	public static MQSimulatedEstate newEstate(int queueManagers, String parameters) {
+		
+		int clusters = Math.max(1, queueManagers / QUEUE_MANAGERS_PER_CLUSTER);
+		
+		return MQSimulatedEstate.parse("clusters=" + clusters + ",qmgrs=" + queueManagers + ",queues=" + queueManagers + ",fullrepos=0.02" + (parameters.isEmpty() ? "" : "," + parameters));
+	}
+	
+	/**
+	 * Write the inventory of an estate to a temporary file
+	 * 
+	 * @param estate The estate
+	 * @return fileName The inventory file name
+	 */
+	public static String writeInventory(MQSimulatedEstate estate) 
+		throws IOException {
+		
+		File inventoryFile = File.createTempFile("inventory-" + estate.getQueueManagers() + "-", ".txt");
+		inventoryFile.deleteOnExit();
+		
+		estate.writeInventory(inventoryFile.getPath());
+		
+		return inventoryFile.getPath();
+	}
+	
+	/**
+	 * Build the graph of the dataset
+	 * 
+	 * @param sharedQueueVertices One vertex per cluster queue instance
+	 * @return gb The graph builder holding the graph
+	 */
+	public MQGraphBuilder buildGraph(boolean sharedQueueVertices) {
+		
+		MQGraphBuilder gb = new MQGraphBuilder(sharedQueueVertices);
+		
+		for (MQQueueManagerData qmd : this.queueManagers) gb.addQueueManager(qmd);
+		for (MQClusterQueueManagerData cqmd : this.clusterQueueManagers) gb.addClusteredQueueManager(cqmd);
+		for (MQClusterQueueData cqd : this.clusterQueues) gb.addClusteredQueue(cqd);
+		
+		return gb;
+	}
+	
+	/**
+	 * Get the heap in use once the garbage collector has run
+	 * 
+	 * @return usedHeap Heap in use (bytes)
+	 */
+	public static long usedHeap() {
+		
+		long usedHeap = Long.MAX_VALUE;
+		
+		// A few collections, until the heap no longer shrinks
+		for (int i = 0; i < 5; i++) {
+			System.gc();
+			long used = ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+			if (used >= usedHeap) break;
+			usedHeap = used;
+		} // end for
+		
+		return usedHeap;
+	}
+	
+	@Override
+	public void addQueueManager(MQQueueManagerData qmd) {
+		this.queueManagers.add(qmd);
+	}
+	
+	@Override
+	public void addClusteredQueueManager(MQClusterQueueManagerData cqmd) {
+		this.clusterQueueManagers.add(cqmd);
+	}
+	
+	@Override
+	public void addClusteredQueue(MQClusterQueueData cqd) {
+		this.clusterQueues.add(cqd);
+	}
+	
+	@Override
+	public void endQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success) {
+		// nothing to do
+	}
+
+	public MQSimulatedEstate getEstate() {
+		return estate;
+	}
+
+	public String getInventoryFileName() {
+		return inventoryFileName;
+	}
+
+	public List<MQQueueManagerData> getQueueManagers() {
+		return queueManagers;
+	}
+
+	public List<MQClusterQueueManagerData> getClusterQueueManagers() {
+		return clusterQueueManagers;
+	}
+
+	public List<MQClusterQueueData> getClusterQueues() {
+		return clusterQueues;
+	}
+	
+	/**
+	 * Sink counting the records, for the benchmarks of the collection itself
+	 *
+	 */
+	public static class CountingSink implements MQRecordSink {
+		
+		private final AtomicLong records = new AtomicLong();
+
+		@Override
+		public void addQueueManager(MQQueueManagerData qmd) {
+			this.records.incrementAndGet();
+		}
+
+		@Override
+		public void addClusteredQueueManager(MQClusterQueueManagerData cqmd) {
+			this.records.incrementAndGet();
+		}
+
+		@Override
+		public void addClusteredQueue(MQClusterQueueData cqd) {
+			this.records.incrementAndGet();
+		}
+		
+		@Override
+		public void endQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success) {
+			// nothing to do
+		}
+		
+		public long getRecords() {
+			return this.records.get();
+		}
+	}
+	
+}
@@ -0,0 +1,128 @@
+package com.ibm.xmq.cluster.bench;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ibm.xmq.cluster.MQClusterQueueData;
+import com.ibm.xmq.cluster.MQClusterQueueManagerData;
+import com.ibm.xmq.cluster.MQQueueManagerData;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQCSVBenchmark Class
+ *
+ * Conversion of every record of a dataset to and from CSV
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MQCSVBenchmark {
+	
+	@Param({ "1000", "10000", "100000" })
+	private int queueManagers;
+	
+	private MQBenchmarkData dataset;
+	private String[] queueManagerRecords;
+	private String[] clusterQueueManagerRecords;
+	private String[] clusterQueueRecords;
+	
+	@Setup
+	public void setup() 
+		throws IOException {
+		
+		this.dataset = MQBenchmarkData.forSize(this.queueManagers);
+		
+		List<MQQueueManagerData> qmData = this.dataset.getQueueManagers();
+		List<MQClusterQueueManagerData> clusterQmData = this.dataset.getClusterQueueManagers();
+		List<MQClusterQueueData> clusterQueueData = this.dataset.getClusterQueues();
+		
+		this.queueManagerRecords = new String[qmData.size()];
+		for (int i = 0; i < this.queueManagerRecords.length; i++) this.queueManagerRecords[i] = qmData.get(i).toCSV();
+		
+		this.clusterQueueManagerRecords = new String[clusterQmData.size()];
+		for (int i = 0; i < this.clusterQueueManagerRecords.length; i++) this.clusterQueueManagerRecords[i] = clusterQmData.get(i).toCSV();
+		
+		this.clusterQueueRecords = new String[clusterQueueData.size()];
+		for (int i = 0; i < this.clusterQueueRecords.length; i++) this.clusterQueueRecords[i] = clusterQueueData.get(i).toCSV();
+	}
+	
+	@Benchmark
+	public void queueManagerToCSV(Blackhole bh) {
+		for (MQQueueManagerData qmd : this.dataset.getQueueManagers()) bh.consume(qmd.toCSV());
+	}
+	
+	@Benchmark
+	public void queueManagerFromCSV(Blackhole bh) {
+		
+		for (String record : this.queueManagerRecords) {
+			MQQueueManagerData qmd = new MQQueueManagerData();
+			qmd.fromCSV(record);
+			bh.consume(qmd);
+		} // end for
+	}
+	
+	@Benchmark
+	public void clusterQueueManagerToCSV(Blackhole bh) {
+		for (MQClusterQueueManagerData cqmd : this.dataset.getClusterQueueManagers()) bh.consume(cqmd.toCSV());
+	}
+	
+	@Benchmark
+	public void clusterQueueManagerFromCSV(Blackhole bh) {
+		
+		for (String record : this.clusterQueueManagerRecords) {
+			MQClusterQueueManagerData cqmd = new MQClusterQueueManagerData();
+			cqmd.fromCSV(record);
+			bh.consume(cqmd);
+		} // end for
+	}
+	
+	@Benchmark
+	public void clusterQueueToCSV(Blackhole bh) {
+		for (MQClusterQueueData cqd : this.dataset.getClusterQueues()) bh.consume(cqd.toCSV());
+	}
+	
+	@Benchmark
+	public void clusterQueueFromCSV(Blackhole bh) {
+		
+		for (String record : this.clusterQueueRecords) {
+			MQClusterQueueData cqd = new MQClusterQueueData();
+			cqd.fromCSV(record);
+			bh.consume(cqd);
+		} // end for
+	}
+	
+}
@@ -0,0 +1,142 @@
+package com.ibm.xmq.cluster.bench;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.xmq.cluster.MQCollectionTask;
+import com.ibm.xmq.cluster.MQQueueManagerInventory;
+import com.ibm.xmq.cluster.MQQueueManagerInventoryData;
+import com.ibm.xmq.cluster.MQSimulatedEstate;
+import com.ibm.xmq.cluster.MQTransportFactory;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQCollectionBenchmark Class
+ *
+ * Collection of a simulated estate with a growing number of collector 
+ * threads, the command server of each queue manager answering after a fixed 
+ * mean latency. The fixed executor runs that many platform threads, the virtual
+ * executor starts a virtual thread per queue manager and caps the concurrent
+ * connections to that many, as Xmqcocls -v does (Java 21 or later).
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(1)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+public class MQCollectionBenchmark {
+	
+	@Param({ "1000" })
+	private int queueManagers;
+	
+	@Param({ "fixed", "virtual" })
+	private String executor;
+	
+	@Param({ "1", "4", "16", "64" })
+	private int threads;
+	
+	@Param({ "2" })
+	private double latency;
+	
+	private String inventoryFileName;
+	private MQTransportFactory transportFactory;
+	
+	@Setup
+	public void setup() 
+		throws IOException {
+		
+		MQSimulatedEstate estate = MQBenchmarkData.newEstate(this.queueManagers, "latency=" + this.latency + ",connlatency=" + this.latency);
+		
+		this.inventoryFileName = MQBenchmarkData.writeInventory(estate);
+		this.transportFactory = new MQTransportFactory(estate);
+	}
+	
+	@Benchmark
+	public long collect() 
+		throws IOException, InterruptedException, ExecutionException {
+		
+		ExecutorService collectors;
+		Semaphore connectionPermits = null;
+		
+		if (this.executor.equals("virtual")) {
+			collectors = newVirtualThreadPerTaskExecutor();
+			connectionPermits = new Semaphore(this.threads);
+		} else collectors = Executors.newFixedThreadPool(this.threads);
+		
+		CompletionService<MQCollectionTask> completedTasks = new ExecutorCompletionService<MQCollectionTask>(collectors);
+		MQBenchmarkData.CountingSink recordSink = new MQBenchmarkData.CountingSink();
+		MQQueueManagerInventory inventory = new MQQueueManagerInventory(this.inventoryFileName, Collections.<String>emptyList());
+		MQQueueManagerInventoryData inventoryEntry;
+		int tasks = 0;
+		
+		try {
+			while ((inventoryEntry = inventory.next()) != null) {
+				MQCollectionTask task = new MQCollectionTask(inventory, inventoryEntry, true, null, null, null);
+				task.setRecordSink(recordSink);
+				task.setConnectionPermits(connectionPermits);
+				task.setTransportFactory(this.transportFactory);
+				completedTasks.submit(task);
+				tasks++;
+			} // end while
+			
+			while (tasks-- > 0) completedTasks.take().get();
+		} finally {
+			collectors.shutdownNow();
+		}
+		
+		return recordSink.getRecords();
+	}
+	
+	/**
+	 * Create an executor that starts a new virtual thread for each task, looked up at run
+	 * time so that the benchmarks still build with Java 8
+	 * 
+	 * @return executor An executor service
+	 */
+	private static ExecutorService newVirtualThreadPerTaskExecutor() {
+		
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException roe) {
+			throw new IllegalStateException("Virtual threads are not available with Java " + System.getProperty("java.version"), roe);
+		}
+	}
+	
+}
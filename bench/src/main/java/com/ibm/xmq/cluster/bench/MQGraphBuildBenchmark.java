@@ -0,0 +1,104 @@
+package com.ibm.xmq.cluster.bench;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.xmq.cluster.MQGraphBuilder;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQGraphBuildBenchmark Class
+ *
+ * Graph building from every record of a dataset through the MQGraphBuilder 
+ * add methods, and the heap retained by the graph
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MQGraphBuildBenchmark {
+	
+	@Param({ "1000", "10000", "100000" })
+	private int queueManagers;
+	
+	@Param({ "false", "true" })
+	private boolean sharedQueueVertices;
+	
+	private MQBenchmarkData dataset;
+	
+	@Setup
+	public void setup() 
+		throws IOException {
+		
+		this.dataset = MQBenchmarkData.forSize(this.queueManagers);
+	}
+	
+	@Benchmark
+	public MQGraphBuilder buildGraph() {
+		return this.dataset.buildGraph(this.sharedQueueVertices);
+	}
+	
+	/**
+	 * Heap retained by a graph, reported as the retainedBytes counter
+	 * 
+	 */
+	@Benchmark
+	@BenchmarkMode(Mode.SingleShotTime)
+	@Warmup(iterations = 1)
+	@Measurement(iterations = 3)
+	public MQGraphBuilder graphFootprint(Footprint footprint) {
+		
+		long usedHeap = MQBenchmarkData.usedHeap();
+		MQGraphBuilder gb = this.dataset.buildGraph(this.sharedQueueVertices);
+		
+		footprint.retainedBytes = MQBenchmarkData.usedHeap() - usedHeap;
+		
+		return gb;
+	}
+	
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Footprint {
+		
+		public long retainedBytes;
+		
+		@Setup(Level.Iteration)
+		public void reset() {
+			this.retainedBytes = 0;
+		}
+	}
+	
+}
@@ -0,0 +1,92 @@
+package com.ibm.xmq.cluster.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.ibm.xmq.cluster.MQGraphBuilder;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQGraphExportBenchmark Class
+ *
+ * Export of the graph of a dataset in GraphML and GraphSON formats
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(value = 1, jvmArgsAppend = { "-Xmx4g" })
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+public class MQGraphExportBenchmark {
+	
+	@Param({ "1000", "10000", "100000" })
+	private int queueManagers;
+	
+	private MQGraphBuilder gb;
+	private File graphFile;
+	
+	@Setup
+	public void setup() 
+		throws IOException {
+		
+		this.gb = MQBenchmarkData.forSize(this.queueManagers).buildGraph(false);
+		this.graphFile = File.createTempFile("graph-" + this.queueManagers + "-", ".out");
+	}
+	
+	@TearDown
+	public void tearDown() {
+		
+		this.gb.closeGraph();
+		this.graphFile.delete();
+	}
+	
+	@Benchmark
+	public long writeGraphML() 
+		throws IOException {
+		
+		this.gb.writeGraphMLToFile(this.graphFile.getPath());
+		
+		return this.graphFile.length();
+	}
+	
+	@Benchmark
+	public long writeGraphJSON() 
+		throws IOException {
+		
+		this.gb.writeGraphJSONToFile(this.graphFile.getPath());
+		
+		return this.graphFile.length();
+	}
+	
+}
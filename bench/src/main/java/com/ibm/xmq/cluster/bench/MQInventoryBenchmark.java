@@ -0,0 +1,121 @@
+package com.ibm.xmq.cluster.bench;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ibm.xmq.cluster.MQInventoryIndex;
+import com.ibm.xmq.cluster.MQQueueManagerInventory;
+import com.ibm.xmq.cluster.MQQueueManagerInventoryData;
+import com.ibm.xmq.cluster.MQSimulatedEstate;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQInventoryBenchmark Class
+ *
+ * Inventory loading, tag selection and lookup of the tag of a queue manager
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MQInventoryBenchmark {
+	
+	private static final int TAG_LOOKUPS = 1000;
+	
+	@Param({ "1000", "10000", "100000" })
+	private int queueManagers;
+	
+	private String inventoryFileName;
+	private MQInventoryIndex index;
+	private List<String> allTags;
+	private List<String> someTags;
+	private String[] qmNames;
+	
+	@Setup
+	public void setup() 
+		throws IOException {
+		
+		MQSimulatedEstate estate = MQBenchmarkData.newEstate(this.queueManagers, "");
+		
+		this.inventoryFileName = MQBenchmarkData.writeInventory(estate);
+		this.index = new MQInventoryIndex(this.inventoryFileName);
+		this.allTags = Collections.<String>emptyList();
+		
+		// One literal tag, one single character wildcard, one prefix
+		this.someTags = Arrays.asList(estate.getClusterName(0), "SCL000?", "SCL01*");
+		
+		this.qmNames = new String[TAG_LOOKUPS];
+		for (int i = 0; i < TAG_LOOKUPS; i++) this.qmNames[i] = estate.getQmName((int) ((long) i * this.queueManagers / TAG_LOOKUPS));
+	}
+	
+	@Benchmark
+	public MQInventoryIndex loadIndex() 
+		throws IOException {
+		
+		return new MQInventoryIndex(this.inventoryFileName);
+	}
+	
+	@Benchmark
+	public MQQueueManagerInventory selectAllTags() {
+		return new MQQueueManagerInventory(this.index, this.allTags);
+	}
+	
+	@Benchmark
+	public MQQueueManagerInventory selectSomeTags() {
+		return new MQQueueManagerInventory(this.index, this.someTags);
+	}
+	
+	@Benchmark
+	public void readAllEntries(Blackhole bh) 
+		throws IOException {
+		
+		MQQueueManagerInventory inventory = new MQQueueManagerInventory(this.index, this.allTags);
+		MQQueueManagerInventoryData inventoryEntry;
+		
+		while ((inventoryEntry = inventory.next()) != null) bh.consume(inventoryEntry);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(TAG_LOOKUPS)
+	public void getTag(Blackhole bh) {
+		
+		for (String qmName : this.qmNames) bh.consume(this.index.getTag(qmName));
+	}
+	
+}
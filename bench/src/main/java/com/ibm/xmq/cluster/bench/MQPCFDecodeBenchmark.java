@@ -0,0 +1,140 @@
+package com.ibm.xmq.cluster.bench;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQMessage;
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.constants.CMQCFC;
+import com.ibm.mq.pcf.PCFMessage;
+import com.ibm.xmq.cluster.MQAgent;
+import com.ibm.xmq.cluster.MQPCFReply;
+import com.ibm.xmq.cluster.MQSimulatedEstate;
+import com.ibm.xmq.cluster.MQSimulatedTransport;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQPCFDecodeBenchmark Class
+ *
+ * Decoding of the INQUIRE_CLUSTER_Q_MGR response of a full repository, 
+ * reading the attributes the collector reads, with MQPCFReply and with 
+ * PCFMessage
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+public class MQPCFDecodeBenchmark {
+	
+	@Param({ "1000", "10000" })
+	private int queueManagers;
+	
+	private MQMessage[] responseMessages;
+	
+	@Setup
+	public void setup() 
+		throws MQException, IOException {
+		
+		// Queue manager 0 is a full repository, its response holds one record per member of its cluster
+		MQSimulatedEstate estate = MQBenchmarkData.newEstate(this.queueManagers, "");
+		MQSimulatedTransport transport = new MQSimulatedTransport(estate);
+		MQAgent mqAgent = new MQAgent();
+		mqAgent.setQmName(estate.getQmName(0));
+		transport.connect(mqAgent);
+		
+		PCFMessage inqClusterQueueManager = new PCFMessage(CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR);
+		inqClusterQueueManager.addParameter(CMQC.MQCA_CLUSTER_Q_MGR_NAME, "*");
+		
+		MQMessage requestMessage = new MQMessage();
+		inqClusterQueueManager.write(requestMessage);
+		transport.putRequest(requestMessage);
+		
+		List<MQMessage> responseMessages = new ArrayList<MQMessage>();
+		MQMessage responseMessage;
+		
+		do {
+			responseMessage = transport.getReply(0);
+			responseMessages.add(responseMessage);
+		} while (new MQPCFReply(responseMessage).getControl() != CMQCFC.MQCFC_LAST);
+		
+		transport.disconnect();
+		
+		this.responseMessages = responseMessages.toArray(new MQMessage[0]);
+	}
+	
+	@Benchmark
+	public void decodeMQPCFReply(Blackhole bh) 
+		throws MQException, IOException {
+		
+		for (MQMessage responseMessage : this.responseMessages) {
+			responseMessage.seek(0);
+			MQPCFReply resp = new MQPCFReply(responseMessage);
+			
+			bh.consume(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_Q_MGR_NAME));
+			bh.consume(resp.getStringParameterValue(CMQC.MQCA_Q_MGR_IDENTIFIER));
+			bh.consume(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_TYPE));
+			bh.consume(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_NAME));
+			bh.consume(resp.getStringParameterValue(CMQCFC.MQCACH_CHANNEL_NAME));
+			bh.consume(resp.getStringParameterValue(CMQCFC.MQCACH_CONNECTION_NAME));
+			bh.consume(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE));
+			bh.consume(resp.getStringParameterValue(CMQCFC.MQCACH_XMIT_Q_NAME));
+			bh.consume(resp.getStringParameterValue(CMQC.MQCA_VERSION));
+		} // end for
+	}
+	
+	@Benchmark
+	public void decodePCFMessage(Blackhole bh) 
+		throws MQException, IOException {
+		
+		for (MQMessage responseMessage : this.responseMessages) {
+			responseMessage.seek(0);
+			PCFMessage resp = new PCFMessage(responseMessage);
+			
+			bh.consume(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_Q_MGR_NAME).trim());
+			bh.consume(resp.getStringParameterValue(CMQC.MQCA_Q_MGR_IDENTIFIER).trim());
+			bh.consume(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_TYPE));
+			bh.consume(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_NAME).trim());
+			bh.consume(resp.getStringParameterValue(CMQCFC.MQCACH_CHANNEL_NAME).trim());
+			bh.consume(resp.getStringParameterValue(CMQCFC.MQCACH_CONNECTION_NAME).trim());
+			bh.consume(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE));
+			bh.consume(resp.getStringParameterValue(CMQCFC.MQCACH_XMIT_Q_NAME).trim());
+			bh.consume(resp.getStringParameterValue(CMQC.MQCA_VERSION).trim());
+		} // end for
+	}
+	
+}
@@ -0,0 +1,73 @@
+package com.ibm.xmq.cluster.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.ibm.xmq.cluster.StringUtils;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQWildcardBenchmark Class
+ *
+ * Wildcard matching of names, as done for tags, clusters and queues
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(1)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+public class MQWildcardBenchmark {
+	
+	private static final int NAMES = 1024;
+	
+	@Param({ "SIM.Q000512", "SIM.Q*", "SIM.Q00?5*", "*.Q*1" })
+	private String wildcard;
+	
+	private String[] names;
+	
+	@Setup
+	public void setup() {
+		
+		this.names = new String[NAMES];
+		for (int i = 0; i < NAMES; i++) this.names[i] = String.format("SIM.Q%06d", i);
+	}
+	
+	@Benchmark
+	@OperationsPerInvocation(NAMES)
+	public void matchWildcard(Blackhole bh) {
+		
+		for (String name : this.names) bh.consume(StringUtils.matchWildcard(name, this.wildcard));
+	}
+	
+}
@@ -1,231 +1,706 @@
-package com.ibm.xmq.cluster;
-
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.Hashtable;
-import java.util.List;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.ibm.mq.MQException;
-import com.ibm.mq.MQQueueManager;
-import com.ibm.mq.constants.CMQC;
-import com.ibm.mq.pcf.PCFMessage;
-import com.ibm.mq.pcf.PCFMessageAgent;
-
-/**
- * Copyright 2018 IBM Corporation
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *    http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- * ---------------------------------------------------------------------------- 
- * 
- * MQAgent Class
- *
- * Perform various MQ operations against a queue manager
- *
- * @author Oliver Fisse (IBM) - fisse@us.ibm.com
- * @version 1.0
- */
-public class MQAgent {
-	
-	private static final Logger log = LoggerFactory.getLogger(MQAgent.class);
-	
-	private final String CONN_NAMELIST_SEPARATOR = ",";
-	
-	private String qmName;
-	private String hostname;
-	private int port;
-	private String connNameList;
-	private String channelName;
-	private String userId;
-	private String password;
-	private String sslCipherSuite;
-	
-	private MQQueueManager qmgr;
-	private PCFMessageAgent pcfAgent;
-	
-	
-	/**
-	 * Constructor
-	 *
-	 */
-	public MQAgent() {
-		
-		this.qmName = "";
-	}
-	
-	/**
-	 * Connect to a queue manager
-	 * 
-	 */
-	public void connect() 
-		throws MQException {
-		
-		log.trace("[{}] Entry {}.connect", Thread.currentThread().getId(), this.getClass().getName());
-				
-		List<String> listOfConn = new ArrayList<String>();
-		Hashtable<String, Object> connProps = new Hashtable<String, Object>();
-		
-		if (this.connNameList == null) listOfConn.add(this.hostname + "(" + this.port + ")");
-		else {
-			String[] connListArr = this.connNameList.split(CONN_NAMELIST_SEPARATOR);
-			for (String conn : connListArr) {
-				listOfConn.add(conn);
-			}
-		}
-		
-		connProps.put(CMQC.CHANNEL_PROPERTY, this.channelName);
-		
-		if (this.userId != null) connProps.put(CMQC.USER_ID_PROPERTY, this.userId);
-        if (this.password != null) {
-        	connProps.put(CMQC.USE_MQCSP_AUTHENTICATION_PROPERTY, true);
-        	connProps.put(CMQC.PASSWORD_PROPERTY, this.password);
-        }
-        
-		if (this.sslCipherSuite != null) connProps.put(CMQC.SSL_CIPHER_SUITE_PROPERTY, this.sslCipherSuite);
-		
-		// Connect to the queue manager
-		int attempt = 0;
-		for (String conn : listOfConn) {
-			
-			int p1;
-			String hostname = conn.substring(0, p1 = conn.indexOf('('));
-			int port = Integer.parseInt(conn.substring(p1 + 1, conn.indexOf(')')));
-		
-			connProps.put(CMQC.HOST_NAME_PROPERTY, hostname);
-			connProps.put(CMQC.PORT_PROPERTY, port);
-			
-			try {
-				log.trace("[{}] MQQueueManager {}.connect, connProps={}", Thread.currentThread().getId(), this.getClass().getName(), connProps);
-				this.qmgr = new MQQueueManager(this.qmName, connProps);
-			} catch (MQException mqe) {
-				attempt++;
-				if (attempt == listOfConn.size()) throw mqe;
-			}
-		}
-        
-        // Create associated PCF agent
-        this.pcfAgent = new PCFMessageAgent(this.qmgr);
-        
-        log.trace("[{}]  Exit {}.connect", Thread.currentThread().getId(), this.getClass().getName());	
-	}
-	
-	/**
-	 * Disconnect from a queue manager
-	 * 
-	 */
-	public void disconnect()
-		throws MQException {
-		
-		log.trace("[{}] Entry {}.disconnect", Thread.currentThread().getId(), this.getClass().getName());
-		
-		if (this.qmgr != null) qmgr.disconnect();
-		
-		log.trace("[{}]  Exit {}.disconnect", Thread.currentThread().getId(), this.getClass().getName());	
-	}
-	
-	/**
-	 * Submit a PCF command and wait for a response
-	 * 
-	 * @param pcfRequest A PCFMessage object containing the PCF request
-	 * @return pcfResponse An array of PCFMessage objects containing the PCF response 
-	 */
-	public PCFMessage[] submitPCF(PCFMessage pcfRequest)
-		throws MQException, IOException {
-		
-		PCFMessage[] pcfResponse;
-		
-		log.trace("[{}] Entry {}.submitPCF, pcfRequest={}", Thread.currentThread().getId(), this.getClass().getName(), pcfRequest);
-
-	    if (this.pcfAgent == null) throw new IllegalStateException("No PCF Agent available!");
-	    
-	    pcfResponse = this.pcfAgent.send(pcfRequest);
-	    
-	    log.trace("[{}]  Exit {}.submitPCF, pcfResponse={}", Thread.currentThread().getId(), this.getClass().getName(), pcfResponse);
-	    
-	    return pcfResponse; 
-	}
-
-	public String getQmName() {
-		return qmName;
-	}
-
-	public void setQmName(String qmName) {
-		this.qmName = qmName;
-	}
-
-	public String getHostname() {
-		return hostname;
-	}
-
-	public void setHostname(String hostname) {
-		this.hostname = hostname;
-	}
-
-	public int getPort() {
-		return port;
-	}
-
-	public void setPort(int port) {
-		this.port = port;
-	}
-	
-	public String getConnNameList() {
-		return connNameList;
-	}
-
-	public void setConnNameList(String connNameList) {
-		this.connNameList = connNameList;
-	}
-
-	public String getChannelName() {
-		return channelName;
-	}
-
-	public void setChannelName(String channelName) {
-		this.channelName = channelName;
-	}
-
-	public String getUserId() {
-		return userId;
-	}
-
-	public void setUserId(String userId) {
-		this.userId = userId;
-	}
-
-	public String getPassword() {
-		return password;
-	}
-
-	public void setPassword(String password) {
-		this.password = password;
-	}
-
-	public String getSslCipherSuite() {
-		return sslCipherSuite;
-	}
-
-	public void setSslCipherSuite(String sslCipherSuite) {
-		this.sslCipherSuite = sslCipherSuite;
-	}
-
-	@Override
-	public String toString() {
-		return "MQAgent [qmName=" + qmName + ", hostname=" + hostname + ", port=" + port + ", connectionNameList="
-				+ connNameList + ", channelName=" + channelName + ", userId=" + userId + ", password=" + password
-				+ ", sslCipherSuite=" + sslCipherSuite + "]";
-	}
-
-}
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Hashtable;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQMessage;
+import com.ibm.mq.MQQueueManager;
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.constants.CMQCFC;
+import com.ibm.mq.pcf.PCFException;
+import com.ibm.mq.pcf.PCFMessage;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQAgent Class
+ *
+ * Perform various MQ operations against a queue manager
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQAgent {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQAgent.class);
+	
+	private final String CONN_NAMELIST_SEPARATOR = ",";
+	private final int DEFAULT_PORT = 1414;
+	
+	// Maximum time to wait for the next response message from the command server (milliseconds)
+	private final int RESPONSE_WAIT_INTERVAL = 60000;
+	
+	// Delay before the next connection name is tried while the previous attempts are still in progress
+	private static final long CONN_ATTEMPT_DELAY = 250;
+	
+	// Threads running the connection attempts for connection name lists
+	private static final ExecutorService connectors = Executors.newCachedThreadPool(new ThreadFactory() {
+		@Override
+		public Thread newThread(Runnable r) {
+			Thread t = new Thread(r, "MQAgent-connect");
+			t.setDaemon(true);
+			return t;
+		}
+	});
+	
+	private String qmName;
+	private String hostname;
+	private int port;
+	private String connNameList;
+	private String channelName;
+	private String userId;
+	private String password;
+	private String sslCipherSuite;
+	
+	private MQTransport transport;
+	private boolean connected;
+	private int platform;
+	private long connectNanos;
+	private MQRunStatistics statistics;
+	private MQCircuitBreaker circuitBreaker;
+	private List<String> allowedConnNames;
+	private String connectedConnName;
+	private Map<ByteBuffer, MQPCFRequest> pendingRequests;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQAgent() {
+		
+		this.qmName = "";
+		this.transport = new MQClientTransport();
+		this.pendingRequests = new HashMap<ByteBuffer, MQPCFRequest>();
+	}
+	
+	/**
+	 * Connect to a queue manager
+	 * 
+	 */
+	public void connect() 
+		throws MQException {
+		
+		log.trace("[{}] Entry {}.connect", Thread.currentThread().getId(), this.getClass().getName());
+		
+		// Fail fast if the hosts of all the connection names are known to be unreachable
+		this.allowedConnNames = getConnNames();
+		this.connectedConnName = null;
+		if (this.circuitBreaker != null) {
+			this.allowedConnNames = this.circuitBreaker.allow(this.allowedConnNames);
+			if (this.allowedConnNames.isEmpty()) {
+				log.trace("[{}]  Exit {}.connect, host unreachable", Thread.currentThread().getId(), this.getClass().getName());
+				throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_HOST_NOT_AVAILABLE, this);
+			}
+		}
+		
+		long connectStart = System.nanoTime();
+		boolean unreachable = false;
+		
+		try {
+			this.transport.connect(this);
+			this.platform = this.transport.getPlatform();
+			this.connected = true;
+		} catch (MQException mqe) {
+			unreachable = MQCircuitBreaker.isUnreachable(mqe.getReason());
+			throw mqe;
+		} finally {
+			// Failed attempts are timed too, a slow failure is usually the network
+			this.connectNanos = System.nanoTime() - connectStart;
+			if (this.statistics != null) this.statistics.record(MQRunStatistics.CONNECT, this.connectNanos);
+			if (this.circuitBreaker != null) this.circuitBreaker.record(this.allowedConnNames, this.connectedConnName, unreachable);
+		}
+		
+		log.trace("[{}]  Exit {}.connect", Thread.currentThread().getId(), this.getClass().getName());	
+	}
+	
+	/**
+	 * Open a client connection to the queue manager, called by the transport
+	 * 
+	 * @return qmgr The connected queue manager
+	 */
+	MQQueueManager connectQueueManager() 
+		throws MQException {
+		
+		MQQueueManager qmgr;
+				
+		// The connection names skipped by the circuit breaker are not tried
+		List<String> listOfConn = this.allowedConnNames != null ? this.allowedConnNames : getConnNames();
+		Hashtable<String, Object> connProps = new Hashtable<String, Object>();
+		
+		connProps.put(CMQC.CHANNEL_PROPERTY, this.channelName);
+		
+		if (this.userId != null) connProps.put(CMQC.USER_ID_PROPERTY, this.userId);
+        if (this.password != null) {
+        	connProps.put(CMQC.USE_MQCSP_AUTHENTICATION_PROPERTY, true);
+        	connProps.put(CMQC.PASSWORD_PROPERTY, this.password);
+        }
+        
+		if (this.sslCipherSuite != null) connProps.put(CMQC.SSL_CIPHER_SUITE_PROPERTY, this.sslCipherSuite);
+		
+		// Connect to the queue manager
+		if (listOfConn.size() == 1) {
+			qmgr = new ConnectAttempt(listOfConn.get(0), connProps).call();
+			this.connectedConnName = listOfConn.get(0);
+		} else qmgr = raceConnections(listOfConn, connProps);
+        
+        return qmgr;
+	}
+	
+	/**
+	 * Get the connection names of the queue manager
+	 * 
+	 * @return connNames List of connection names, host(port)
+	 */
+	private List<String> getConnNames() {
+		
+		List<String> connNames = new ArrayList<String>();
+		
+		if (this.connNameList == null) connNames.add(this.hostname + "(" + this.port + ")");
+		else {
+			String[] connListArr = this.connNameList.split(CONN_NAMELIST_SEPARATOR);
+			for (String conn : connListArr) {
+				connNames.add(conn);
+			}
+		}
+		
+		return connNames;
+	}
+	
+	/**
+	 * Connect using a list of connection names. Attempts are started in list order, each
+	 * one as soon as the previous attempt failed or after a short delay, and run in 
+	 * parallel. The first successful connection is kept, the others are closed.
+	 * 
+	 * @param listOfConn List of connection names
+	 * @param connProps Connection properties, except host name and port
+	 * @return qmgr The connected queue manager
+	 */
+	private MQQueueManager raceConnections(List<String> listOfConn, Hashtable<String, Object> connProps)
+		throws MQException {
+		
+		log.trace("[{}] Entry {}.raceConnections, listOfConn={}", Thread.currentThread().getId(), this.getClass().getName(), listOfConn);
+		
+		CompletionService<MQQueueManager> attempts = new ExecutorCompletionService<MQQueueManager>(connectors);
+		List<Future<MQQueueManager>> startedAttempts = new ArrayList<Future<MQQueueManager>>();
+		List<String> startedConns = new ArrayList<String>();
+		Future<MQQueueManager> completedAttempt;
+		Future<MQQueueManager> winningAttempt = null;
+		MQQueueManager qmgr = null;
+		MQException lastException = null;
+		
+		int nextConn = 0;
+		int runningAttempts = 0;
+		
+		try {
+			while (qmgr == null && (nextConn < listOfConn.size() || runningAttempts > 0)) {
+				// Start the next attempt right away when no other attempt is in progress
+				if (runningAttempts == 0) {
+					startedConns.add(listOfConn.get(nextConn));
+					startedAttempts.add(attempts.submit(new ConnectAttempt(listOfConn.get(nextConn++), connProps)));
+					runningAttempts++;
+				}
+				
+				// Wait for an attempt to complete, start the next one if it takes too long
+				if (nextConn < listOfConn.size()) completedAttempt = attempts.poll(CONN_ATTEMPT_DELAY, TimeUnit.MILLISECONDS);
+				else completedAttempt = attempts.take();
+				
+				if (completedAttempt == null) {
+					startedConns.add(listOfConn.get(nextConn));
+					startedAttempts.add(attempts.submit(new ConnectAttempt(listOfConn.get(nextConn++), connProps)));
+					runningAttempts++;
+					continue;
+				}
+				
+				runningAttempts--;
+				
+				try {
+					qmgr = completedAttempt.get();
+					winningAttempt = completedAttempt;
+					this.connectedConnName = startedConns.get(startedAttempts.indexOf(completedAttempt));
+				} catch (ExecutionException ee) {
+					if (ee.getCause() instanceof MQException) lastException = (MQException) ee.getCause();
+					else if (ee.getCause() instanceof RuntimeException) throw (RuntimeException) ee.getCause();
+					else throw new IllegalStateException(ee.getCause());
+				}
+			} // end while
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			lastException = new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_CONNECTION_BROKEN, this);
+		} finally {
+			// Close the connections of all the other attempts, now or once they complete
+			for (Future<MQQueueManager> attempt : startedAttempts) {
+				if (attempt != winningAttempt) connectors.execute(new ConnectAttemptCloser(attempt));
+			}
+		}
+		
+		log.trace("[{}]  Exit {}.raceConnections, qmgr={}", Thread.currentThread().getId(), this.getClass().getName(), qmgr);
+		
+		if (qmgr == null) throw lastException;
+		
+		return qmgr;
+	}
+	
+	/**
+	 * Disconnect from a queue manager
+	 * 
+	 */
+	public void disconnect()
+		throws MQException {
+		
+		log.trace("[{}] Entry {}.disconnect", Thread.currentThread().getId(), this.getClass().getName());
+		
+		this.pendingRequests.clear();
+		
+		if (this.connected) {
+			this.connected = false;
+			this.transport.disconnect();
+		}
+		
+		log.trace("[{}]  Exit {}.disconnect", Thread.currentThread().getId(), this.getClass().getName());	
+	}
+	
+	/**
+	 * Submit a PCF command and wait for a response
+	 * 
+	 * @param pcfRequest A PCFMessage object containing the PCF request
+	 * @return pcfResponse An array of PCFMessage objects containing the PCF response 
+	 */
+	public PCFMessage[] submitPCF(PCFMessage pcfRequest)
+		throws MQException, IOException {
+		
+		PCFMessage[] pcfResponse;
+		
+		log.trace("[{}] Entry {}.submitPCF, pcfRequest={}", Thread.currentThread().getId(), this.getClass().getName(), pcfRequest);
+	    
+	    pcfResponse = submitPCFAsync(pcfRequest).getResponse();
+	    
+	    log.trace("[{}]  Exit {}.submitPCF, pcfResponse={}", Thread.currentThread().getId(), this.getClass().getName(), pcfResponse);
+	    
+	    return pcfResponse; 
+	}
+	
+	/**
+	 * Submit a PCF command without waiting for the response. Several requests can be
+	 * submitted back to back, the command server then works on them while the responses
+	 * of the earlier requests are being received.
+	 * 
+	 * @param pcfRequest A PCFMessage object containing the PCF request
+	 * @return request The submitted request, used to get the PCF response
+	 */
+	public MQPCFRequest submitPCFAsync(PCFMessage pcfRequest)
+		throws MQException, IOException {
+		
+		return submitPCFAsync(pcfRequest, false);
+	}
+	
+	/**
+	 * Submit a PCF command without waiting for the response
+	 * 
+	 * @param pcfRequest A PCFMessage object containing the PCF request
+	 * @param rawResponse Decode the response messages as MQPCFReply objects, read with 
+	 *                    getReplies() or nextReply(), instead of PCFMessage objects
+	 * @return request The submitted request, used to get the PCF response
+	 */
+	public MQPCFRequest submitPCFAsync(PCFMessage pcfRequest, boolean rawResponse)
+		throws MQException, IOException {
+		
+		log.trace("[{}] Entry {}.submitPCFAsync, pcfRequest={}, rawResponse={}", Thread.currentThread().getId(), this.getClass().getName(), pcfRequest, rawResponse);
+		
+	    if (!this.connected) throw new IllegalStateException("Not connected to a queue manager!");
+	    
+	    MQMessage requestMessage = new MQMessage();
+	    requestMessage.messageType = CMQC.MQMT_REQUEST;
+	    requestMessage.format = CMQC.MQFMT_ADMIN;
+	    requestMessage.feedback = CMQC.MQFB_NONE;
+	    requestMessage.report = CMQC.MQRO_PASS_DISCARD_AND_EXPIRY | CMQC.MQRO_DISCARD_MSG;
+	    requestMessage.expiry = RESPONSE_WAIT_INTERVAL / 100;
+	    pcfRequest.write(requestMessage);
+	    
+	    // The z/OS command server only takes extended requests, the MQCFH is the same size in version 3
+	    if (this.platform == CMQC.MQPL_ZOS) {
+	    	requestMessage.seek(0);
+	    	requestMessage.writeInt(CMQCFC.MQCFT_COMMAND_XR);
+	    	requestMessage.writeInt(CMQCFC.MQCFH_STRUC_LENGTH);
+	    	requestMessage.writeInt(CMQCFC.MQCFH_VERSION_3);
+	    }
+	    
+	    Object commandEvent = MQFlightEvent.PCF_COMMAND.begin();
+	    long submitTime = System.nanoTime();
+	    this.transport.putRequest(requestMessage);
+	    
+	    // The command server sets the correlation id of the responses to the message id of the request
+	    MQPCFRequest request = new MQPCFRequest(this, pcfRequest, requestMessage.messageId, rawResponse);
+	    request.setSubmitTime(submitTime);
+	    request.setFlightEvent(commandEvent);
+	    this.pendingRequests.put(ByteBuffer.wrap(request.getMessageId()), request);
+	    
+	    log.trace("[{}]  Exit {}.submitPCFAsync, request={}", Thread.currentThread().getId(), this.getClass().getName(), request);
+	    
+	    return request;
+	}
+	
+	/**
+	 * Receive response messages until the response to a request is complete. Responses
+	 * to other pending requests received in the meantime are kept with their request.
+	 * 
+	 * @param request A submitted request
+	 * @return pcfResponse An array of PCFMessage objects containing the PCF response
+	 */
+	PCFMessage[] receivePCF(MQPCFRequest request)
+		throws MQException, IOException {
+		
+		log.trace("[{}] Entry {}.receivePCF, request={}", Thread.currentThread().getId(), this.getClass().getName(), request);
+		
+		while (!request.isComplete()) receiveResponse();
+		
+		PCFMessage[] pcfResponse = request.getResponseQueue().toArray(new PCFMessage[0]);
+		request.getResponseQueue().clear();
+		
+		// Report the first error returned by the command server
+		for (PCFMessage response : pcfResponse) {
+			if (response.getCompCode() != CMQC.MQCC_OK) throw new PCFException(response.getCompCode(), response.getReason(), pcfResponse);
+		}
+		
+		log.trace("[{}]  Exit {}.receivePCF, pcfResponse={}", Thread.currentThread().getId(), this.getClass().getName(), (Object) pcfResponse);
+		
+		return pcfResponse;
+	}
+	
+	/**
+	 * Receive response messages until the next response message to a request is available.
+	 * Responses to other pending requests received in the meantime are kept with their request.
+	 * 
+	 * @param request A submitted request
+	 * @return response The next response message, or null when the response is complete
+	 */
+	PCFMessage receiveNextPCF(MQPCFRequest request)
+		throws MQException, IOException {
+		
+		while (request.getResponseQueue().isEmpty() && !request.isComplete()) receiveResponse();
+		
+		PCFMessage response = request.getResponseQueue().poll();
+		
+		if (response != null && response.getCompCode() != CMQC.MQCC_OK) throw new PCFException(response.getCompCode(), response.getReason(), new PCFMessage[] { response });
+		
+		return response;
+	}
+	
+	/**
+	 * Receive response messages until the raw response to a request is complete
+	 * 
+	 * @param request A request submitted for a raw response
+	 * @return replies The response messages
+	 */
+	MQPCFReply[] receiveReplies(MQPCFRequest request)
+		throws MQException, IOException {
+		
+		log.trace("[{}] Entry {}.receiveReplies, request={}", Thread.currentThread().getId(), this.getClass().getName(), request);
+		
+		while (!request.isComplete()) receiveResponse();
+		
+		MQPCFReply[] replies = request.getReplyQueue().toArray(new MQPCFReply[0]);
+		request.getReplyQueue().clear();
+		
+		// Report the first error returned by the command server
+		for (MQPCFReply reply : replies) {
+			if (reply.getCompCode() != CMQC.MQCC_OK) throw new PCFException(reply.getCompCode(), reply.getReason(), replies);
+		}
+		
+		log.trace("[{}]  Exit {}.receiveReplies, replies={}", Thread.currentThread().getId(), this.getClass().getName(), replies.length);
+		
+		return replies;
+	}
+	
+	/**
+	 * Receive response messages until the next raw response message to a request is available
+	 * 
+	 * @param request A request submitted for a raw response
+	 * @return reply The next response message, or null when the response is complete
+	 */
+	MQPCFReply receiveNextReply(MQPCFRequest request)
+		throws MQException, IOException {
+		
+		while (request.getReplyQueue().isEmpty() && !request.isComplete()) receiveResponse();
+		
+		MQPCFReply reply = request.getReplyQueue().poll();
+		
+		if (reply != null && reply.getCompCode() != CMQC.MQCC_OK) throw new PCFException(reply.getCompCode(), reply.getReason(), reply);
+		
+		return reply;
+	}
+	
+	/**
+	 * Receive the next response message from the reply queue and add it to its request
+	 * 
+	 */
+	private void receiveResponse()
+		throws MQException, IOException {
+		
+		if (!this.connected) throw new IllegalStateException("Not connected to a queue manager!");
+		
+		long waitStart = System.nanoTime();
+		MQMessage responseMessage = this.transport.getReply(RESPONSE_WAIT_INTERVAL);
+		if (this.statistics != null) this.statistics.record(MQRunStatistics.PCF_REPLY_WAIT, System.nanoTime() - waitStart);
+		
+		// Ignore responses to requests no longer pending
+		MQPCFRequest owner = this.pendingRequests.get(ByteBuffer.wrap(responseMessage.correlationId));
+		if (owner == null) return;
+		
+		if (owner.getFlightEvent() != null) owner.countReply(responseMessage.getMessageLength());
+		
+		int type;
+		int control;
+		int compCode;
+		MQPCFReply reply = null;
+		PCFMessage response = null;
+		
+		if (owner.isRawResponse()) {
+			reply = new MQPCFReply(responseMessage);
+			type = reply.getType();
+			control = reply.getControl();
+			compCode = reply.getCompCode();
+		} else {
+			response = new PCFMessage(responseMessage);
+			type = response.getType();
+			control = response.getControl();
+			compCode = response.getCompCode();
+		}
+		
+		// An extended response carries the records in item messages, the other messages are only
+		// kept when they report an error. It ends with the last summary, not with the last item.
+		boolean last;
+		
+		if (type == CMQCFC.MQCFT_XR_MSG || type == CMQCFC.MQCFT_XR_SUMMARY) {
+			if (compCode != CMQC.MQCC_OK) {
+				if (reply != null) owner.addReply(reply);
+				else owner.addResponse(response);
+			}
+			last = type == CMQCFC.MQCFT_XR_SUMMARY && control == CMQCFC.MQCFC_LAST;
+		} else {
+			if (reply != null) owner.addReply(reply);
+			else owner.addResponse(response);
+			last = type != CMQCFC.MQCFT_XR_ITEM && control == CMQCFC.MQCFC_LAST;
+		}
+		
+		if (last) {
+			if (this.statistics != null) this.statistics.record(MQRunStatistics.PCF_COMMAND, System.nanoTime() - owner.getSubmitTime());
+			if (owner.getFlightEvent() != null) {
+				int command = owner.getPcfRequest().getCommand();
+				MQFlightEvent.PCF_COMMAND.commit(owner.getFlightEvent(), this.qmName, command, MQConstantTable.COMMAND.lookup(command), owner.getReplyCount(), owner.getReplyBytes());
+			}
+			owner.setComplete(true);
+			this.pendingRequests.remove(ByteBuffer.wrap(owner.getMessageId()));
+		}
+	}
+
+	public String getQmName() {
+		return qmName;
+	}
+
+	public void setQmName(String qmName) {
+		this.qmName = qmName;
+	}
+
+	public String getHostname() {
+		return hostname;
+	}
+
+	public void setHostname(String hostname) {
+		this.hostname = hostname;
+	}
+
+	public int getPort() {
+		return port;
+	}
+
+	public void setPort(int port) {
+		this.port = port;
+	}
+	
+	public String getConnNameList() {
+		return connNameList;
+	}
+
+	public void setConnNameList(String connNameList) {
+		this.connNameList = connNameList;
+	}
+
+	public String getChannelName() {
+		return channelName;
+	}
+
+	public void setChannelName(String channelName) {
+		this.channelName = channelName;
+	}
+
+	public String getUserId() {
+		return userId;
+	}
+
+	public void setUserId(String userId) {
+		this.userId = userId;
+	}
+
+	public String getPassword() {
+		return password;
+	}
+
+	public void setPassword(String password) {
+		this.password = password;
+	}
+
+	public String getSslCipherSuite() {
+		return sslCipherSuite;
+	}
+
+	public void setSslCipherSuite(String sslCipherSuite) {
+		this.sslCipherSuite = sslCipherSuite;
+	}
+
+	public MQTransport getTransport() {
+		return transport;
+	}
+
+	public void setTransport(MQTransport transport) {
+		this.transport = transport;
+	}
+
+	/**
+	 * Get the platform of the connected queue manager
+	 * 
+	 * @return platform An MQPL_* value
+	 */
+	public int getPlatform() {
+		return platform;
+	}
+
+	public long getConnectNanos() {
+		return connectNanos;
+	}
+
+	public MQRunStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setStatistics(MQRunStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public MQCircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public void setCircuitBreaker(MQCircuitBreaker circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	/**
+	 * Connection attempt to a single connection name
+	 *
+	 */
+	private class ConnectAttempt implements Callable<MQQueueManager> {
+		
+		private Hashtable<String, Object> connProps;
+		private String hostname;
+		private int port;
+		
+		public ConnectAttempt(String conn, Hashtable<String, Object> connProps) {
+			
+			int p1 = conn.indexOf('(');
+			
+			if (p1 < 0) {
+				this.hostname = conn.trim();
+				this.port = DEFAULT_PORT;
+			} else {
+				this.hostname = conn.substring(0, p1).trim();
+				this.port = Integer.parseInt(conn.substring(p1 + 1, conn.indexOf(')')).trim());
+			}
+			
+			this.connProps = new Hashtable<String, Object>(connProps);
+			this.connProps.put(CMQC.HOST_NAME_PROPERTY, this.hostname);
+			this.connProps.put(CMQC.PORT_PROPERTY, this.port);
+		}
+		
+		@Override
+		public MQQueueManager call() 
+			throws MQException {
+			
+			log.trace("[{}] MQQueueManager {}.connect, connProps={}", Thread.currentThread().getId(), MQAgent.this.getClass().getName(), this.connProps);
+			
+			Object connectEvent = MQFlightEvent.CONNECT_ATTEMPT.begin();
+			
+			try {
+				MQQueueManager qmgr = new MQQueueManager(MQAgent.this.qmName, this.connProps);
+				if (connectEvent != null) MQFlightEvent.CONNECT_ATTEMPT.commit(connectEvent, MQAgent.this.qmName, this.hostname, this.port, "connected", CMQC.MQRC_NONE);
+				return qmgr;
+			} catch (MQException mqe) {
+				if (connectEvent != null) MQFlightEvent.CONNECT_ATTEMPT.commit(connectEvent, MQAgent.this.qmName, this.hostname, this.port, "failed", mqe.getReason());
+				throw mqe;
+			}
+		}
+	}
+	
+	/**
+	 * Close the connection of a connection attempt that lost the race
+	 *
+	 */
+	private static class ConnectAttemptCloser implements Runnable {
+		
+		private Future<MQQueueManager> attempt;
+		
+		public ConnectAttemptCloser(Future<MQQueueManager> attempt) {
+			
+			this.attempt = attempt;
+		}
+		
+		@Override
+		public void run() {
+			
+			try {
+				this.attempt.get().disconnect();
+			} catch (Exception e) {
+				// ignore, the attempt failed or the connection is already gone
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MQAgent [qmName=" + qmName + ", hostname=" + hostname + ", port=" + port + ", connectionNameList="
+				+ connNameList + ", channelName=" + channelName + ", userId=" + userId + ", password=" + password
+				+ ", sslCipherSuite=" + sslCipherSuite + "]";
+	}
+
+}
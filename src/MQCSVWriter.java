@@ -0,0 +1,212 @@
+package com.ibm.xmq.cluster;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileChannel;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQCSVWriter Class
+ *
+ * Write the collected records to the queue manager, cluster queue manager
+ * and cluster queue CSV files. The records of a queue manager arrive together
+ * before its end, which records the length of the CSV files in the checkpoint
+ * journal, so the CSV files only hold whole queue managers at each journaled
+ * offset.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQCSVWriter implements MQRecordSink {
+	
+	private PrintWriter qmDataWriter;
+	private PrintWriter qmClusterDataWriter;
+	private PrintWriter qmClusterQueueDataWriter;
+	private FileChannel[] channels;
+	private MQRunStatistics statistics;
+	private MQCheckpointJournal journal;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param qmDataFileName Queue manager data file name
+	 * @param qmClusterQueueManagerFileName Cluster queue manager data file name
+	 * @param qmClusterQueueDataFileName Cluster queue data file name, null if cluster queues are not collected
+	 */
+	public MQCSVWriter(String qmDataFileName, String qmClusterQueueManagerFileName, String qmClusterQueueDataFileName)
+		throws IOException {
+		
+		this(qmDataFileName, qmClusterQueueManagerFileName, qmClusterQueueDataFileName, null);
+	}
+	
+	/**
+	 * Constructor, to append to the CSV files of an interrupted run
+	 *
+	 * @param qmDataFileName Queue manager data file name
+	 * @param qmClusterQueueManagerFileName Cluster queue manager data file name
+	 * @param qmClusterQueueDataFileName Cluster queue data file name, null if cluster queues are not collected
+	 * @param resumeOffsets Length of the CSV files to keep, the rest is dropped, null to create new files
+	 */
+	public MQCSVWriter(String qmDataFileName, String qmClusterQueueManagerFileName, String qmClusterQueueDataFileName, long[] resumeOffsets)
+		throws IOException {
+		
+		this.channels = new FileChannel[3];
+		
+		try {
+			this.qmDataWriter = open(qmDataFileName, 0, resumeOffsets);
+			this.qmClusterDataWriter = open(qmClusterQueueManagerFileName, 1, resumeOffsets);
+			if (qmClusterQueueDataFileName != null) this.qmClusterQueueDataWriter = open(qmClusterQueueDataFileName, 2, resumeOffsets);
+		} catch (IOException ioe) {
+			close();
+			throw ioe;
+		}
+	}
+	
+	/**
+	 * Open a CSV file, truncated to its resume offset and appended to when resuming
+	 *
+	 */
+	private PrintWriter open(String fileName, int file, long[] resumeOffsets)
+		throws IOException {
+		
+		if (resumeOffsets != null) {
+			RandomAccessFile csvFile = new RandomAccessFile(fileName, "rw");
+			try {
+				if (csvFile.length() < resumeOffsets[file]) throw new IOException(fileName + " is shorter than its journaled length of " + resumeOffsets[file] + " bytes");
+				csvFile.setLength(resumeOffsets[file]);
+			} finally {
+				csvFile.close();
+			}
+		}
+		
+		FileOutputStream stream = new FileOutputStream(new File(fileName), resumeOffsets != null);
+		this.channels[file] = stream.getChannel();
+		
+		return new PrintWriter(new BufferedWriter(new OutputStreamWriter(stream)));
+	}
+	
+	@Override
+	public void addQueueManager(MQQueueManagerData qmd) {
+		long start = System.nanoTime();
+		this.qmDataWriter.println(qmd.toCSV());
+		recordWrite(start);
+	}
+	
+	@Override
+	public void addClusteredQueueManager(MQClusterQueueManagerData cqmd) {
+		long start = System.nanoTime();
+		this.qmClusterDataWriter.println(cqmd.toCSV());
+		recordWrite(start);
+	}
+	
+	@Override
+	public void addClusteredQueue(MQClusterQueueData cqd) {
+		if (this.qmClusterQueueDataWriter == null) return;
+		
+		long start = System.nanoTime();
+		this.qmClusterQueueDataWriter.println(cqd.toCSV());
+		recordWrite(start);
+	}
+	
+	/**
+	 * Record the length of the CSV files in the journal once the records of a queue manager
+	 * are written
+	 * 
+	 */
+	@Override
+	public void endQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success)
+		throws IOException {
+		
+		if (this.journal == null) return;
+		
+		flush();
+		
+		long[] offsets = new long[this.channels.length];
+		for (int i = 0; i < this.channels.length; i++) if (this.channels[i] != null) offsets[i] = this.channels[i].position();
+		
+		this.journal.complete(inventoryEntry.getQmName(), success, offsets);
+		if (this.journal.isSyncDue()) sync();
+	}
+	
+	/**
+	 * Force the CSV files to disk, then the journal entries of the queue managers they hold
+	 * 
+	 */
+	public void sync()
+		throws IOException {
+		
+		if (this.journal == null) return;
+		
+		flush();
+		for (FileChannel channel : this.channels) if (channel != null) channel.force(false);
+		
+		this.journal.sync();
+	}
+	
+	private void flush()
+		throws IOException {
+		
+		// checkError() flushes each writer first
+		if (this.qmDataWriter.checkError() || this.qmClusterDataWriter.checkError() || (this.qmClusterQueueDataWriter != null && this.qmClusterQueueDataWriter.checkError())) {
+			throw new IOException("Error writing the CSV files");
+		}
+	}
+	
+	private void recordWrite(long start) {
+		if (this.statistics != null) this.statistics.record(MQRunStatistics.CSV_WRITE, System.nanoTime() - start);
+	}
+	
+	public void close() {
+		
+		if (this.journal != null) {
+			try {
+				sync();
+				this.journal.close();
+			} catch (IOException ioe) {
+				// ignore, the queue managers not journaled are collected again when resuming
+			}
+		}
+		
+		if (this.qmDataWriter != null) this.qmDataWriter.close();
+		if (this.qmClusterDataWriter != null) this.qmClusterDataWriter.close();
+		if (this.qmClusterQueueDataWriter != null) this.qmClusterQueueDataWriter.close();
+	}
+
+	public MQRunStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setStatistics(MQRunStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public MQCheckpointJournal getJournal() {
+		return journal;
+	}
+
+	public void setJournal(MQCheckpointJournal journal) {
+		this.journal = journal;
+	}
+	
+}
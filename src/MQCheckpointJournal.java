@@ -0,0 +1,300 @@
+package com.ibm.xmq.cluster;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQCheckpointJournal Class
+ *
+ * Append-only journal of the progress of a collection run, used to resume an
+ * interrupted run. It names the CSV files of the run and gets a line for each
+ * completed queue manager, with the length of the CSV files once its records
+ * were written. Lines are forced to disk in batches, after the CSV files, so
+ * the offsets of a journaled queue manager are always on disk. A resumed run
+ * truncates the CSV files to the last offsets, dropping the records of the
+ * queue managers not journaled, and collects those again along with the ones
+ * journaled as failed. The last line of a queue manager wins.
+ *
+ * Journal file format, one tab separated line per entry:
+ *    XMQJOURNAL 1
+ *    OUTPUT  qmdata-file  clusqmdata-file  clusqueuedata-file (empty if not collected)
+ *    QM      qm-name  S|F  qmdata-offset  clusqmdata-offset  clusqueuedata-offset
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQCheckpointJournal {
+
+	private static final String HEADER = "XMQJOURNAL 1";
+	private static final String OUTPUT = "OUTPUT";
+	private static final String QUEUE_MANAGER = "QM";
+	private static final String SEPARATOR = "\t";
+	private static final String SUCCESS = "S";
+	private static final String FAILURE = "F";
+
+	// Entries written to disk at once, unless the oldest one is waiting for longer than the interval
+	private static final int SYNC_BATCH_SIZE = 100;
+	private static final long SYNC_INTERVAL = 5000;
+
+	private String fileName;
+	private FileOutputStream journal;
+	private StringBuilder pendingEntries;
+	private int pendingCount;
+	private long oldestPendingTime;
+
+	private String qmDataFileName;
+	private String qmClusterQueueManagerFileName;
+	private String qmClusterQueueDataFileName;
+	private Map<String, Boolean> completedQueueManagers;
+	private long[] offsets;
+
+
+	/**
+	 * Constructor
+	 *
+	 */
+	private MQCheckpointJournal(String fileName) {
+
+		this.fileName = fileName;
+		this.pendingEntries = new StringBuilder();
+		this.completedQueueManagers = new HashMap<String, Boolean>();
+		this.offsets = new long[3];
+	}
+
+	/**
+	 * Create the journal of a new run
+	 *
+	 * @param fileName Journal file name
+	 * @param qmDataFileName Queue manager data file name
+	 * @param qmClusterQueueManagerFileName Cluster queue manager data file name
+	 * @param qmClusterQueueDataFileName Cluster queue data file name, null if cluster queues are not collected
+	 * @return journal The journal, empty
+	 */
+	public static MQCheckpointJournal create(String fileName, String qmDataFileName, String qmClusterQueueManagerFileName, String qmClusterQueueDataFileName)
+		throws IOException {
+
+		MQCheckpointJournal journal = new MQCheckpointJournal(fileName);
+		journal.qmDataFileName = qmDataFileName;
+		journal.qmClusterQueueManagerFileName = qmClusterQueueManagerFileName;
+		journal.qmClusterQueueDataFileName = qmClusterQueueDataFileName;
+
+		journal.journal = new FileOutputStream(fileName);
+		journal.pendingEntries.append(HEADER).append('\n');
+		journal.pendingEntries.append(OUTPUT).append(SEPARATOR).append(qmDataFileName).append(SEPARATOR).append(qmClusterQueueManagerFileName)
+			.append(SEPARATOR).append(qmClusterQueueDataFileName == null ? "" : qmClusterQueueDataFileName).append('\n');
+		journal.sync();
+
+		return journal;
+	}
+
+	/**
+	 * Open the journal of an interrupted run to resume it. A last line only partly written
+	 * is dropped, new entries are then appended.
+	 *
+	 * @param fileName Journal file name
+	 * @return journal The journal, with the queue managers already completed
+	 */
+	public static MQCheckpointJournal resume(String fileName)
+		throws IOException {
+
+		MQCheckpointJournal journal = new MQCheckpointJournal(fileName);
+
+		byte[] content = Files.readAllBytes(new File(fileName).toPath());
+		int length = 0;
+		int lineNumber = 0;
+
+		for (int start = 0, end; start < content.length && (end = indexOf(content, '\n', start)) >= 0; start = end + 1) {
+			String[] fields = new String(content, start, end - start, StandardCharsets.UTF_8).split(SEPARATOR, -1);
+			lineNumber++;
+
+			if (lineNumber == 1) {
+				if (!fields[0].equals(HEADER)) throw new IOException(fileName + " is not a collection journal");
+			} else if (fields[0].equals(OUTPUT) && fields.length == 4) {
+				journal.qmDataFileName = fields[1];
+				journal.qmClusterQueueManagerFileName = fields[2];
+				journal.qmClusterQueueDataFileName = fields[3].isEmpty() ? null : fields[3];
+			} else if (fields[0].equals(QUEUE_MANAGER) && fields.length == 6) {
+				try {
+					long[] offsets = new long[] { Long.parseLong(fields[3]), Long.parseLong(fields[4]), Long.parseLong(fields[5]) };
+					journal.completedQueueManagers.put(fields[1], fields[2].equals(SUCCESS));
+					journal.offsets = offsets;
+				} catch (NumberFormatException nfe) {
+					throw new IOException("Invalid entry at line " + lineNumber + " of journal " + fileName);
+				}
+			} else throw new IOException("Invalid entry at line " + lineNumber + " of journal " + fileName);
+
+			length = end + 1;
+		} // end for
+
+		if (journal.qmDataFileName == null) throw new IOException(fileName + " does not name the CSV files of the run");
+
+		// Drop a torn last line before appending
+		if (length < content.length) {
+			RandomAccessFile file = new RandomAccessFile(fileName, "rw");
+			try {
+				file.setLength(length);
+			} finally {
+				file.close();
+			}
+		}
+
+		journal.journal = new FileOutputStream(fileName, true);
+
+		return journal;
+	}
+
+	/**
+	 * Record a completed queue manager, once its records are written to the CSV files
+	 *
+	 * @param qmName Queue manager name
+	 * @param success True if the data of the queue manager was collected
+	 * @param offsets Length of the queue manager, cluster queue manager and cluster queue CSV files
+	 */
+	public void complete(String qmName, boolean success, long[] offsets) {
+
+		if (this.pendingCount == 0) this.oldestPendingTime = System.currentTimeMillis();
+
+		this.pendingEntries.append(QUEUE_MANAGER).append(SEPARATOR).append(qmName).append(SEPARATOR).append(success ? SUCCESS : FAILURE);
+		for (long offset : offsets) this.pendingEntries.append(SEPARATOR).append(offset);
+		this.pendingEntries.append('\n');
+		this.pendingCount++;
+
+		this.completedQueueManagers.put(qmName, success);
+		this.offsets = offsets.clone();
+	}
+
+	/**
+	 * Check if the pending entries should be written to disk
+	 *
+	 * @return due True if a batch of entries is pending, or an entry is pending for too long
+	 */
+	public boolean isSyncDue() {
+
+		return this.pendingCount >= SYNC_BATCH_SIZE || (this.pendingCount != 0 && System.currentTimeMillis() - this.oldestPendingTime >= SYNC_INTERVAL);
+	}
+
+	/**
+	 * Write the pending entries and force them to disk. The CSV files must be forced to
+	 * disk first.
+	 *
+	 */
+	public void sync()
+		throws IOException {
+
+		if (this.pendingEntries.length() == 0) return;
+
+		this.journal.write(this.pendingEntries.toString().getBytes(StandardCharsets.UTF_8));
+		this.journal.getChannel().force(false);
+
+		this.pendingEntries.setLength(0);
+		this.pendingCount = 0;
+	}
+
+	/**
+	 * Write the pending entries and close the journal
+	 *
+	 */
+	public void close()
+		throws IOException {
+
+		if (this.journal == null) return;
+
+		try {
+			sync();
+		} finally {
+			this.journal.close();
+			this.journal = null;
+		}
+	}
+
+	/**
+	 * Check if a queue manager was completed
+	 *
+	 * @param qmName Queue manager name
+	 * @return completed True if the queue manager is in the journal
+	 */
+	public boolean isCompleted(String qmName) {
+		return completedQueueManagers.containsKey(qmName);
+	}
+
+	/**
+	 * Check if a queue manager was completed successfully
+	 *
+	 * @param qmName Queue manager name
+	 * @return success True if the data of the queue manager was collected
+	 */
+	public boolean isSuccessful(String qmName) {
+		return Boolean.TRUE.equals(completedQueueManagers.get(qmName));
+	}
+
+	public int getCompletedCount() {
+		return completedQueueManagers.size();
+	}
+
+	public int getSuccessfulCount() {
+		int successful = 0;
+		for (Boolean success : completedQueueManagers.values()) if (success) successful++;
+		return successful;
+	}
+
+	/**
+	 * Get the length of the CSV files when the last queue manager was completed
+	 *
+	 * @return offsets Length of the queue manager, cluster queue manager and cluster queue CSV files
+	 */
+	public long[] getOffsets() {
+		return offsets.clone();
+	}
+
+	public String getFileName() {
+		return fileName;
+	}
+
+	public String getQmDataFileName() {
+		return qmDataFileName;
+	}
+
+	public String getQmClusterQueueManagerFileName() {
+		return qmClusterQueueManagerFileName;
+	}
+
+	public String getQmClusterQueueDataFileName() {
+		return qmClusterQueueDataFileName;
+	}
+
+	private static int indexOf(byte[] content, char c, int start) {
+
+		for (int i = start; i < content.length; i++) {
+			if (content[i] == c) return i;
+		} // end for
+
+		return -1;
+	}
+
+	@Override
+	public String toString() {
+		return "MQCheckpointJournal [fileName=" + fileName + ", completed=" + completedQueueManagers.size() + ", pending=" + pendingCount + "]";
+	}
+
+}
@@ -0,0 +1,288 @@
+package com.ibm.xmq.cluster;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.ibm.mq.constants.CMQC;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQCircuitBreaker Class
+ *
+ * Fail fast the connections to a connection name, host and port, that cannot be
+ * reached, instead of waiting for the connect timeout at each attempt. After a 
+ * few failures in a row the circuit of the connection name opens and it is 
+ * skipped, once the open interval is over a single connection probes it again
+ * and closes the circuit if it gets through. Each listener has its own circuit,
+ * a listener stopped on a host does not open the circuit of the others.
+ *
+ * The connection names that failed to connect can be kept in a file for the 
+ * next runs, which skip them until they are older than the time to live. The file
+ * holds one tab separated line per connection name:
+ *    host(port)  time of the last failure (ISO-8601)
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQCircuitBreaker {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQCircuitBreaker.class);
+	
+	private static final int DEFAULT_PORT = 1414;
+	private static final String SEPARATOR = "\t";
+	
+	// Failures in a row that open the circuit of a connection name, and how long it stays open (milliseconds)
+	private static final int FAILURE_THRESHOLD = 3;
+	private static final long OPEN_INTERVAL = 10000;
+	
+	// Time to live of the unreachable connection names kept between runs (minutes)
+	public static final long DEFAULT_CACHE_TTL = 60;
+	
+	private Map<String, EndpointCircuit> circuits;
+	private Map<String, Long> cachedEndpoints;
+	private Map<String, Long> failedEndpoints;
+	private String cacheFileName;
+	private long cacheTtl;
+	private int skippedConnections;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQCircuitBreaker() {
+		
+		this.circuits = new HashMap<String, EndpointCircuit>();
+		this.cachedEndpoints = new HashMap<String, Long>();
+		this.failedEndpoints = new LinkedHashMap<String, Long>();
+	}
+	
+	/**
+	 * Check if a reason code reports that the host of a connection name could not be reached, 
+	 * other failures show the host is up
+	 * 
+	 * @param reasonCode MQ reason code of a connection failure
+	 * @return unreachable True if the host could not be reached
+	 */
+	public static boolean isUnreachable(int reasonCode) {
+		return reasonCode == CMQC.MQRC_HOST_NOT_AVAILABLE || reasonCode == CMQC.MQRC_CONNECTION_BROKEN;
+	}
+	
+	/**
+	 * Load the unreachable connection names of the previous runs, the ones older than the
+	 * time to live are dropped. The file is written back by save().
+	 * 
+	 * @param fileName Cache file name, it does not have to exist
+	 * @param ttl Time to live (minutes)
+	 */
+	public synchronized void load(String fileName, long ttl)
+		throws IOException {
+		
+		this.cacheFileName = fileName;
+		this.cacheTtl = ttl;
+		
+		if (!new File(fileName).exists()) return;
+		
+		long oldest = System.currentTimeMillis() - ttl * 60000;
+		BufferedReader reader = new BufferedReader(new FileReader(fileName));
+		String line;
+		
+		try {
+			while ((line = reader.readLine()) != null) {
+				String[] fields = line.split(SEPARATOR);
+				if (fields.length != 2) continue;
+				
+				try {
+					long failedAt = Instant.parse(fields[1].trim()).toEpochMilli();
+					if (failedAt > oldest) this.cachedEndpoints.put(getEndpoint(fields[0]), failedAt);
+				} catch (DateTimeParseException dtpe) {
+					// skip the line, the cache is only an optimization
+				}
+			} // end while
+		} finally {
+			reader.close();
+		}
+	}
+	
+	/**
+	 * Write the unreachable connection names: the ones that failed in this run and the 
+	 * ones of the previous runs still valid and not reached in this run
+	 * 
+	 */
+	public synchronized void save()
+		throws IOException {
+		
+		if (this.cacheFileName == null) return;
+		
+		long oldest = System.currentTimeMillis() - this.cacheTtl * 60000;
+		Map<String, Long> endpoints = new LinkedHashMap<String, Long>();
+		
+		for (Map.Entry<String, Long> endpoint : this.cachedEndpoints.entrySet()) if (endpoint.getValue() > oldest) endpoints.put(endpoint.getKey(), endpoint.getValue());
+		endpoints.putAll(this.failedEndpoints);
+		
+		// Write a new file then replace the old one, a run stopped meanwhile keeps the old one
+		File tempFile = new File(this.cacheFileName + ".tmp");
+		BufferedWriter writer = new BufferedWriter(new FileWriter(tempFile));
+		
+		try {
+			for (Map.Entry<String, Long> endpoint : endpoints.entrySet()) {
+				writer.write(endpoint.getKey() + SEPARATOR + Instant.ofEpochMilli(endpoint.getValue()));
+				writer.newLine();
+			} // end for
+		} finally {
+			writer.close();
+		}
+		
+		Files.move(tempFile.toPath(), new File(this.cacheFileName).toPath(), StandardCopyOption.REPLACE_EXISTING);
+	}
+	
+	/**
+	 * Get the connection names that may be tried. A connection name whose circuit is open is
+	 * skipped, unless its open interval is over and no other connection is probing it.
+	 * 
+	 * @param connNames Connection names, host(port)
+	 * @return allowedConnNames The connection names to try, empty if the connection should fail fast
+	 */
+	public synchronized List<String> allow(List<String> connNames) {
+		
+		List<String> allowedConnNames = new ArrayList<String>();
+		long now = System.currentTimeMillis();
+		
+		for (String connName : connNames) {
+			String endpoint = getEndpoint(connName);
+			
+			Long failedAt = this.cachedEndpoints.get(endpoint);
+			if (failedAt != null && failedAt > now - this.cacheTtl * 60000) continue;
+			
+			// Skip the connection name while its circuit is open, its own failures already put it in the cache
+			EndpointCircuit circuit = getCircuit(endpoint);
+			if (circuit.failures >= FAILURE_THRESHOLD) {
+				if (now < circuit.openUntil || circuit.probing) continue;
+				circuit.probing = true;
+			}
+			
+			allowedConnNames.add(connName);
+		} // end for
+		
+		if (allowedConnNames.isEmpty()) this.skippedConnections++;
+		
+		return allowedConnNames;
+	}
+	
+	/**
+	 * Record the outcome of a connection with connection names returned by allow()
+	 * 
+	 * @param connNames Connection names tried
+	 * @param connectedConnName Connection name connected to, null if not known
+	 * @param unreachable True if none of the connection names could be reached
+	 */
+	public synchronized void record(List<String> connNames, String connectedConnName, boolean unreachable) {
+		
+		long now = System.currentTimeMillis();
+		
+		for (String connName : connNames) {
+			String endpoint = getEndpoint(connName);
+			EndpointCircuit circuit = getCircuit(endpoint);
+			circuit.probing = false;
+			
+			if (unreachable) {
+				circuit.failures++;
+				if (circuit.failures >= FAILURE_THRESHOLD) {
+					log.trace("[{}] {}.record, endpoint={}, failures={}, open", Thread.currentThread().getId(), this.getClass().getName(), endpoint, circuit.failures);
+					circuit.openUntil = now + OPEN_INTERVAL;
+				}
+				this.failedEndpoints.put(endpoint, now);
+			} else if (connectedConnName == null || connectedConnName.equals(connName)) {
+				circuit.failures = 0;
+				circuit.openUntil = 0;
+				this.cachedEndpoints.remove(endpoint);
+				this.failedEndpoints.remove(endpoint);
+			}
+		} // end for
+	}
+	
+	/**
+	 * Get the number of connections failed fast, with all their connection names skipped
+	 * 
+	 * @return count Number of connections skipped
+	 */
+	public synchronized int getSkippedConnections() {
+		return skippedConnections;
+	}
+	
+	public String getCacheFileName() {
+		return cacheFileName;
+	}
+	
+	private EndpointCircuit getCircuit(String endpoint) {
+		
+		EndpointCircuit circuit = this.circuits.get(endpoint);
+		
+		if (circuit == null) {
+			circuit = new EndpointCircuit();
+			this.circuits.put(endpoint, circuit);
+		}
+		
+		return circuit;
+	}
+	
+	/**
+	 * Get the host(port) key of a connection name, host names are not case sensitive
+	 * 
+	 */
+	private static String getEndpoint(String connName) {
+		
+		String endpoint = connName.trim().toLowerCase();
+		
+		if (endpoint.indexOf('(') < 0) return endpoint + "(" + DEFAULT_PORT + ")";
+		
+		return endpoint.replace(" ", "");
+	}
+	
+	/**
+	 * Circuit of a connection name
+	 *
+	 */
+	private static class EndpointCircuit {
+		
+		private int failures;
+		private long openUntil;
+		private boolean probing;
+	}
+	
+	@Override
+	public String toString() {
+		return "MQCircuitBreaker [circuits=" + circuits.size() + ", cachedEndpoints=" + cachedEndpoints.size() + ", failedEndpoints=" + failedEndpoints.size() + ", skippedConnections=" + skippedConnections + "]";
+	}
+	
+}
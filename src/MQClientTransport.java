@@ -0,0 +1,162 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQGetMessageOptions;
+import com.ibm.mq.MQMessage;
+import com.ibm.mq.MQPutMessageOptions;
+import com.ibm.mq.MQQueue;
+import com.ibm.mq.MQQueueManager;
+import com.ibm.mq.constants.CMQC;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQClientTransport Class
+ *
+ * Send PCF requests to the command queue of a queue manager over a client 
+ * connection and get the responses from a temporary reply queue
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQClientTransport implements MQTransport {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQClientTransport.class);
+	
+	private final String COMMAND_QUEUE = "SYSTEM.ADMIN.COMMAND.QUEUE";
+	private final String REPLY_MODEL_QUEUE = "SYSTEM.DEFAULT.MODEL.QUEUE";
+	private final String REPLY_QUEUE_PREFIX = "AMQ.*";
+	
+	private MQQueueManager qmgr;
+	private MQQueue commandQueue;
+	private MQQueue replyQueue;
+	private int platform;
+	
+	
+	/**
+	 * Connect to the queue manager of an agent
+	 * 
+	 * @param mqAgent Agent holding the connection properties
+	 */
+	@Override
+	public void connect(MQAgent mqAgent) 
+		throws MQException {
+		
+		this.qmgr = mqAgent.connectQueueManager();
+		
+		// The platform decides the format of the PCF requests, it is asked for before any is sent
+		int[] intAttrs = new int[1];
+		
+		try {
+			this.qmgr.inquire(new int[] { CMQC.MQIA_PLATFORM }, intAttrs, new byte[0]);
+		} catch (MQException mqe) {
+			disconnect();
+			throw mqe;
+		}
+		
+		this.platform = intAttrs[0];
+	}
+	
+	/**
+	 * Get the platform of the connected queue manager
+	 * 
+	 * @return platform An MQPL_* value
+	 */
+	@Override
+	public int getPlatform() {
+		return platform;
+	}
+	
+	/**
+	 * Put a request message on the command queue, the command queue and the temporary reply
+	 * queue are opened on first use
+	 * 
+	 * @param requestMessage The request message, its message id is set once it has been put
+	 */
+	@Override
+	public void putRequest(MQMessage requestMessage) 
+		throws MQException, IOException {
+		
+		log.trace("[{}] Entry {}.putRequest", Thread.currentThread().getId(), this.getClass().getName());
+		
+	    if (this.qmgr == null) throw new IllegalStateException("Not connected to a queue manager!");
+	    
+	    if (this.commandQueue == null) {
+	    	this.commandQueue = this.qmgr.accessQueue(COMMAND_QUEUE, CMQC.MQOO_OUTPUT | CMQC.MQOO_FAIL_IF_QUIESCING);
+	    	this.replyQueue = this.qmgr.accessQueue(REPLY_MODEL_QUEUE, CMQC.MQOO_INPUT_EXCLUSIVE | CMQC.MQOO_FAIL_IF_QUIESCING, null, REPLY_QUEUE_PREFIX, null);
+	    }
+	    
+	    requestMessage.replyToQueueName = this.replyQueue.getName();
+	    
+	    MQPutMessageOptions pmo = new MQPutMessageOptions();
+	    pmo.options = CMQC.MQPMO_NEW_MSG_ID | CMQC.MQPMO_NO_SYNCPOINT | CMQC.MQPMO_FAIL_IF_QUIESCING;
+	    
+	    this.commandQueue.put(requestMessage, pmo);
+	    
+	    log.trace("[{}]  Exit {}.putRequest", Thread.currentThread().getId(), this.getClass().getName());
+	}
+	
+	/**
+	 * Get the next response message from the reply queue
+	 * 
+	 * @param waitInterval Maximum time to wait for a message (milliseconds)
+	 * @return responseMessage The response message
+	 */
+	@Override
+	public MQMessage getReply(int waitInterval) 
+		throws MQException, IOException {
+		
+		if (this.replyQueue == null) throw new IllegalStateException("Not connected to a queue manager!");
+		
+		MQGetMessageOptions gmo = new MQGetMessageOptions();
+		gmo.options = CMQC.MQGMO_WAIT | CMQC.MQGMO_CONVERT | CMQC.MQGMO_NO_SYNCPOINT | CMQC.MQGMO_FAIL_IF_QUIESCING;
+		gmo.waitInterval = waitInterval;
+		
+		MQMessage responseMessage = new MQMessage();
+		this.replyQueue.get(responseMessage, gmo);
+		
+		return responseMessage;
+	}
+	
+	/**
+	 * Close the queues and disconnect from the queue manager
+	 * 
+	 */
+	@Override
+	public void disconnect() 
+		throws MQException {
+		
+		try {
+			// Close the command queue and delete the temporary reply queue
+			if (this.commandQueue != null) this.commandQueue.close();
+			if (this.replyQueue != null) this.replyQueue.close();
+		} catch (MQException mqe) {
+			// ignore, the connection is about to go away
+		}
+		
+		this.commandQueue = null;
+		this.replyQueue = null;
+		
+		if (this.qmgr != null) this.qmgr.disconnect();
+		this.qmgr = null;
+	}
+	
+}
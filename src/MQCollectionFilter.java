@@ -0,0 +1,232 @@
+package com.ibm.xmq.cluster;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import com.ibm.mq.constants.CMQCFC;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQCollectionFilter Class
+ *
+ * Restrict the collection to some clusters, cluster queue names and cluster 
+ * queue manager definition types. Whatever the command server can filter is 
+ * turned into PCF parameters: cluster and queue names that are either plain 
+ * names or generic names (a single trailing *), and a single definition type 
+ * condition. The other patterns are matched on the collected records.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQCollectionFilter {
+	
+	private static final int[] DEFINITION_TYPES = { 
+		CMQCFC.MQQMDT_EXPLICIT_CLUSTER_SENDER, 
+		CMQCFC.MQQMDT_AUTO_CLUSTER_SENDER, 
+		CMQCFC.MQQMDT_AUTO_EXP_CLUSTER_SENDER, 
+		CMQCFC.MQQMDT_CLUSTER_RECEIVER 
+	};
+	private static final String[] DEFINITION_TYPE_NAMES = { "CLUSSDR", "CLUSSDRA", "CLUSSDRB", "CLUSRCVR" };
+	
+	private List<String> clusterNames;
+	private List<String> queueNames;
+	private List<Integer> definitionTypes;
+	private WildcardMatcher clusterNameMatcher;
+	private WildcardMatcher queueNameMatcher;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQCollectionFilter() {
+		
+		this.clusterNames = new ArrayList<String>();
+		this.queueNames = new ArrayList<String>();
+		this.definitionTypes = new ArrayList<Integer>();
+	}
+	
+	/**
+	 * Convert a definition type name, as used by the DEFTYPE attribute in MQSC, to its value
+	 * 
+	 * @param name Definition type name (CLUSSDR, CLUSSDRA, CLUSSDRB or CLUSRCVR)
+	 * @return definitionType Definition type value, -1 if the name is not valid
+	 */
+	public static int toDefinitionType(String name) {
+		
+		for (int i = 0; i < DEFINITION_TYPE_NAMES.length; i++) {
+			if (DEFINITION_TYPE_NAMES[i].equalsIgnoreCase(name)) return DEFINITION_TYPES[i];
+		}
+		
+		return -1;
+	}
+	
+	public void addClusterName(String clusterName) {
+		
+		this.clusterNames.add(clusterName);
+		this.clusterNameMatcher = new WildcardMatcher(this.clusterNames);
+	}
+	
+	public void addQueueName(String queueName) {
+		
+		this.queueNames.add(queueName);
+		this.queueNameMatcher = new WildcardMatcher(this.queueNames);
+	}
+	
+	public void addDefinitionType(int definitionType) {
+		
+		if (!this.definitionTypes.contains(definitionType)) this.definitionTypes.add(definitionType);
+	}
+	
+	public boolean matchesClusterName(String clusterName) {
+		return this.clusterNameMatcher == null || this.clusterNameMatcher.matches(clusterName);
+	}
+	
+	public boolean matchesQueueName(String queueName) {
+		return this.queueNameMatcher == null || this.queueNameMatcher.matches(queueName);
+	}
+	
+	public boolean matchesDefinitionType(int definitionType) {
+		return this.definitionTypes.isEmpty() || this.definitionTypes.contains(definitionType);
+	}
+	
+	/**
+	 * Get the cluster names to pass to INQUIRE_CLUSTER_Q_MGR, one inquiry per name
+	 * 
+	 * @return clusterNames Cluster names, a single null entry when the inquiry should not be restricted 
+	 *                      to a cluster
+	 */
+	public List<String> getClusterNameParameters() {
+		
+		List<String> clusterNames = toGenericNames(this.clusterNames);
+		
+		if (clusterNames == null) return Collections.singletonList(null);
+		
+		return clusterNames;
+	}
+	
+	/**
+	 * Get the queue names to pass to INQUIRE_Q, one inquiry per name
+	 * 
+	 * @return queueNames Queue names or generic queue names
+	 */
+	public List<String> getQueueNameParameters() {
+		
+		List<String> queueNames = toGenericNames(this.queueNames);
+		
+		if (queueNames == null) return Collections.singletonList("*");
+		
+		return queueNames;
+	}
+	
+	/**
+	 * Get the cluster name condition of an INQUIRE_Q string filter, the command server only accepts
+	 * one filter so this is only possible with a single cluster name
+	 * 
+	 * @return clusterName Cluster name or generic cluster name, null if there is no usable condition
+	 */
+	public String getClusterNameFilter() {
+		
+		List<String> clusterNames = toGenericNames(this.clusterNames);
+		
+		if (clusterNames == null || clusterNames.size() != 1) return null;
+		
+		return clusterNames.get(0);
+	}
+	
+	/**
+	 * Get the definition types to collect
+	 * 
+	 * @return definitionTypes The definition types to collect
+	 */
+	public List<Integer> getDefinitionTypes() {
+		
+		List<Integer> definitionTypes = new ArrayList<Integer>();
+		
+		for (int definitionType : DEFINITION_TYPES) {
+			if (!matchesDefinitionType(definitionType)) continue;
+			
+			definitionTypes.add(definitionType);
+		} // end for
+		
+		return definitionTypes;
+	}
+	
+	/**
+	 * Get the definition type condition of an INQUIRE_CLUSTER_Q_MGR integer filter
+	 * 
+	 * @param definitionTypes The definition types to collect
+	 * @return filter The filter operator and value, null if all the definition types are collected
+	 *                or if they cannot be selected by a single condition
+	 */
+	public static int[] getDefinitionTypeFilter(List<Integer> definitionTypes) {
+		
+		if (definitionTypes.size() == 1) return new int[] { CMQCFC.MQCFOP_EQUAL, definitionTypes.get(0) };
+		
+		if (definitionTypes.size() == DEFINITION_TYPES.length - 1) {
+			for (int definitionType : DEFINITION_TYPES) {
+				if (!definitionTypes.contains(definitionType)) return new int[] { CMQCFC.MQCFOP_NOT_EQUAL, definitionType };
+			}
+		}
+		
+		return null;
+	}
+	
+	/**
+	 * Reduce name patterns to the names the command server accepts, dropping the names
+	 * already covered by a generic name so that no record is returned twice
+	 * 
+	 * @param patterns Name patterns
+	 * @return names Names and generic names, null if there is no pattern or if a pattern can only
+	 *               be matched on the collected records
+	 */
+	private static List<String> toGenericNames(List<String> patterns) {
+		
+		if (patterns.isEmpty()) return null;
+		
+		List<String> names = new ArrayList<String>();
+		
+		for (String pattern : patterns) {
+			int wildcard = pattern.indexOf('*');
+			
+			if (pattern.indexOf('?') >= 0 || (wildcard >= 0 && wildcard != pattern.length() - 1)) return null;
+		} // end for
+		
+		for (String pattern : new LinkedHashSet<String>(patterns)) {
+			boolean covered = false;
+			String name = pattern.endsWith("*") ? pattern.substring(0, pattern.length() - 1) : pattern;
+			
+			for (String other : patterns) {
+				if (other.equals(pattern) || !other.endsWith("*")) continue;
+				if (name.startsWith(other.substring(0, other.length() - 1))) covered = true;
+			} // end for
+			
+			if (!covered) names.add(pattern);
+		} // end for
+		
+		return names;
+	}
+
+	@Override
+	public String toString() {
+		return "MQCollectionFilter [clusterNames=" + clusterNames + ", queueNames=" + queueNames + ", definitionTypes="
+				+ definitionTypes + "]";
+	}
+	
+}
@@ -0,0 +1,215 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.Semaphore;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQCollectionTask Class
+ *
+ * Collect MQ data for a single inventory entry, either inline or on a
+ * collector thread
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQCollectionTask implements Callable<MQCollectionTask> {
+
+	private static final Logger log = LoggerFactory.getLogger(MQCollectionTask.class);
+
+	private MQQueueManagerInventory inventory;
+	private MQQueueManagerInventoryData inventoryEntry;
+	private boolean collectClusterQueues;
+	private String userId;
+	private String password;
+	private String sslCipherSuite;
+	private Semaphore connectionPermits;
+	private MQRecordSink recordSink;
+	private MQRecordSink gatedRecordSink;
+	private MQCollectionFilter collectionFilter;
+	private MQTransportFactory transportFactory;
+	private MQRunStatistics statistics;
+	private MQCircuitBreaker circuitBreaker;
+
+	private MQDataCollector dataCollector;
+	private boolean success;
+	private long collectNanos;
+	private int attempts;
+
+
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQCollectionTask(MQQueueManagerInventory inventory, MQQueueManagerInventoryData inventoryEntry,
+			boolean collectClusterQueues, String userId, String password, String sslCipherSuite) {
+
+		this.inventory = inventory;
+		this.inventoryEntry = inventoryEntry;
+		this.collectClusterQueues = collectClusterQueues;
+		this.userId = userId;
+		this.password = password;
+		this.sslCipherSuite = sslCipherSuite;
+	}
+
+	/**
+	 * Collect the data for the inventory entry
+	 *
+	 * @return task This task, holding the collected data and the outcome
+	 */
+	@Override
+	public MQCollectionTask call() {
+
+		log.trace("[{}] Entry {}.call, entry={}", Thread.currentThread().getId(), this.getClass().getName(), this.inventoryEntry);
+
+		// A task is called again when it is retried, with a new data collector
+		this.attempts++;
+		
+		// The records of the attempt are held on this thread for the gated sink, and added to it
+		// once the attempt succeeds, so that the collector threads feed it at the same time
+		MQQueueManagerGate gate = null;
+		MQRecordSink attemptRecordSink = this.recordSink;
+		if (this.gatedRecordSink != null) {
+			gate = new MQQueueManagerGate(this.inventoryEntry, this.gatedRecordSink);
+			attemptRecordSink = this.recordSink == null ? gate : new MQRecordBroadcast(Arrays.asList(this.recordSink, gate));
+		}
+		
+		this.dataCollector = new MQDataCollector(attemptRecordSink);
+		if (this.collectionFilter != null) this.dataCollector.setCollectionFilter(this.collectionFilter);
+		this.dataCollector.setTransportFactory(this.transportFactory);
+		this.dataCollector.setStatistics(this.statistics);
+		this.dataCollector.setCircuitBreaker(this.circuitBreaker);
+
+		// Wait for a connection permit, if the number of concurrent connections is capped
+		if (this.connectionPermits != null) {
+			long waitStart = System.nanoTime();
+			try {
+				this.connectionPermits.acquire();
+				if (this.statistics != null) this.statistics.record(MQRunStatistics.CONNECTION_PERMIT_WAIT, System.nanoTime() - waitStart);
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				log.trace("[{}] Exit {}.call, interrupted", Thread.currentThread().getId(), this.getClass().getName());
+				return this;
+			}
+		}
+
+		long collectStart = System.nanoTime();
+
+		try {
+			this.success = this.dataCollector.collect(this.inventory, this.inventoryEntry, this.collectClusterQueues, this.userId, this.password, this.sslCipherSuite);
+		} finally {
+			if (this.connectionPermits != null) this.connectionPermits.release();
+			this.collectNanos = System.nanoTime() - collectStart;
+			if (this.statistics != null) this.statistics.record(MQRunStatistics.COLLECT, this.collectNanos);
+		}
+		
+		if (gate != null) {
+			try {
+				gate.endQueueManager(this.inventoryEntry, this.success);
+			} catch (IOException ioe) {
+				System.out.println("IOException - " + ioe.getLocalizedMessage() + " while processing queue manager: " + this.inventoryEntry.getQmName());
+				this.success = false;
+			}
+		}
+
+		log.trace("[{}] Exit {}.call, rc={}", Thread.currentThread().getId(), this.getClass().getName(), this.success);
+
+		return this;
+	}
+
+	public MQQueueManagerInventoryData getInventoryEntry() {
+		return inventoryEntry;
+	}
+
+	public Semaphore getConnectionPermits() {
+		return connectionPermits;
+	}
+
+	public void setConnectionPermits(Semaphore connectionPermits) {
+		this.connectionPermits = connectionPermits;
+	}
+
+	public MQRecordSink getRecordSink() {
+		return recordSink;
+	}
+
+	public void setRecordSink(MQRecordSink recordSink) {
+		this.recordSink = recordSink;
+	}
+
+	public MQRecordSink getGatedRecordSink() {
+		return gatedRecordSink;
+	}
+
+	public void setGatedRecordSink(MQRecordSink gatedRecordSink) {
+		this.gatedRecordSink = gatedRecordSink;
+	}
+
+	public MQCollectionFilter getCollectionFilter() {
+		return collectionFilter;
+	}
+
+	public void setCollectionFilter(MQCollectionFilter collectionFilter) {
+		this.collectionFilter = collectionFilter;
+	}
+
+	public MQTransportFactory getTransportFactory() {
+		return transportFactory;
+	}
+
+	public void setTransportFactory(MQTransportFactory transportFactory) {
+		this.transportFactory = transportFactory;
+	}
+
+	public MQRunStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setStatistics(MQRunStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public MQCircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public void setCircuitBreaker(MQCircuitBreaker circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	public MQDataCollector getDataCollector() {
+		return dataCollector;
+	}
+
+	public boolean isSuccess() {
+		return success;
+	}
+
+	public long getCollectNanos() {
+		return collectNanos;
+	}
+
+	public int getAttempts() {
+		return attempts;
+	}
+
+}
@@ -0,0 +1,142 @@
+package com.ibm.xmq.cluster;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.constants.CMQCFC;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQCommandLevelCapabilities Class
+ *
+ * Attributes read by the collector for each inquiry, with the command level 
+ * from which the queue manager returns them. The inquiries only ask for these 
+ * attributes instead of all of them.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQCommandLevelCapabilities {
+	
+	// Command, attribute selector, minimum command level
+	private static final int[][] ATTRIBUTES = {
+		{ CMQCFC.MQCMD_INQUIRE_Q_MGR, CMQC.MQCA_Q_MGR_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q_MGR, CMQC.MQCA_Q_MGR_IDENTIFIER, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q_MGR, CMQC.MQCA_Q_MGR_DESC, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q_MGR, CMQC.MQIA_PLATFORM, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q_MGR, CMQC.MQIA_COMMAND_LEVEL, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q_MGR, CMQC.MQCA_VERSION, 710 },
+		
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQC.MQCA_CLUSTER_Q_MGR_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQC.MQCA_Q_MGR_IDENTIFIER, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQIACF_Q_MGR_TYPE, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQC.MQCA_CLUSTER_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQCACH_CHANNEL_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQCACH_CONNECTION_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQIACH_SSL_CLIENT_AUTH, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQCACH_SSL_CIPHER_SPEC, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQCACH_SSL_PEER_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQIACH_CHANNEL_STATUS, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQCACH_XMIT_Q_NAME, 750 },
+		{ CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQC.MQCA_VERSION, 800 },
+		
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQCA_Q_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQCA_CLUSTER_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQCA_CLUSTER_Q_MGR_NAME, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQIA_CLUSTER_Q_TYPE, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQIA_CLWL_Q_PRIORITY, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQIA_CLWL_Q_RANK, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQIA_DEF_BIND, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQCA_Q_DESC, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQIA_INHIBIT_PUT, 0 },
+		{ CMQCFC.MQCMD_INQUIRE_Q, CMQC.MQCA_Q_MGR_IDENTIFIER, 0 }
+	};
+	
+	private int commandLevel;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param commandLevel Command level of the queue manager, 0 if not known yet
+	 */
+	public MQCommandLevelCapabilities(int commandLevel) {
+		
+		this.commandLevel = commandLevel;
+	}
+	
+	/**
+	 * Check whether the queue manager returns an attribute
+	 * 
+	 * @param command PCF command
+	 * @param attribute Attribute selector
+	 * @return true if the attribute is available at this command level, false otherwise
+	 */
+	public boolean isAvailable(int command, int attribute) {
+		
+		for (int[] entry : ATTRIBUTES) {
+			if (entry[0] == command && entry[1] == attribute) return this.commandLevel >= entry[2];
+		}
+		
+		return false;
+	}
+	
+	/**
+	 * Get the attribute selectors of an inquiry
+	 * 
+	 * @param command PCF command
+	 * @return selectors The selectors of the attributes available at this command level
+	 */
+	public int[] getAttributeSelectors(int command) {
+		
+		return getAttributeSelectors(command, 0);
+	}
+	
+	/**
+	 * Get the attribute selectors of an inquiry that depend on the command level, to complete
+	 * an inquiry sent before the command level was known
+	 * 
+	 * @param command PCF command
+	 * @return selectors The selectors of the attributes only available from some command level,
+	 *                   available at this command level
+	 */
+	public int[] getCommandLevelAttributeSelectors(int command) {
+		
+		return getAttributeSelectors(command, 1);
+	}
+	
+	private int[] getAttributeSelectors(int command, int fromCommandLevel) {
+		
+		List<Integer> selectors = new ArrayList<Integer>();
+		
+		for (int[] entry : ATTRIBUTES) {
+			if (entry[0] == command && entry[2] >= fromCommandLevel && this.commandLevel >= entry[2]) selectors.add(entry[1]);
+		}
+		
+		int[] selectorsArr = new int[selectors.size()];
+		for (int i = 0; i < selectorsArr.length; i++) selectorsArr[i] = selectors.get(i);
+		
+		return selectorsArr;
+	}
+	
+	public int getCommandLevel() {
+		return commandLevel;
+	}
+	
+}
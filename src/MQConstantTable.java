@@ -0,0 +1,127 @@
+package com.ibm.xmq.cluster;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+import com.ibm.mq.constants.MQConstants;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQConstantTable Class
+ *
+ * Symbolic names of a family of MQ constants, built once instead of searching 
+ * the MQ constants with a regular expression for every value. The names are 
+ * the ones MQConstants.lookup() returns, interned so that all the records 
+ * share a single instance of each name.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQConstantTable {
+	
+	public static final MQConstantTable PLATFORM = new MQConstantTable("MQPL_.*");
+	public static final MQConstantTable Q_MGR_TYPE = new MQConstantTable("MQQMT_.*");
+	public static final MQConstantTable Q_MGR_DEFINITION_TYPE = new MQConstantTable("MQQMDT_.*");
+	public static final MQConstantTable SSL_CLIENT_AUTH = new MQConstantTable("MQSCA_.*");
+	public static final MQConstantTable CHANNEL_STATUS = new MQConstantTable("MQCHS_.*");
+	public static final MQConstantTable CLUSTER_Q_TYPE = new MQConstantTable("MQCQT_.*");
+	public static final MQConstantTable DEF_BIND = new MQConstantTable("MQBND_BIND_.*");
+	public static final MQConstantTable INHIBIT_PUT = new MQConstantTable("MQQA_PUT_.*");
+	public static final MQConstantTable COMMAND = new MQConstantTable("MQCMD_.*");
+	
+	private String family;
+	private int minValue;
+	private String[] names;
+	private Map<String, String> canonicalNames;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param family Regular expression matching the names of the constants in the family
+	 */
+	public MQConstantTable(String family) {
+		
+		Pattern pattern = Pattern.compile(family);
+		Map<Integer, String> names = new HashMap<Integer, String>();
+		int maxValue = Integer.MIN_VALUE;
+		
+		this.family = family;
+		this.minValue = Integer.MAX_VALUE;
+		this.canonicalNames = new HashMap<String, String>();
+		
+		// Find the values of the family, their names are then taken from MQConstants.lookup() 
+		// which joins the names of the constants sharing a value
+		for (Field field : MQConstants.class.getFields()) {
+			if (field.getType() != int.class || !Modifier.isStatic(field.getModifiers()) || !pattern.matcher(field.getName()).matches()) continue;
+			
+			try {
+				int value = field.getInt(null);
+				
+				if (names.containsKey(value)) continue;
+				names.put(value, MQConstants.lookup(value, family).intern());
+				
+				this.minValue = Math.min(this.minValue, value);
+				maxValue = Math.max(maxValue, value);
+			} catch (IllegalAccessException iae) {
+				// ignore, MQ constants are public
+			}
+		} // end for
+		
+		this.names = new String[names.isEmpty() ? 0 : maxValue - this.minValue + 1];
+		
+		for (Map.Entry<Integer, String> name : names.entrySet()) {
+			this.names[name.getKey() - this.minValue] = name.getValue();
+			this.canonicalNames.put(name.getValue(), name.getValue());
+		} // end for
+	}
+	
+	/**
+	 * Get the symbolic name of a value
+	 * 
+	 * @param value Constant value
+	 * @return name The name of the constant, null if the value is not part of the family
+	 */
+	public String lookup(int value) {
+		
+		if (value < this.minValue || value - this.minValue >= this.names.length) return null;
+		
+		return this.names[value - this.minValue];
+	}
+	
+	/**
+	 * Get the shared instance of a symbolic name, for names read back from a CSV file
+	 * 
+	 * @param name Constant name
+	 * @return name The shared instance of the name, or the name itself if it is not part of the family
+	 */
+	public String canonical(String name) {
+		
+		String canonicalName = this.canonicalNames.get(name);
+		
+		return canonicalName == null ? name : canonicalName;
+	}
+
+	@Override
+	public String toString() {
+		return "MQConstantTable [family=" + family + ", constants=" + canonicalNames.size() + "]";
+	}
+	
+}
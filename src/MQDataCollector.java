@@ -1,205 +1,406 @@
-package com.ibm.xmq.cluster;
-
-import java.io.IOException;
-import java.util.ArrayList;
-import java.util.List;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-import com.ibm.mq.MQException;
-import com.ibm.mq.constants.CMQC;
-import com.ibm.mq.constants.CMQCFC;
-import com.ibm.mq.constants.MQConstants;
-import com.ibm.mq.pcf.PCFMessage;
-
-/**
- * Copyright 2018 IBM Corporation
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *    http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- * ---------------------------------------------------------------------------- 
- * 
- * MQDataCollector Class
- *
- * Collect MQ data for a queue manager
- *
- * @author Oliver Fisse (IBM) - fisse@us.ibm.com
- * @version 1.0
- */
-public class MQDataCollector {
-	
-	private static final Logger log = LoggerFactory.getLogger(MQDataCollector.class);
-	
-	private MQQueueManagerData qmData;
-	private List<MQClusterQueueManagerData> qmClusterQueueManagerData;
-	private List<MQClusterQueueData> qmClusterQueueData;
-	
-	
-	/**
-	 * Constructor
-	 *
-	 */
-	public MQDataCollector() {
-		
-		log.trace("[{}] Entry {}.constructor", Thread.currentThread().getId(), this.getClass().getName());
-		
-		this.qmData = new MQQueueManagerData();
-		this.qmClusterQueueManagerData = new ArrayList<MQClusterQueueManagerData>();
-		this.qmClusterQueueData = new ArrayList<MQClusterQueueData>();
-		
-		log.trace("[{}] Exit {}.constructor", Thread.currentThread().getId(), this.getClass().getName());
-	}
-	
-	public boolean collect(MQQueueManagerInventory inventory, MQQueueManagerInventoryData inventoryEntry, 
-			boolean collectClusterQueues, String userId, String password, String sslCipherSuite) {
-		
-		log.trace("[{}] Entry {}.collect, entry={}, clusterQueues={}, userId={}, password={}, cipherSuite={}", Thread.currentThread().getId(), this.getClass().getName(), inventoryEntry, collectClusterQueues, userId, password, sslCipherSuite);
-		
-		MQAgent mqAgent = null;
-		PCFMessage[] pcfResp;
-		MQClusterQueueManagerData mqcd;
-		MQClusterQueueData mqcqd;
-		
-		boolean rc = true;
-		
-		try {
-			// Connect to queue manager
-			mqAgent = new MQAgent();
-			mqAgent.setQmName(inventoryEntry.getQmName());
-			mqAgent.setChannelName(inventoryEntry.getChannelName());
-			mqAgent.setUserId(userId);
-			mqAgent.setPassword(password);
-			mqAgent.setSslCipherSuite(sslCipherSuite);
-			mqAgent.setConnNameList(inventoryEntry.getConnNameList());
-		
-			mqAgent.connect();
-		
-			// Collect queue manager information
-			PCFMessage inqQueueManager = new PCFMessage(CMQCFC.MQCMD_INQUIRE_Q_MGR);
-			inqQueueManager.addParameter(CMQCFC.MQIACF_Q_MGR_ATTRS, new int[] { CMQCFC.MQIACF_ALL });	
-							
-			pcfResp = mqAgent.submitPCF(inqQueueManager);
-		
-			this.qmData.setQmName(StringUtils.rtrim(pcfResp[0].getStringParameterValue(CMQC.MQCA_Q_MGR_NAME)));
-			this.qmData.setQmId(StringUtils.rtrim(pcfResp[0].getStringParameterValue(CMQC.MQCA_Q_MGR_IDENTIFIER)));
-			this.qmData.setDescription(StringUtils.rtrim(pcfResp[0].getStringParameterValue(CMQC.MQCA_Q_MGR_DESC)));
-			this.qmData.setPlatform(MQConstants.lookup(pcfResp[0].getIntParameterValue(CMQC.MQIA_PLATFORM), "MQPL_.*"));
-			this.qmData.setCommandLevel(pcfResp[0].getIntParameterValue(CMQC.MQIA_COMMAND_LEVEL));
-			this.qmData.setTag(inventoryEntry.getTag());
-		
-			// For queue managers at version greater than 7.0.1 the VERSION attribute is available
-			if (this.qmData.getCommandLevel() > 701) {
-				this.qmData.setVersion(pcfResp[0].getStringParameterValue(CMQC.MQCA_VERSION));
-			} else this.qmData.setVersion("" + this.qmData.getCommandLevel());
-		
-			// Collect queue manager cluster information
-			PCFMessage inqClusterQueueManager = new PCFMessage(CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR);
-			inqClusterQueueManager.addParameter(CMQC.MQCA_CLUSTER_Q_MGR_NAME, "*");
-			inqClusterQueueManager.addParameter(CMQCFC.MQIACF_CLUSTER_Q_MGR_ATTRS, new int[] { CMQCFC.MQIACF_ALL });	
-		
-			pcfResp = mqAgent.submitPCF(inqClusterQueueManager);
-		
-			for (PCFMessage resp : pcfResp) {
-				mqcd = new MQClusterQueueManagerData();
-				mqcd.setQmName(StringUtils.rtrim(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_Q_MGR_NAME)));
-				mqcd.setQmId(StringUtils.rtrim(resp.getStringParameterValue(CMQC.MQCA_Q_MGR_IDENTIFIER)));
-				mqcd.setQmType(MQConstants.lookup(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_TYPE), "MQQMT_.*"));
-				mqcd.setCluster(StringUtils.rtrim(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_NAME)));
-				mqcd.setChannelName(StringUtils.rtrim(resp.getStringParameterValue(CMQCFC.MQCACH_CHANNEL_NAME)));
-				mqcd.setConnectionName(StringUtils.rtrim(resp.getStringParameterValue(CMQCFC.MQCACH_CONNECTION_NAME)));
-				mqcd.setDefinitionType(MQConstants.lookup(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE), "MQQMDT_.*"));
-				mqcd.setSslCAuth(MQConstants.lookup(resp.getIntParameterValue(CMQCFC.MQIACH_SSL_CLIENT_AUTH), "MQSCA_.*"));
-				mqcd.setSslCiph(StringUtils.rtrim(resp.getStringParameterValue(CMQCFC.MQCACH_SSL_CIPHER_SPEC)));
-				mqcd.setSslPeer(StringUtils.rtrim(resp.getStringParameterValue(CMQCFC.MQCACH_SSL_PEER_NAME)));
-			
-				// This is weird... if CLUSRCVR channel then channel status is not returned (failed with 3014) event though the field is part of the response!!
-				// Not a big deal since CLUSRCVR are ignored for the graph
-				if (resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE) != CMQCFC.MQQMDT_CLUSTER_RECEIVER) mqcd.setStatus(MQConstants.lookup(resp.getIntParameterValue(CMQCFC.MQIACH_CHANNEL_STATUS), "MQCHS_.*"));
-				else mqcd.setStatus("");
-				
-				if (this.qmData.getCommandLevel() > 710) mqcd.setXmitQ(StringUtils.rtrim(resp.getStringParameterValue(CMQCFC.MQCACH_XMIT_Q_NAME)));
-				else mqcd.setXmitQ("SYSTEM.CLUSTER.TRANSMIT.QUEUE"); 
-				
-				if (this.qmData.getCommandLevel() > 750) {
-					String version = resp.getStringParameterValue(CMQC.MQCA_VERSION);
-					if (version.compareTo("") == 0) mqcd.setVersion("unknown");
-					else mqcd.setVersion(version);
-				}
-				else mqcd.setVersion("unknown");
-				mqcd.setSourceQmName(inventoryEntry.getQmName());
-				mqcd.setTag(inventory.getTag(mqcd.getQmName()));
-			
-				this.qmClusterQueueManagerData.add(mqcd);
-			}
-			
-			// Collect cluster queue information
-			if (collectClusterQueues) {
-				PCFMessage inqClusterQueue = new PCFMessage(CMQCFC.MQCMD_INQUIRE_Q);
-				inqClusterQueue.addParameter(CMQC.MQCA_Q_NAME, "*");
-				inqClusterQueue.addParameter(CMQC.MQIA_Q_TYPE, CMQC.MQQT_CLUSTER);
-				inqClusterQueue.addParameter(CMQCFC.MQIACF_CLUSTER_INFO, 1);
-				inqClusterQueue.addParameter(CMQCFC.MQIACF_Q_ATTRS, new int[] { CMQCFC.MQIACF_ALL });
-				
-				pcfResp = mqAgent.submitPCF(inqClusterQueue);
-				
-				for (PCFMessage resp : pcfResp) {
-					mqcqd = new MQClusterQueueData();
-					mqcqd.setQmName(inventoryEntry.getQmName());
-					mqcqd.setQueue(StringUtils.rtrim(resp.getStringParameterValue(CMQC.MQCA_Q_NAME)));
-					mqcqd.setCluster(StringUtils.rtrim(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_NAME)));
-					mqcqd.setClusQmgr(StringUtils.rtrim(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_Q_MGR_NAME)));
-					mqcqd.setClusQT(MQConstants.lookup(resp.getIntParameterValue(CMQC.MQIA_CLUSTER_Q_TYPE), "MQCQT_.*"));
-					mqcqd.setClWlPrty(resp.getIntParameterValue(CMQC.MQIA_CLWL_Q_PRIORITY));
-					mqcqd.setClWlRank(resp.getIntParameterValue(CMQC.MQIA_CLWL_Q_RANK));
-					mqcqd.setDefBind(MQConstants.lookup(resp.getIntParameterValue(CMQC.MQIA_DEF_BIND), "MQBND_BIND_.*"));
-					mqcqd.setDescr(StringUtils.rtrim(resp.getStringParameterValue(CMQC.MQCA_Q_DESC)));
-					mqcqd.setPut(MQConstants.lookup(resp.getIntParameterValue(CMQC.MQIA_INHIBIT_PUT), "MQQA_PUT_.*"));
-					mqcqd.setQmId(StringUtils.rtrim(resp.getStringParameterValue(CMQC.MQCA_Q_MGR_IDENTIFIER)));
-					
-					this.qmClusterQueueData.add(mqcqd);
-				}
-			}
-			
-		} catch (MQException mqe) {
-			System.err.println("MQException - " + mqe.getLocalizedMessage() + " while processing queue manager: " + inventoryEntry.getQmName());
-			rc = false;
-		} catch (IOException ioe) {
-			System.out.println("IOException - " + ioe.getLocalizedMessage() + " while processing queue manager: " + inventoryEntry.getQmName());
-			rc = false;
-		} finally {
-			try {
-				// Disconnect from the queue manager
-				if (mqAgent != null ) mqAgent.disconnect();
-			} catch (MQException mqe) {
-				// ignore
-			}
-		}
-		
-		log.trace("[{}] Exit {}.collect, rc={}", Thread.currentThread().getId(), this.getClass().getName(), rc);
-		
-		return rc;
-	}
-
-	public MQQueueManagerData getQmData() {
-		return qmData;
-	}
-
-	public List<MQClusterQueueManagerData> getClusterQueueManagerData() {
-		return qmClusterQueueManagerData;
-	}
-	
-	public List<MQClusterQueueData> getClusterQueueData() {
-		return qmClusterQueueData;
-	}
-	
-}
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.constants.CMQCFC;
+import com.ibm.mq.pcf.PCFException;
+import com.ibm.mq.pcf.PCFMessage;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQDataCollector Class
+ *
+ * Collect MQ data for a queue manager
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQDataCollector {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQDataCollector.class);
+	
+	private MQQueueManagerData qmData;
+	private List<MQClusterQueueManagerData> qmClusterQueueManagerData;
+	private List<MQClusterQueueData> qmClusterQueueData;
+	private MQRecordSink recordSink;
+	private MQCollectionFilter collectionFilter;
+	private MQTransportFactory transportFactory;
+	private MQRunStatistics statistics;
+	private MQCircuitBreaker circuitBreaker;
+	private long connectNanos;
+	private int reasonCode;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQDataCollector() {
+		
+		this(null);
+	}
+	
+	/**
+	 * Constructor
+	 *
+	 * @param recordSink Sink receiving each record as soon as it is collected, if null the 
+	 *                   records are kept in this collector
+	 */
+	public MQDataCollector(MQRecordSink recordSink) {
+		
+		log.trace("[{}] Entry {}.constructor, recordSink={}", Thread.currentThread().getId(), this.getClass().getName(), recordSink);
+		
+		this.qmData = new MQQueueManagerData();
+		this.qmClusterQueueManagerData = new ArrayList<MQClusterQueueManagerData>();
+		this.qmClusterQueueData = new ArrayList<MQClusterQueueData>();
+		this.recordSink = recordSink;
+		this.collectionFilter = new MQCollectionFilter();
+		
+		log.trace("[{}] Exit {}.constructor", Thread.currentThread().getId(), this.getClass().getName());
+	}
+	
+	public boolean collect(MQQueueManagerInventory inventory, MQQueueManagerInventoryData inventoryEntry, 
+			boolean collectClusterQueues, String userId, String password, String sslCipherSuite) {
+		
+		log.trace("[{}] Entry {}.collect, entry={}, clusterQueues={}, userId={}, password={}, cipherSuite={}", Thread.currentThread().getId(), this.getClass().getName(), inventoryEntry, collectClusterQueues, userId, password, sslCipherSuite);
+		
+		MQAgent mqAgent = null;
+		MQPCFReply[] pcfResp;
+		MQPCFReply resp;
+		MQClusterQueueManagerData mqcd;
+		MQClusterQueueData mqcqd;
+		
+		boolean rc = true;
+		
+		try {
+			// Connect to queue manager
+			mqAgent = new MQAgent();
+			mqAgent.setQmName(inventoryEntry.getQmName());
+			mqAgent.setChannelName(inventoryEntry.getChannelName());
+			mqAgent.setUserId(userId);
+			mqAgent.setPassword(password);
+			mqAgent.setSslCipherSuite(sslCipherSuite);
+			mqAgent.setConnNameList(inventoryEntry.getConnNameList());
+			if (this.transportFactory != null) mqAgent.setTransport(this.transportFactory.newTransport());
+			mqAgent.setStatistics(this.statistics);
+			mqAgent.setCircuitBreaker(this.circuitBreaker);
+		
+			mqAgent.connect();
+		
+			// The attributes returned depend on the command level, only ask for the ones known at every level first
+			MQCommandLevelCapabilities capabilities = new MQCommandLevelCapabilities(0);
+			
+			PCFMessage inqQueueManager = new PCFMessage(CMQCFC.MQCMD_INQUIRE_Q_MGR);
+			inqQueueManager.addParameter(CMQCFC.MQIACF_Q_MGR_ATTRS, capabilities.getAttributeSelectors(CMQCFC.MQCMD_INQUIRE_Q_MGR));	
+			
+			MQPCFRequest qmRequest = mqAgent.submitPCFAsync(inqQueueManager, true);
+			MQPCFRequest qmCommandLevelRequest = null;
+				List<MQPCFRequest> clusterQmRequests = new ArrayList<MQPCFRequest>();
+			List<MQPCFRequest> clusterQueueRequests = new ArrayList<MQPCFRequest>();
+			
+			// Collect queue manager information
+			pcfResp = qmRequest.getReplies();
+		
+			this.qmData.setQmName(pcfResp[0].getStringParameterValue(CMQC.MQCA_Q_MGR_NAME));
+			this.qmData.setQmId(pcfResp[0].getStringParameterValue(CMQC.MQCA_Q_MGR_IDENTIFIER));
+			this.qmData.setDescription(pcfResp[0].getStringParameterValue(CMQC.MQCA_Q_MGR_DESC));
+			this.qmData.setPlatform(MQConstantTable.PLATFORM.lookup(pcfResp[0].getIntParameterValue(CMQC.MQIA_PLATFORM)));
+			this.qmData.setCommandLevel(pcfResp[0].getIntParameterValue(CMQC.MQIA_COMMAND_LEVEL));
+			this.qmData.setTag(inventoryEntry.getTag());
+			
+			// Submit the remaining inquiries back to back, sized to the command level, the responses are processed as they arrive
+			capabilities = new MQCommandLevelCapabilities(this.qmData.getCommandLevel());
+			
+			int[] qmCommandLevelSelectors = capabilities.getCommandLevelAttributeSelectors(CMQCFC.MQCMD_INQUIRE_Q_MGR);
+			if (qmCommandLevelSelectors.length != 0) {
+				PCFMessage inqQueueManagerCommandLevel = new PCFMessage(CMQCFC.MQCMD_INQUIRE_Q_MGR);
+				inqQueueManagerCommandLevel.addParameter(CMQCFC.MQIACF_Q_MGR_ATTRS, qmCommandLevelSelectors);
+				
+				qmCommandLevelRequest = mqAgent.submitPCFAsync(inqQueueManagerCommandLevel, true);
+			}
+			
+			// Let the command server drop the records filtered out, one inquiry per cluster name
+			List<Integer> definitionTypes = this.collectionFilter.getDefinitionTypes();
+			int[] definitionTypeFilter = MQCollectionFilter.getDefinitionTypeFilter(definitionTypes);
+			
+			if (!definitionTypes.isEmpty()) {
+				for (String clusterName : this.collectionFilter.getClusterNameParameters()) {
+					PCFMessage inqClusterQueueManager = new PCFMessage(CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR);
+					inqClusterQueueManager.addParameter(CMQC.MQCA_CLUSTER_Q_MGR_NAME, "*");
+					if (clusterName != null) inqClusterQueueManager.addParameter(CMQC.MQCA_CLUSTER_NAME, clusterName);
+					inqClusterQueueManager.addParameter(CMQCFC.MQIACF_CLUSTER_Q_MGR_ATTRS, capabilities.getAttributeSelectors(CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR));	
+					if (definitionTypeFilter != null) inqClusterQueueManager.addFilterParameter(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE, definitionTypeFilter[0], definitionTypeFilter[1]);
+					
+					clusterQmRequests.add(mqAgent.submitPCFAsync(inqClusterQueueManager, true));
+				} // end for
+			}
+			
+			// One inquiry per queue name, the cluster name can only be filtered when there is a single one 
+			if (collectClusterQueues) {
+				String clusterNameFilter = this.collectionFilter.getClusterNameFilter();
+				
+				for (String queueName : this.collectionFilter.getQueueNameParameters()) {
+					PCFMessage inqClusterQueue = new PCFMessage(CMQCFC.MQCMD_INQUIRE_Q);
+					inqClusterQueue.addParameter(CMQC.MQCA_Q_NAME, queueName);
+					inqClusterQueue.addParameter(CMQC.MQIA_Q_TYPE, CMQC.MQQT_CLUSTER);
+					inqClusterQueue.addParameter(CMQCFC.MQIACF_CLUSTER_INFO, 1);
+					inqClusterQueue.addParameter(CMQCFC.MQIACF_Q_ATTRS, capabilities.getAttributeSelectors(CMQCFC.MQCMD_INQUIRE_Q));
+					if (clusterNameFilter != null) inqClusterQueue.addFilterParameter(CMQC.MQCA_CLUSTER_NAME, clusterNameFilter.endsWith("*") ? CMQCFC.MQCFOP_LIKE : CMQCFC.MQCFOP_EQUAL, clusterNameFilter);
+					
+					clusterQueueRequests.add(mqAgent.submitPCFAsync(inqClusterQueue, true));
+				} // end for
+			}
+			
+			// The VERSION attribute is not available at every command level
+			if (qmCommandLevelRequest != null && capabilities.isAvailable(CMQCFC.MQCMD_INQUIRE_Q_MGR, CMQC.MQCA_VERSION)) {
+				this.qmData.setVersion(qmCommandLevelRequest.getReplies()[0].getStringParameterValue(CMQC.MQCA_VERSION));
+			} else this.qmData.setVersion("" + this.qmData.getCommandLevel());
+			
+			if (this.recordSink != null) this.recordSink.addQueueManager(this.qmData);
+		
+			// Collect queue manager cluster information, one response message at a time
+			for (MQPCFRequest clusterQmRequest : clusterQmRequests) {
+				DecodeBatch decodeBatch = new DecodeBatch();
+				
+				while ((resp = nextRecord(clusterQmRequest)) != null) {
+					long decodeStart = System.nanoTime();
+					
+					// Skip the records the command server could not filter out
+					if (!definitionTypes.contains(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE))
+							|| !this.collectionFilter.matchesClusterName(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_NAME))) {
+						decodeBatch.filtered++;
+						continue;
+					}
+				
+					mqcd = new MQClusterQueueManagerData();
+					mqcd.setQmName(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_Q_MGR_NAME));
+					mqcd.setQmId(resp.getStringParameterValue(CMQC.MQCA_Q_MGR_IDENTIFIER));
+					mqcd.setQmType(MQConstantTable.Q_MGR_TYPE.lookup(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_TYPE)));
+					mqcd.setCluster(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_NAME));
+					mqcd.setChannelName(resp.getStringParameterValue(CMQCFC.MQCACH_CHANNEL_NAME));
+					mqcd.setConnectionName(resp.getStringParameterValue(CMQCFC.MQCACH_CONNECTION_NAME));
+					mqcd.setDefinitionType(MQConstantTable.Q_MGR_DEFINITION_TYPE.lookup(resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE)));
+					mqcd.setSslCAuth(MQConstantTable.SSL_CLIENT_AUTH.lookup(resp.getIntParameterValue(CMQCFC.MQIACH_SSL_CLIENT_AUTH)));
+					mqcd.setSslCiph(resp.getStringParameterValue(CMQCFC.MQCACH_SSL_CIPHER_SPEC));
+					mqcd.setSslPeer(resp.getStringParameterValue(CMQCFC.MQCACH_SSL_PEER_NAME));
+			
+					// This is weird... if CLUSRCVR channel then channel status is not returned (failed with 3014) event though the field is part of the response!!
+					// Not a big deal since CLUSRCVR are ignored for the graph
+					if (resp.getIntParameterValue(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE) != CMQCFC.MQQMDT_CLUSTER_RECEIVER) mqcd.setStatus(MQConstantTable.CHANNEL_STATUS.lookup(resp.getIntParameterValue(CMQCFC.MQIACH_CHANNEL_STATUS)));
+					else mqcd.setStatus("");
+				
+					if (capabilities.isAvailable(CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQCFC.MQCACH_XMIT_Q_NAME)) mqcd.setXmitQ(resp.getStringParameterValue(CMQCFC.MQCACH_XMIT_Q_NAME));
+					else mqcd.setXmitQ("SYSTEM.CLUSTER.TRANSMIT.QUEUE"); 
+				
+					if (capabilities.isAvailable(CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR, CMQC.MQCA_VERSION)) {
+						String version = resp.getStringParameterValue(CMQC.MQCA_VERSION);
+						if (version.compareTo("") == 0) mqcd.setVersion("unknown");
+						else mqcd.setVersion(version);
+					}
+					else mqcd.setVersion("unknown");
+					mqcd.setSourceQmName(inventoryEntry.getQmName());
+					mqcd.setTag(inventory.getTag(mqcd.getQmName()));
+					
+					decodeBatch.add(System.nanoTime() - decodeStart);
+			
+					if (this.recordSink != null) this.recordSink.addClusteredQueueManager(mqcd);
+					else this.qmClusterQueueManagerData.add(mqcd);
+				}
+				
+				decodeBatch.commit(inventoryEntry.getQmName(), CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR);
+			} // end for
+			
+			// Collect cluster queue information
+			for (MQPCFRequest clusterQueueRequest : clusterQueueRequests) {
+				DecodeBatch decodeBatch = new DecodeBatch();
+				
+				while ((resp = nextRecord(clusterQueueRequest)) != null) {
+					long decodeStart = System.nanoTime();
+					
+					// Skip the records the command server could not filter out
+					if (!this.collectionFilter.matchesQueueName(resp.getStringParameterValue(CMQC.MQCA_Q_NAME))
+							|| !this.collectionFilter.matchesClusterName(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_NAME))) {
+						decodeBatch.filtered++;
+						continue;
+					}
+					
+					mqcqd = new MQClusterQueueData();
+					mqcqd.setQmName(inventoryEntry.getQmName());
+					mqcqd.setQueue(resp.getStringParameterValue(CMQC.MQCA_Q_NAME));
+					mqcqd.setCluster(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_NAME));
+					mqcqd.setClusQmgr(resp.getStringParameterValue(CMQC.MQCA_CLUSTER_Q_MGR_NAME));
+					mqcqd.setClusQT(MQConstantTable.CLUSTER_Q_TYPE.lookup(resp.getIntParameterValue(CMQC.MQIA_CLUSTER_Q_TYPE)));
+					mqcqd.setClWlPrty(resp.getIntParameterValue(CMQC.MQIA_CLWL_Q_PRIORITY));
+					mqcqd.setClWlRank(resp.getIntParameterValue(CMQC.MQIA_CLWL_Q_RANK));
+					mqcqd.setDefBind(MQConstantTable.DEF_BIND.lookup(resp.getIntParameterValue(CMQC.MQIA_DEF_BIND)));
+					mqcqd.setDescr(resp.getStringParameterValue(CMQC.MQCA_Q_DESC));
+					mqcqd.setPut(MQConstantTable.INHIBIT_PUT.lookup(resp.getIntParameterValue(CMQC.MQIA_INHIBIT_PUT)));
+					mqcqd.setQmId(resp.getStringParameterValue(CMQC.MQCA_Q_MGR_IDENTIFIER));
+					
+					decodeBatch.add(System.nanoTime() - decodeStart);
+					
+					if (this.recordSink != null) this.recordSink.addClusteredQueue(mqcqd);
+					else this.qmClusterQueueData.add(mqcqd);
+				}
+				
+				decodeBatch.commit(inventoryEntry.getQmName(), CMQCFC.MQCMD_INQUIRE_Q);
+			} // end for
+			
+		} catch (MQException mqe) {
+			System.err.println("MQException - " + mqe.getLocalizedMessage() + " while processing queue manager: " + inventoryEntry.getQmName());
+			this.reasonCode = mqe.getReason();
+			rc = false;
+		} catch (IOException ioe) {
+			System.out.println("IOException - " + ioe.getLocalizedMessage() + " while processing queue manager: " + inventoryEntry.getQmName());
+			rc = false;
+		} finally {
+			try {
+				// Disconnect from the queue manager
+				if (mqAgent != null ) {
+					this.connectNanos = mqAgent.getConnectNanos();
+					mqAgent.disconnect();
+				}
+			} catch (MQException mqe) {
+				// ignore
+			}
+		}
+		
+		log.trace("[{}] Exit {}.collect, rc={}", Thread.currentThread().getId(), this.getClass().getName(), rc);
+		
+		return rc;
+	}
+
+	/**
+	 * Get the next response message of an inquiry of a name. The command server answers a 
+	 * name that matches no object with an error, which only means that there is no record.
+	 * 
+	 * @param request Inquiry of a queue manager, cluster or queue name
+	 * @return reply The next response message, or null when the response is complete
+	 */
+	private MQPCFReply nextRecord(MQPCFRequest request) 
+		throws MQException, IOException {
+		
+		try {
+			return request.nextReply();
+		} catch (PCFException pcfe) {
+			if (pcfe.getReason() != CMQC.MQRC_UNKNOWN_OBJECT_NAME && pcfe.getReason() != CMQCFC.MQRCCF_NONE_FOUND) throw pcfe;
+			
+			log.trace("[{}] {}.nextRecord, no object found, reason={}", Thread.currentThread().getId(), this.getClass().getName(), pcfe.getReason());
+			return null;
+		}
+	}
+	
+	public MQCollectionFilter getCollectionFilter() {
+		return collectionFilter;
+	}
+
+	public void setCollectionFilter(MQCollectionFilter collectionFilter) {
+		this.collectionFilter = collectionFilter;
+	}
+
+	public MQTransportFactory getTransportFactory() {
+		return transportFactory;
+	}
+
+	public void setTransportFactory(MQTransportFactory transportFactory) {
+		this.transportFactory = transportFactory;
+	}
+
+	public MQRunStatistics getStatistics() {
+		return statistics;
+	}
+
+	public void setStatistics(MQRunStatistics statistics) {
+		this.statistics = statistics;
+	}
+
+	public MQCircuitBreaker getCircuitBreaker() {
+		return circuitBreaker;
+	}
+
+	public void setCircuitBreaker(MQCircuitBreaker circuitBreaker) {
+		this.circuitBreaker = circuitBreaker;
+	}
+
+	public long getConnectNanos() {
+		return connectNanos;
+	}
+
+	public int getReasonCode() {
+		return reasonCode;
+	}
+	
+	/**
+	 * Check if a failed collection can be tried again: its reason code is transient. The 
+	 * records already passed to the record sink are dropped before the next attempt
+	 * 
+	 * @return retryable True if the queue manager can be collected again
+	 */
+	public boolean isRetryable() {
+		return MQRetryScheduler.isTransient(this.reasonCode);
+	}
+
+	/**
+	 * Records decoded from the response of a PCF command, reported as a single flight 
+	 * recorder event
+	 *
+	 */
+	private class DecodeBatch {
+		
+		private Object event;
+		private int records;
+		private int filtered;
+		private long decodeNanos;
+		
+		public DecodeBatch() {
+			
+			this.event = MQFlightEvent.RECORD_DECODE_BATCH.begin();
+		}
+		
+		public void add(long nanos) {
+			
+			this.records++;
+			this.decodeNanos += nanos;
+			if (MQDataCollector.this.statistics != null) MQDataCollector.this.statistics.record(MQRunStatistics.DECODE, nanos);
+		}
+		
+		public void commit(String qmName, int command) {
+			
+			if (this.event != null) MQFlightEvent.RECORD_DECODE_BATCH.commit(this.event, qmName, command, this.records, this.filtered, this.decodeNanos);
+		}
+	}
+
+	public MQQueueManagerData getQmData() {
+		return qmData;
+	}
+
+	public List<MQClusterQueueManagerData> getClusterQueueManagerData() {
+		return qmClusterQueueManagerData;
+	}
+	
+	public List<MQClusterQueueData> getClusterQueueData() {
+		return qmClusterQueueData;
+	}
+	
+}
@@ -0,0 +1,320 @@
+package com.ibm.xmq.cluster;
+
+import java.lang.annotation.Annotation;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQFlightEvent Class
+ *
+ * Java Flight Recorder event types of the tool, shown in a recording started
+ * with -XX:StartFlightRecording next to the GC and thread events. The tool runs
+ * on Java 8, so the events cannot extend jdk.jfr.Event: they are defined at run
+ * time with jdk.jfr.EventFactory, through reflection. Without JFR in the runtime
+ * the events are never enabled.
+ *
+ * An event is started with begin(), which returns null unless the event type is
+ * enabled in a running recording, and is committed with commit(), which also ends
+ * it unless end() was called before. Callers only build
+ * the values of an event that was started, nothing else is done when recording
+ * is off.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQFlightEvent {
+
+	private static final String EVENT_NAME_PREFIX = "com.ibm.xmq.cluster.";
+	private static final String[] CATEGORY = { "IBM MQ", "Cluster Tool" };
+
+	// Content types of the field values
+	private static final int PLAIN = 0;
+	private static final int BYTES = 1;
+	private static final int NANOSECONDS = 2;
+
+	// jdk.jfr API, all null if not available
+	private static Constructor<?> annotationElementConstructor;
+	private static Constructor<?> valueDescriptorConstructor;
+	private static Method createEventFactory;
+	private static Method newEvent;
+	private static Method getEventType;
+	private static Method isEventTypeEnabled;
+	private static Method beginEvent;
+	private static Method endEvent;
+	private static Method setEventField;
+	private static Method commitEvent;
+	private static Class<?> nameAnnotation;
+	private static Class<?> labelAnnotation;
+	private static Class<?> descriptionAnnotation;
+	private static Class<?> categoryAnnotation;
+	private static Class<?> stackTraceAnnotation;
+	private static Class<?> dataAmountAnnotation;
+	private static Class<?> timespanAnnotation;
+
+	static {
+		try {
+			Class<?> annotationElement = Class.forName("jdk.jfr.AnnotationElement");
+			Class<?> valueDescriptor = Class.forName("jdk.jfr.ValueDescriptor");
+			Class<?> eventFactory = Class.forName("jdk.jfr.EventFactory");
+			Class<?> eventType = Class.forName("jdk.jfr.EventType");
+			Class<?> event = Class.forName("jdk.jfr.Event");
+
+			nameAnnotation = Class.forName("jdk.jfr.Name");
+			labelAnnotation = Class.forName("jdk.jfr.Label");
+			descriptionAnnotation = Class.forName("jdk.jfr.Description");
+			categoryAnnotation = Class.forName("jdk.jfr.Category");
+			stackTraceAnnotation = Class.forName("jdk.jfr.StackTrace");
+			dataAmountAnnotation = Class.forName("jdk.jfr.DataAmount");
+			timespanAnnotation = Class.forName("jdk.jfr.Timespan");
+
+			annotationElementConstructor = annotationElement.getConstructor(Class.class, Object.class);
+			valueDescriptorConstructor = valueDescriptor.getConstructor(Class.class, String.class, List.class);
+			createEventFactory = eventFactory.getMethod("create", List.class, List.class);
+			newEvent = eventFactory.getMethod("newEvent");
+			getEventType = eventFactory.getMethod("getEventType");
+			isEventTypeEnabled = eventType.getMethod("isEnabled");
+			beginEvent = event.getMethod("begin");
+			endEvent = event.getMethod("end");
+			setEventField = event.getMethod("set", int.class, Object.class);
+			commitEvent = event.getMethod("commit");
+		} catch (ReflectiveOperationException | LinkageError e) {
+			createEventFactory = null;
+		}
+	}
+
+	// Connection attempt to a single connection name
+	public static final MQFlightEvent CONNECT_ATTEMPT = new MQFlightEvent("ConnectAttempt", "Connect Attempt",
+			"Client connection attempt to a queue manager",
+			field("queueManager", "Queue Manager", String.class),
+			field("host", "Host", String.class),
+			field("port", "Port", int.class),
+			field("outcome", "Outcome", String.class),
+			field("reasonCode", "Reason Code", int.class));
+
+	// PCF command, from the request put to the last response message
+	public static final MQFlightEvent PCF_COMMAND = new MQFlightEvent("PCFCommand", "PCF Command",
+			"PCF command, from the request put to the last response message received",
+			field("queueManager", "Queue Manager", String.class),
+			field("command", "Command", int.class),
+			field("commandName", "Command Name", String.class),
+			field("replies", "Response Messages", int.class),
+			field("bytes", "Response Size", long.class, BYTES));
+
+	// Records decoded from the response of a PCF command
+	public static final MQFlightEvent RECORD_DECODE_BATCH = new MQFlightEvent("RecordDecodeBatch", "Record Decode Batch",
+			"Records decoded from the response of a PCF command, the duration includes waiting for the response messages",
+			field("queueManager", "Queue Manager", String.class),
+			field("command", "Command", int.class),
+			field("records", "Records", int.class),
+			field("filtered", "Records Filtered Out", int.class),
+			field("decodeTime", "Decode Time", long.class, NANOSECONDS));
+
+	// Records added to the graph by a thread
+	public static final MQFlightEvent GRAPH_UPSERT_BATCH = new MQFlightEvent("GraphUpsertBatch", "Graph Upsert Batch",
+			"Records added to the graph by a thread, from the first to the last record of the batch",
+			field("thread", "Thread", Thread.class),
+			field("queueManagers", "Queue Managers", int.class),
+			field("clusterQueueManagers", "Cluster Queue Managers", int.class),
+			field("clusterQueues", "Cluster Queues", int.class),
+			field("verticesAdded", "Vertices Added", int.class),
+			field("edgesAdded", "Edges Added", int.class),
+			field("upsertTime", "Upsert Time", long.class, NANOSECONDS));
+
+	// Graph written to a file
+	public static final MQFlightEvent GRAPH_EXPORT = new MQFlightEvent("GraphExport", "Graph Export",
+			"Graph written to a file",
+			field("format", "Format", String.class),
+			field("fileName", "File Name", String.class),
+			field("vertices", "Vertices", long.class),
+			field("edges", "Edges", long.class),
+			field("bytes", "File Size", long.class, BYTES));
+
+	// Phase of a program run
+	public static final MQFlightEvent RUN_PHASE = new MQFlightEvent("RunPhase", "Run Phase",
+			"Phase of an xmqcocls or xmqgrcls run",
+			field("program", "Program", String.class),
+			field("phase", "Phase", String.class),
+			field("count", "Count", int.class));
+
+	private String name;
+	private Object eventFactory;
+	private Object eventType;
+
+	// EventType.isEnabled() bound to the event type, checked without reflection on every record
+	private MethodHandle eventTypeEnabled;
+
+
+	/**
+	 * Constructor
+	 *
+	 * @param name Event name, without the package prefix
+	 * @param label Event label
+	 * @param description Event description
+	 * @param fields Event fields, the values passed to commit() are in the same order
+	 */
+	private MQFlightEvent(String name, String label, String description, Field... fields) {
+
+		this.name = EVENT_NAME_PREFIX + name;
+
+		if (createEventFactory == null) return;
+
+		try {
+			List<Object> annotations = new ArrayList<Object>();
+			annotations.add(annotation(nameAnnotation, this.name));
+			annotations.add(annotation(labelAnnotation, label));
+			annotations.add(annotation(descriptionAnnotation, description));
+			annotations.add(annotation(categoryAnnotation, CATEGORY));
+			annotations.add(annotation(stackTraceAnnotation, Boolean.FALSE));
+
+			List<Object> valueDescriptors = new ArrayList<Object>();
+			for (Field field : fields) {
+				List<Object> fieldAnnotations = new ArrayList<Object>();
+				fieldAnnotations.add(annotation(labelAnnotation, field.label));
+				if (field.contentType == BYTES) fieldAnnotations.add(annotation(dataAmountAnnotation, "BYTES"));
+				else if (field.contentType == NANOSECONDS) fieldAnnotations.add(annotation(timespanAnnotation, "NANOSECONDS"));
+
+				valueDescriptors.add(valueDescriptorConstructor.newInstance(field.type, field.name, fieldAnnotations));
+			} // end for
+
+			this.eventFactory = createEventFactory.invoke(null, annotations, valueDescriptors);
+			this.eventType = getEventType.invoke(this.eventFactory);
+			this.eventTypeEnabled = MethodHandles.publicLookup().unreflect(isEventTypeEnabled).bindTo(this.eventType);
+		} catch (ReflectiveOperationException | RuntimeException e) {
+			this.eventFactory = null;
+			this.eventType = null;
+			this.eventTypeEnabled = null;
+		}
+	}
+
+	/**
+	 * Check if the event type is enabled in a running recording
+	 *
+	 * @return enabled True if events of this type are recorded
+	 */
+	public boolean isEnabled() {
+
+		if (this.eventTypeEnabled == null) return false;
+
+		try {
+			return (boolean) this.eventTypeEnabled.invokeExact();
+		} catch (Throwable t) {
+			return false;
+		}
+	}
+
+	/**
+	 * Start an event
+	 *
+	 * @return event The started event, null if the event type is not enabled
+	 */
+	public Object begin() {
+
+		if (!isEnabled()) return null;
+
+		try {
+			Object event = newEvent.invoke(this.eventFactory);
+			beginEvent.invoke(event);
+			return event;
+		} catch (ReflectiveOperationException roe) {
+			return null;
+		}
+	}
+
+	/**
+	 * End an event, its duration is then kept when it is committed. Calling end() again 
+	 * moves the end of the event.
+	 *
+	 * @param event An event returned by begin(), nothing is done if null
+	 */
+	public void end(Object event) {
+
+		if (event == null) return;
+
+		try {
+			endEvent.invoke(event);
+		} catch (ReflectiveOperationException roe) {
+			// ignore, the event then ends when committed
+		}
+	}
+
+	/**
+	 * Commit an event, ending it if end() was not called
+	 *
+	 * @param event An event returned by begin(), nothing is done if null
+	 * @param values Field values, in the order of the fields of the event type
+	 */
+	public void commit(Object event, Object... values) {
+
+		if (event == null) return;
+
+		try {
+			for (int i = 0; i < values.length; i++) setEventField.invoke(event, i, values[i]);
+			commitEvent.invoke(event);
+		} catch (ReflectiveOperationException roe) {
+			// ignore, the event is lost
+		}
+	}
+
+	public String getName() {
+		return name;
+	}
+
+	private static Object annotation(Class<?> annotationType, Object value)
+		throws ReflectiveOperationException {
+
+		return annotationElementConstructor.newInstance(annotationType.asSubclass(Annotation.class), value);
+	}
+
+	private static Field field(String name, String label, Class<?> type) {
+		return new Field(name, label, type, PLAIN);
+	}
+
+	private static Field field(String name, String label, Class<?> type, int contentType) {
+		return new Field(name, label, type, contentType);
+	}
+
+	/**
+	 * Field of an event type
+	 *
+	 */
+	private static class Field {
+
+		private String name;
+		private String label;
+		private Class<?> type;
+		private int contentType;
+
+		public Field(String name, String label, Class<?> type, int contentType) {
+
+			this.name = name;
+			this.label = label;
+			this.type = type;
+			this.contentType = contentType;
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MQFlightEvent [name=" + name + ", available=" + (eventType != null) + "]";
+	}
+
+}
@@ -1,201 +1,505 @@
-package com.ibm.xmq.cluster;
-
-import java.io.IOException;
-import java.util.NoSuchElementException;
-
-import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
-import org.apache.tinkerpop.gremlin.structure.T;
-import org.apache.tinkerpop.gremlin.structure.Vertex;
-import org.apache.tinkerpop.gremlin.structure.io.IoCore;
-import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-/**
- * Copyright 2018 IBM Corporation
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *    http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- * ---------------------------------------------------------------------------- 
- * 
- * MQGraphBuilder Class
- *
- * Build a graph of an MQ Cluster
- *
- * @author Oliver Fisse (IBM) - fisse@us.ibm.com
- * @version 1.0
- */
-public class MQGraphBuilder {
-	
-	private static final Logger log = LoggerFactory.getLogger(MQGraphBuilder.class);
-	
-	TinkerGraph tg;
-	GraphTraversalSource g;
-	Vertex v1, v2, v3;
-	
-	
-	/**
-	 * Constructor
-	 *
-	 */
-	public MQGraphBuilder() {
-		
-		log.trace("[{}] Entry {}.constructor", Thread.currentThread().getId(), this.getClass().getName());
-		
-		this.tg = TinkerGraph.open();
-		this.g = tg.traversal();
-		
-		log.trace("[{}] Exit {}.constructor", Thread.currentThread().getId(), this.getClass().getName());
-	}
-	
-    public void addQueueManager(MQQueueManagerData qmd) {
-    	
-    	log.trace("[{}] Entry {}.addQueueManager, qm data={}", Thread.currentThread().getId(), this.getClass().getName(), qmd);
-    	
-    	// Add a vertex (queue manager) to the graph
-		try {
-			v1 = g.V().has("qm", "name", qmd.getQmName()).next();
-			v1.property("description", qmd.getDescription());
-			v1.property("platform", qmd.getPlatform());
-			v1.property("cmdlevel", qmd.getCommandLevel());
-			if (qmd.getCommandLevel() < 710) v1.property("version", qmd.getCommandLevel());
-			else v1.property("version", qmd.getVersion());
-		} catch (NoSuchElementException nsee) {
-			v1 = tg.addVertex(T.label, "qm",
-					"tag", qmd.getTag(),
-					"name", qmd.getQmName(),
-					"qmid", qmd.getQmId(),
-					"description", qmd.getDescription(),
-					"cmdlevel", qmd.getCommandLevel(),
-					"platform", qmd.getPlatform(),
-					"version", qmd.getVersion());
-		}
-		
-		log.trace("[{}] Exit {}.addQueueManager", Thread.currentThread().getId(), this.getClass().getName());
-    }
-    
-    public void addClusteredQueueManager(MQClusterQueueManagerData cqmd) {
-    	
-    	log.trace("[{}] Entry {}.addClusteredQueueManager, cluster queue manager data={}", Thread.currentThread().getId(), this.getClass().getName(), cqmd);
-    	
-    	// Add an edge (connects) to the graph
-		if (cqmd.getDefinitionType().compareTo("MQQMDT_AUTO_CLUSTER_SENDER") == 0) {
-			
-			try {
-				v1 = g.V().has("qm", "name", cqmd.getSourceQmName()).next();
-			} catch(NoSuchElementException nsee) {
-				System.err.println("NoSuchElementException - " + nsee.getLocalizedMessage());
-				nsee.printStackTrace();
-			}
-		
-			try {
-				v2 = g.V().has("qm", "name", cqmd.getQmName()).next();
-			} catch (NoSuchElementException nsee) {
-				v2 = tg.addVertex(T.label, "qm",
-					"tag", cqmd.getTag(),
-			    	"name", cqmd.getQmName(),
-			    	"qmid", cqmd.getQmId(),
-					"version", cqmd.getVersion());
-			}
-						
-			v1.addEdge("connects", v2,
-				"tag", cqmd.getTag(),
-				"SourceQM", cqmd.getSourceQmName(),
-				"name", cqmd.getQmName(),
-				"qmid", cqmd.getQmId(),
-				"qmtype", cqmd.getQmType(),
-				"cluster", cqmd.getCluster(),
-				"deftype", cqmd.getDefinitionType(),
-				"channel", cqmd.getChannelName(),
-				"connection", cqmd.getConnectionName(),
-				"status", cqmd.getStatus(),
-				"sslcauth", cqmd.getSslCAuth(),
-				"sslciph", cqmd.getSslCiph(),
-				"sslpeer", cqmd.getSslPeer(),
-				"xmitq", cqmd.getXmitQ(),
-				"version", cqmd.getVersion());
-		}
-		
-		log.trace("[{}] Exit {}.addClusteredQueueManagerr", Thread.currentThread().getId(), this.getClass().getName());
-    }
-    
-    public void addClusteredQueue(MQClusterQueueData cqd) {
-    	
-    	log.trace("[{}] Entry {}.addClusteredQueue, cluster queue data={}", Thread.currentThread().getId(), this.getClass().getName(), cqd);
-    	
-    	try {
-			v1 = g.V().has("qm", "name", cqd.getQmName()).next();
-		} catch(NoSuchElementException nsee) {
-			System.err.println("NoSuchElementException - " + nsee.getLocalizedMessage());
-			nsee.printStackTrace();
-		}
-    	
-    	try {
-			v3 = g.V().has("queue", "qmname",  cqd.getQmName())
-					.has("queue", "queue",  cqd.getQueue())
-					.next();
-		} catch (NoSuchElementException nsee) {
-			v3 = tg.addVertex(T.label, "queue",
-				"qmname", cqd.getQmName(),
-		    	"name", cqd.getQueue(),
-		    	"cluster", cqd.getCluster(),
-				"clusqmgr", cqd.getClusQmgr(),
-				"clusqt", cqd.getClusQT(),
-				"clWlPrty", cqd.getClWlPrty(),
-				"clWlRank", cqd.getClWlRank(),
-				"defbind", cqd.getDefBind(),
-				"descr", cqd.getDescr(),
-				"put", cqd.getPut(),
-				"qmid", cqd.getQmId());
-		}
-		
-    	if (cqd.getQmName().compareTo(cqd.getClusQmgr()) == 0) v1.addEdge("owns", v3);
-    	else v1.addEdge("uses", v3);
-    	
-    	log.trace("[{}] Exit {}.addClusteredQueue", Thread.currentThread().getId(), this.getClass().getName());
-    }
-    
-    public void closeGraph() {
-    	
-    	log.trace("[{}] Entry {}.closeGraph", Thread.currentThread().getId(), this.getClass().getName());
-    	
-    	try {
-    		this.g.close();
-    		this.tg.close();
-    	} catch (Exception e) {
-    		// ignore
-    	}
-    	
-    	log.trace("[{}] Exit {}.closeGraph", Thread.currentThread().getId(), this.getClass().getName());
-    }
-    
-    public void writeGraphMLToFile(String fileName) 
-    	throws IOException {
-    	
-    	log.trace("[{}] Entry {}.writeGraphMLToFile", Thread.currentThread().getId(), this.getClass().getName());
-    	
-		this.tg.io(IoCore.graphml()).writeGraph(fileName);
-		
-		log.trace("[{}] Exit {}.writeGraphMLToFile", Thread.currentThread().getId(), this.getClass().getName());
-    }
-    
-    public void writeGraphJSONToFile(String fileName) 
-        throws IOException {
-    	
-    	log.trace("[{}] Entry {}.writeJSONToFile", Thread.currentThread().getId(), this.getClass().getName());
-        	
-    	this.tg.io(IoCore.graphson()).writeGraph(fileName);
-    	
-    	log.trace("[{}] Exit {}.writeJSONToFile", Thread.currentThread().getId(), this.getClass().getName());
-    }
-
-}
+package com.ibm.xmq.cluster;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.tinkerpop.gremlin.process.traversal.dsl.graph.GraphTraversalSource;
+import org.apache.tinkerpop.gremlin.structure.Edge;
+import org.apache.tinkerpop.gremlin.structure.T;
+import org.apache.tinkerpop.gremlin.structure.Vertex;
+import org.apache.tinkerpop.gremlin.structure.io.IoCore;
+import org.apache.tinkerpop.gremlin.tinkergraph.structure.TinkerGraph;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.mq.constants.CMQCFC;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQGraphBuilder Class
+ *
+ * Build a graph of an MQ Cluster. The add methods can be called by several 
+ * threads at the same time.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQGraphBuilder implements MQRecordSink {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQGraphBuilder.class);
+	
+	// Separator for composite vertex keys, spaces are not valid in MQ object names
+	private static final String KEY_SEPARATOR = " ";
+	
+	// Number of locks shared by the vertices, a vertex and its edges are protected by the lock of its key
+	private static final int VERTEX_LOCK_STRIPES = 64;
+	
+	// Maximum number of records in a graph upsert flight recorder event
+	private static final int UPSERT_BATCH_SIZE = 1000;
+	
+	// Record types counted in a graph upsert batch
+	private static final int QUEUE_MANAGER = 0;
+	private static final int CLUSTER_QUEUE_MANAGER = 1;
+	private static final int CLUSTER_QUEUE = 2;
+	
+	// Only automatic cluster sender channels are added as edges
+	private static final String AUTO_CLUSTER_SENDER = MQConstantTable.Q_MGR_DEFINITION_TYPE.lookup(CMQCFC.MQQMDT_AUTO_CLUSTER_SENDER);
+	
+	TinkerGraph tg;
+	GraphTraversalSource g;
+	boolean sharedQueueVertices;
+	
+	// Vertex indexes, TinkerGraph would otherwise scan all the vertices for every lookup
+	private Map<String, Vertex> qmVerticesByName;
+	private Map<String, Vertex> qmVerticesById;
+	private Map<String, Vertex> queueVerticesByKey;
+	
+	private ReentrantLock[] vertexLocks;
+	private MQRunStatistics statistics;
+	
+	// Graph upsert batch of each thread adding records, only while flight recording
+	private Map<Thread, UpsertBatch> upsertBatches;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQGraphBuilder() {
+		
+		this(false);
+	}
+	
+	/**
+	 * Constructor
+	 *
+	 * @param sharedQueueVertices If true, a cluster queue instance (cluster, hosting queue manager, queue) 
+	 *                            is a single vertex shared by all the queue managers that know it, otherwise
+	 *                            each queue manager gets its own copy of the vertex
+	 */
+	public MQGraphBuilder(boolean sharedQueueVertices) {
+		
+		log.trace("[{}] Entry {}.constructor, sharedQueueVertices={}", Thread.currentThread().getId(), this.getClass().getName(), sharedQueueVertices);
+		
+		this.tg = TinkerGraph.open();
+		this.g = tg.traversal();
+		this.sharedQueueVertices = sharedQueueVertices;
+		
+		this.qmVerticesByName = new ConcurrentHashMap<String, Vertex>();
+		this.qmVerticesById = new ConcurrentHashMap<String, Vertex>();
+		this.queueVerticesByKey = new ConcurrentHashMap<String, Vertex>();
+		
+		this.vertexLocks = new ReentrantLock[VERTEX_LOCK_STRIPES];
+		for (int i = 0; i < VERTEX_LOCK_STRIPES; i++) this.vertexLocks[i] = new ReentrantLock();
+		
+		this.upsertBatches = new ConcurrentHashMap<Thread, UpsertBatch>();
+		
+		log.trace("[{}] Exit {}.constructor", Thread.currentThread().getId(), this.getClass().getName());
+	}
+	
+    @Override
+    public void addQueueManager(MQQueueManagerData qmd) {
+    	
+    	log.trace("[{}] Entry {}.addQueueManager, qm data={}", Thread.currentThread().getId(), this.getClass().getName(), qmd);
+    	
+    	long start = System.nanoTime();
+    	int verticesAdded = 0;
+    	Vertex v1;
+    	ReentrantLock lock = vertexLock(qmd.getQmName());
+    	
+    	// Add or update a vertex (queue manager) to the graph
+    	lock.lock();
+    	try {
+			v1 = getQueueManagerVertex(qmd.getQmName());
+			
+			if (v1 != null) {
+				v1.property("description", qmd.getDescription());
+				v1.property("platform", qmd.getPlatform());
+				v1.property("cmdlevel", qmd.getCommandLevel());
+				if (qmd.getCommandLevel() < 710) v1.property("version", qmd.getCommandLevel());
+				else v1.property("version", qmd.getVersion());
+			} else {
+				v1 = tg.addVertex(T.label, "qm",
+						"tag", qmd.getTag(),
+						"name", qmd.getQmName(),
+						"qmid", qmd.getQmId(),
+						"description", qmd.getDescription(),
+						"cmdlevel", qmd.getCommandLevel(),
+						"platform", qmd.getPlatform(),
+						"version", qmd.getVersion());
+				indexQueueManagerVertex(v1, qmd.getQmName(), qmd.getQmId());
+				verticesAdded++;
+			}
+    	} finally {
+    		lock.unlock();
+    	}
+    	
+    	recordUpsert(MQRunStatistics.GRAPH_ADD_QUEUE_MANAGER, start, QUEUE_MANAGER, verticesAdded, 0);
+		
+		log.trace("[{}] Exit {}.addQueueManager", Thread.currentThread().getId(), this.getClass().getName());
+    }
+    
+    @Override
+    public void addClusteredQueueManager(MQClusterQueueManagerData cqmd) {
+    	
+    	log.trace("[{}] Entry {}.addClusteredQueueManager, cluster queue manager data={}", Thread.currentThread().getId(), this.getClass().getName(), cqmd);
+    	
+    	long start = System.nanoTime();
+    	int verticesAdded = 0;
+    	int edgesAdded = 0;
+    	
+    	// Add an edge (connects) to the graph
+		if (AUTO_CLUSTER_SENDER.equals(cqmd.getDefinitionType())) {
+			
+			Vertex v1 = getQueueManagerVertex(cqmd.getSourceQmName());
+			if (v1 == null) {
+				System.err.println("No vertex found for source queue manager " + cqmd.getSourceQmName());
+				return;
+			}
+		
+			Vertex v2;
+			ReentrantLock lock = vertexLock(cqmd.getQmName());
+			
+			lock.lock();
+			try {
+				v2 = getQueueManagerVertex(cqmd.getQmName());
+				if (v2 == null) {
+					v2 = tg.addVertex(T.label, "qm",
+						"tag", cqmd.getTag(),
+				    	"name", cqmd.getQmName(),
+				    	"qmid", cqmd.getQmId(),
+						"version", cqmd.getVersion());
+					indexQueueManagerVertex(v2, cqmd.getQmName(), cqmd.getQmId());
+					verticesAdded++;
+				}
+			} finally {
+				lock.unlock();
+			}
+						
+			addEdge(v1, cqmd.getSourceQmName(), "connects", v2, cqmd.getQmName(),
+				"tag", cqmd.getTag(),
+				"SourceQM", cqmd.getSourceQmName(),
+				"name", cqmd.getQmName(),
+				"qmid", cqmd.getQmId(),
+				"qmtype", cqmd.getQmType(),
+				"cluster", cqmd.getCluster(),
+				"deftype", cqmd.getDefinitionType(),
+				"channel", cqmd.getChannelName(),
+				"connection", cqmd.getConnectionName(),
+				"status", cqmd.getStatus(),
+				"sslcauth", cqmd.getSslCAuth(),
+				"sslciph", cqmd.getSslCiph(),
+				"sslpeer", cqmd.getSslPeer(),
+				"xmitq", cqmd.getXmitQ(),
+				"version", cqmd.getVersion());
+			edgesAdded++;
+		}
+		
+		recordUpsert(MQRunStatistics.GRAPH_ADD_CLUSTERED_QUEUE_MANAGER, start, CLUSTER_QUEUE_MANAGER, verticesAdded, edgesAdded);
+		
+		log.trace("[{}] Exit {}.addClusteredQueueManagerr", Thread.currentThread().getId(), this.getClass().getName());
+    }
+    
+    @Override
+    public void addClusteredQueue(MQClusterQueueData cqd) {
+    	
+    	log.trace("[{}] Entry {}.addClusteredQueue, cluster queue data={}", Thread.currentThread().getId(), this.getClass().getName(), cqd);
+    	
+    	long start = System.nanoTime();
+    	
+    	Vertex v1 = getQueueManagerVertex(cqd.getQmName());
+    	if (v1 == null) {
+    		System.err.println("No vertex found for queue manager " + cqd.getQmName());
+    		return;
+    	}
+    	
+    	// Either one vertex per queue instance, or one vertex per queue instance seen by each queue manager
+    	boolean owner = cqd.getQmName().compareTo(cqd.getClusQmgr()) == 0;
+    	String queueKey;
+    	
+    	if (this.sharedQueueVertices) queueKey = cqd.getCluster() + KEY_SEPARATOR + cqd.getClusQmgr() + KEY_SEPARATOR + cqd.getQueue();
+    	else queueKey = cqd.getQmName() + KEY_SEPARATOR + cqd.getQueue() + KEY_SEPARATOR + cqd.getClusQmgr() + KEY_SEPARATOR + cqd.getCluster();
+    	
+    	Vertex v3;
+    	int verticesAdded = 0;
+    	ReentrantLock lock = vertexLock(queueKey);
+    	
+    	lock.lock();
+    	try {
+	    	v3 = this.queueVerticesByKey.get(queueKey);
+	    	if (v3 == null) {
+				v3 = tg.addVertex(T.label, "queue",
+					"qmname", this.sharedQueueVertices ? cqd.getClusQmgr() : cqd.getQmName(),
+			    	"name", cqd.getQueue(),
+			    	"cluster", cqd.getCluster(),
+					"clusqmgr", cqd.getClusQmgr(),
+					"clusqt", cqd.getClusQT(),
+					"clWlPrty", cqd.getClWlPrty(),
+					"clWlRank", cqd.getClWlRank(),
+					"defbind", cqd.getDefBind(),
+					"descr", cqd.getDescr(),
+					"put", cqd.getPut(),
+					"qmid", cqd.getQmId());
+				this.queueVerticesByKey.put(queueKey, v3);
+				verticesAdded++;
+			} else if (this.sharedQueueVertices && owner) {
+				// The hosting queue manager has the authoritative view of the queue
+				v3.property("clusqt", cqd.getClusQT());
+				v3.property("clWlPrty", cqd.getClWlPrty());
+				v3.property("clWlRank", cqd.getClWlRank());
+				v3.property("defbind", cqd.getDefBind());
+				v3.property("descr", cqd.getDescr());
+				v3.property("put", cqd.getPut());
+			}
+    	} finally {
+    		lock.unlock();
+    	}
+		
+    	if (owner) addEdge(v1, cqd.getQmName(), "owns", v3, queueKey);
+    	else addEdge(v1, cqd.getQmName(), "uses", v3, queueKey);
+    	
+    	recordUpsert(MQRunStatistics.GRAPH_ADD_CLUSTERED_QUEUE, start, CLUSTER_QUEUE, verticesAdded, 1);
+    	
+    	log.trace("[{}] Exit {}.addClusteredQueue", Thread.currentThread().getId(), this.getClass().getName());
+    }
+    
+    @Override
+    public void endQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success) {
+    	// nothing to do, the records are added to the graph as they arrive
+    }
+    
+    /**
+     * Get the vertex of a queue manager
+     * 
+     * @param qmName Queue manager name
+     * @return vertex The queue manager vertex, or null if the queue manager is not in the graph
+     */
+    public Vertex getQueueManagerVertex(String qmName) {
+    	
+    	if (qmName == null) return null;
+    	return this.qmVerticesByName.get(qmName);
+    }
+    
+    /**
+     * Get the vertex of a queue manager from its identifier
+     * 
+     * @param qmId Queue manager identifier (QMID)
+     * @return vertex The queue manager vertex, or null if the queue manager is not in the graph
+     */
+    public Vertex getQueueManagerVertexById(String qmId) {
+    	
+    	if (qmId == null) return null;
+    	return this.qmVerticesById.get(qmId);
+    }
+    
+    private void indexQueueManagerVertex(Vertex v, String qmName, String qmId) {
+    	
+    	this.qmVerticesByName.put(qmName, v);
+    	if (qmId != null) this.qmVerticesById.putIfAbsent(qmId, v);
+    }
+    
+    private int lockStripe(String key) {
+    	return (key.hashCode() & 0x7fffffff) % VERTEX_LOCK_STRIPES;
+    }
+    
+    private ReentrantLock vertexLock(String key) {
+    	return this.vertexLocks[lockStripe(key)];
+    }
+    
+    /**
+     * Add an edge between two vertices, holding the locks of both vertices. The locks are
+     * always taken in the same order so that concurrent callers cannot deadlock.
+     * 
+     * @param outVertex Vertex the edge starts from
+     * @param outKey Key of the out vertex
+     * @param label Edge label
+     * @param inVertex Vertex the edge goes to
+     * @param inKey Key of the in vertex
+     * @param keyValues Edge properties
+     * @return edge The new edge
+     */
+    private Edge addEdge(Vertex outVertex, String outKey, String label, Vertex inVertex, String inKey, Object... keyValues) {
+    	
+    	int outStripe = lockStripe(outKey);
+    	int inStripe = lockStripe(inKey);
+    	ReentrantLock firstLock = this.vertexLocks[Math.min(outStripe, inStripe)];
+    	ReentrantLock secondLock = this.vertexLocks[Math.max(outStripe, inStripe)];
+    	
+    	firstLock.lock();
+    	try {
+    		secondLock.lock();
+    		try {
+    			return outVertex.addEdge(label, inVertex, keyValues);
+    		} finally {
+    			secondLock.unlock();
+    		}
+    	} finally {
+    		firstLock.unlock();
+    	}
+    }
+    
+    private void recordPhase(String phase, long start) {
+    	if (this.statistics != null) this.statistics.record(phase, System.nanoTime() - start);
+    }
+    
+    /**
+     * Record the latency of an add method and count the record in the upsert batch of the
+     * calling thread, when graph upsert events are recorded
+     * 
+     */
+    private void recordUpsert(String phase, long start, int recordType, int verticesAdded, int edgesAdded) {
+    	
+    	long nanos = System.nanoTime() - start;
+    	
+    	if (this.statistics != null) this.statistics.record(phase, nanos);
+    	
+    	// The event type is only checked when a batch starts, a batch started while recording is 
+    	// committed as a whole
+    	Thread thread = Thread.currentThread();
+    	UpsertBatch batch = this.upsertBatches.get(thread);
+    	if (batch == null) {
+    		if (!MQFlightEvent.GRAPH_UPSERT_BATCH.isEnabled()) return;
+    		batch = new UpsertBatch();
+    		this.upsertBatches.put(thread, batch);
+    	}
+    	
+    	if (batch.add(recordType, verticesAdded, edgesAdded, nanos) >= UPSERT_BATCH_SIZE) {
+    		this.upsertBatches.remove(thread);
+    		batch.commit();
+    	}
+    }
+    
+    /**
+     * Commit the graph upsert batches not full yet, the threads adding records are done
+     * 
+     */
+    private void commitUpsertBatches() {
+    	
+    	for (UpsertBatch batch : this.upsertBatches.values()) batch.commit();
+    	this.upsertBatches.clear();
+    }
+    
+    /**
+     * Write the graph to a file, as a flight recorder event when graph export events are recorded
+     * 
+     */
+    private void writeGraph(String format, String fileName, String phase)
+    	throws IOException {
+    	
+    	commitUpsertBatches();
+    	
+    	long start = System.nanoTime();
+    	Object exportEvent = MQFlightEvent.GRAPH_EXPORT.begin();
+    	
+    	if (format.equals("GraphML")) this.tg.io(IoCore.graphml()).writeGraph(fileName);
+    	else this.tg.io(IoCore.graphson()).writeGraph(fileName);
+    	
+    	MQFlightEvent.GRAPH_EXPORT.end(exportEvent);
+    	if (exportEvent != null) MQFlightEvent.GRAPH_EXPORT.commit(exportEvent, format, fileName, this.g.V().count().next(), this.g.E().count().next(), new File(fileName).length());
+    	recordPhase(phase, start);
+    }
+    
+    public void closeGraph() {
+    	
+    	log.trace("[{}] Entry {}.closeGraph", Thread.currentThread().getId(), this.getClass().getName());
+    	
+    	commitUpsertBatches();
+    	
+    	try {
+    		this.g.close();
+    		this.tg.close();
+    	} catch (Exception e) {
+    		// ignore
+    	}
+    	
+    	log.trace("[{}] Exit {}.closeGraph", Thread.currentThread().getId(), this.getClass().getName());
+    }
+    
+    public void writeGraphMLToFile(String fileName) 
+    	throws IOException {
+    	
+    	log.trace("[{}] Entry {}.writeGraphMLToFile", Thread.currentThread().getId(), this.getClass().getName());
+    	
+		writeGraph("GraphML", fileName, MQRunStatistics.GRAPH_WRITE_GRAPHML);
+		
+		log.trace("[{}] Exit {}.writeGraphMLToFile", Thread.currentThread().getId(), this.getClass().getName());
+    }
+    
+    public void writeGraphJSONToFile(String fileName) 
+        throws IOException {
+    	
+    	log.trace("[{}] Entry {}.writeJSONToFile", Thread.currentThread().getId(), this.getClass().getName());
+        	
+    	writeGraph("GraphSON", fileName, MQRunStatistics.GRAPH_WRITE_JSON);
+    	
+    	log.trace("[{}] Exit {}.writeJSONToFile", Thread.currentThread().getId(), this.getClass().getName());
+    }
+
+    public MQRunStatistics getStatistics() {
+    	return statistics;
+    }
+    
+    public void setStatistics(MQRunStatistics statistics) {
+    	this.statistics = statistics;
+    }
+
+    /**
+     * Records added to the graph by a thread, reported as a single flight recorder event
+     *
+     */
+    private static class UpsertBatch {
+    	
+    	private Object event;
+    	private Thread thread;
+    	private int[] records;
+    	private int verticesAdded;
+    	private int edgesAdded;
+    	private long upsertNanos;
+    	private int size;
+    	
+    	public UpsertBatch() {
+    		
+    		this.event = MQFlightEvent.GRAPH_UPSERT_BATCH.begin();
+    		this.thread = Thread.currentThread();
+    		this.records = new int[CLUSTER_QUEUE + 1];
+    	}
+    	
+    	public synchronized int add(int recordType, int verticesAdded, int edgesAdded, long nanos) {
+    		
+    		this.records[recordType]++;
+    		this.verticesAdded += verticesAdded;
+    		this.edgesAdded += edgesAdded;
+    		this.upsertNanos += nanos;
+    		
+    		// The batch ends with its last record, not when it is committed
+    		MQFlightEvent.GRAPH_UPSERT_BATCH.end(this.event);
+    		
+    		return ++this.size;
+    	}
+    	
+    	public synchronized void commit() {
+    		
+    		if (this.event != null && this.size != 0) MQFlightEvent.GRAPH_UPSERT_BATCH.commit(this.event, this.thread, this.records[QUEUE_MANAGER], this.records[CLUSTER_QUEUE_MANAGER],
+    				this.records[CLUSTER_QUEUE], this.verticesAdded, this.edgesAdded, this.upsertNanos);
+    		this.event = null;
+    	}
+    }
+
+}
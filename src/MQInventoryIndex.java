@@ -0,0 +1,539 @@
+package com.ibm.xmq.cluster;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQInventoryIndex Class
+ *
+ * Index of a queue manager inventory file. The file is memory-mapped and 
+ * scanned once, the index keeps where each entry starts, a trie of the tags 
+ * pointing to the entries carrying them and a queue manager name index. 
+ * Selecting the queue managers whose tag matches wildcard patterns walks the 
+ * trie, so the cost follows the number of matching entries rather than the 
+ * size of the inventory. An index is immutable once built, it can be shared 
+ * between threads and reused for any number of selections.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQInventoryIndex {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQInventoryIndex.class);
+
+	private static final byte INVENTORY_SEPARATOR = ':';
+	private static final int INVENTORY_FIELDS = 4;
+	
+	private static final Map<String, MQInventoryIndex> indexes = new ConcurrentHashMap<String, MQInventoryIndex>();
+	
+	private String fileName;
+	private long fileLength;
+	private long fileLastModified;
+	private MappedByteBuffer inventory;
+	private Charset charset;
+	private int totalEntries;
+	private int[] entryOffsets;
+	private int[] qmNameIndex;
+	private int[] previousQmEntry;
+	private TagNode tags;
+	private int totalTagNodes;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQInventoryIndex(String fileName) 
+		throws FileNotFoundException, IOException {
+		
+		log.trace("[{}] Entry {}.constructor, fileName={}", Thread.currentThread().getId(), this.getClass().getName(), fileName);
+		
+		File inventoryFile = new File(fileName);
+		
+		this.fileName = fileName;
+		this.fileLength = inventoryFile.length();
+		this.fileLastModified = inventoryFile.lastModified();
+		this.charset = Charset.defaultCharset();
+		this.entryOffsets = new int[64];
+		this.tags = new TagNode(this.totalTagNodes++);
+		
+		// Map the inventory file, the mapping remains valid once the file is closed
+		RandomAccessFile file = new RandomAccessFile(fileName, "r");
+		try {
+			FileChannel channel = file.getChannel();
+			
+			if (channel.size() > Integer.MAX_VALUE) throw new IOException("Inventory file '" + fileName + "' is too large");
+			this.inventory = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		} finally {
+			file.close();
+		}
+		
+		int limit = this.inventory.limit();
+		int lineNumber = 0;
+		int lastTagOffset = -1;
+		TagNode lastTagNode = null;
+		
+		for (int offset = 0; offset < limit; offset = lineEnd(offset) + 1) {
+			lineNumber++;
+			
+			int end = trimmedLineEnd(offset);
+			
+			// Skip blank lines
+			if (end == offset) continue;
+			
+			int tagEnd = fieldEnd(offset, end);
+			int qmNameEnd = tagEnd < end ? fieldEnd(tagEnd + 1, end) : end;
+			int connNameListEnd = qmNameEnd < end ? fieldEnd(qmNameEnd + 1, end) : end;
+			
+			if (connNameListEnd >= end) 
+				throw new IOException("Inventory file '" + fileName + "' line " + lineNumber + " does not have " + INVENTORY_FIELDS + " fields separated by '" + (char) INVENTORY_SEPARATOR + "'");
+			
+			// Consecutive entries usually share their tag, only decode the tag when it changes
+			if (lastTagNode == null || !bytesEqual(lastTagOffset, fieldEnd(lastTagOffset, end), offset, tagEnd)) {
+				lastTagNode = addTag(decode(offset, tagEnd));
+				lastTagOffset = offset;
+			}
+			
+			if (this.totalEntries == this.entryOffsets.length) this.entryOffsets = Arrays.copyOf(this.entryOffsets, this.totalEntries * 2);
+			lastTagNode.addEntry(this.totalEntries);
+			this.entryOffsets[this.totalEntries++] = offset;
+		}
+		
+		buildQmNameIndex();
+		
+		log.trace("[{}] Exit {}.constructor, totalEntries={}, totalTagNodes={}", Thread.currentThread().getId(), this.getClass().getName(), this.totalEntries, this.totalTagNodes);
+	}
+	
+	/**
+	 * Get the index of an inventory file, the index is only built again when the file
+	 * has changed since it was last indexed
+	 * 
+	 * @param fileName Inventory file name
+	 * @return index The inventory index
+	 */
+	public static MQInventoryIndex forFile(String fileName) 
+		throws FileNotFoundException, IOException {
+		
+		String key = new File(fileName).getCanonicalPath();
+		MQInventoryIndex index = indexes.get(key);
+		
+		if (index == null || index.isStale()) {
+			index = new MQInventoryIndex(fileName);
+			indexes.put(key, index);
+		}
+		
+		return index;
+	}
+	
+	/**
+	 * Select the entries whose tag matches any of the wildcard patterns
+	 * 
+	 * @param tagList Wildcard patterns, all the entries are selected when the list is empty
+	 * @return entries The selected entry numbers, in inventory order
+	 */
+	public int[] select(List<String> tagList) {
+		
+		log.trace("[{}] Entry {}.select, tagList={}", Thread.currentThread().getId(), this.getClass().getName(), tagList);
+		
+		int[] entries;
+		
+		if (tagList.size() == 0) {
+			entries = new int[this.totalEntries];
+			for (int entry = 0; entry < this.totalEntries; entry++) entries[entry] = entry;
+		} else {
+			TagSelection selection = new TagSelection();
+			
+			for (String tag : tagList) {
+				selection.visits.clear();
+				selectTags(this.tags, tag, 0, selection);
+			} // end for
+			
+			entries = Arrays.copyOf(selection.entries, selection.totalEntries);
+			
+			// Entries from several tags are merged back into inventory order
+			if (selection.selectedNodes.size() > 1) Arrays.sort(entries);
+		}
+		
+		log.trace("[{}] Exit {}.select, totalEntries={}", Thread.currentThread().getId(), this.getClass().getName(), entries.length);
+		
+		return entries;
+	}
+	
+	/**
+	 * Parse an inventory entry
+	 * 
+	 * @param entry Entry number
+	 * @return qmid The inventory entry
+	 */
+	public MQQueueManagerInventoryData getEntry(int entry) {
+		
+		int offset = this.entryOffsets[entry];
+		int end = trimmedLineEnd(offset);
+		int tagEnd = fieldEnd(offset, end);
+		int qmNameEnd = fieldEnd(tagEnd + 1, end);
+		int connNameListEnd = fieldEnd(qmNameEnd + 1, end);
+		
+		MQQueueManagerInventoryData qmid = new MQQueueManagerInventoryData();
+		qmid.setTag(decode(offset, tagEnd));
+		qmid.setQmName(decode(tagEnd + 1, qmNameEnd));
+		qmid.setConnNameList(decode(qmNameEnd + 1, connNameListEnd));
+		qmid.setChannelName(decode(connNameListEnd + 1, fieldEnd(connNameListEnd + 1, end)));
+		
+		return qmid;
+	}
+	
+	/**
+	 * Get the tag of an inventory entry
+	 * 
+	 * @param entry Entry number
+	 * @return tag The entry tag
+	 */
+	public String getTag(int entry) {
+		
+		int offset = this.entryOffsets[entry];
+		
+		return decode(offset, fieldEnd(offset, trimmedLineEnd(offset)));
+	}
+	
+	/**
+	 * Get the tag of a queue manager, from its last entry in the inventory
+	 * 
+	 * @param qmName Queue manager name
+	 * @return tag The queue manager tag, null if the queue manager is not in the inventory
+	 */
+	public String getTag(String qmName) {
+		
+		int entry = getLastEntry(qmName);
+		
+		return entry < 0 ? null : getTag(entry);
+	}
+	
+	/**
+	 * Get the last inventory entry of a queue manager
+	 * 
+	 * @param qmName Queue manager name
+	 * @return entry The entry number, -1 if the queue manager is not in the inventory
+	 */
+	public int getLastEntry(String qmName) {
+		
+		if (qmName == null) return -1;
+		
+		byte[] name = qmName.getBytes(this.charset);
+		int mask = this.qmNameIndex.length - 1;
+		
+		for (int slot = hash(name) & mask; this.qmNameIndex[slot] != 0; slot = (slot + 1) & mask) {
+			int entry = this.qmNameIndex[slot] - 1;
+			
+			if (qmNameEquals(entry, name)) return entry;
+		} // end for
+		
+		return -1;
+	}
+	
+	/**
+	 * Get the previous inventory entry of the same queue manager
+	 * 
+	 * @param entry Entry number
+	 * @return entry The previous entry number, -1 if there is none
+	 */
+	public int getPreviousEntry(int entry) {
+		return this.previousQmEntry[entry];
+	}
+	
+	public String getFileName() {
+		return fileName;
+	}
+	
+	public int getTotalEntries() {
+		return totalEntries;
+	}
+	
+	private boolean isStale() {
+		
+		File inventoryFile = new File(this.fileName);
+		
+		return inventoryFile.length() != this.fileLength || inventoryFile.lastModified() != this.fileLastModified;
+	}
+	
+	private TagNode addTag(String tag) {
+		
+		TagNode node = this.tags;
+		
+		for (int i = 0, l = tag.length(); i < l; i++) {
+			TagNode child = node.getChild(tag.charAt(i));
+			
+			if (child == null) child = node.addChild(tag.charAt(i), new TagNode(this.totalTagNodes++));
+			node = child;
+		} // end for
+		
+		return node;
+	}
+	
+	/**
+	 * Walk the trie along a wildcard pattern, literal characters follow a single branch, 
+	 * wildcards follow all of them. A trailing * selects a whole subtree.
+	 * 
+	 */
+	private void selectTags(TagNode node, String wildcard, int position, TagSelection selection) {
+		
+		// The same node can be reached at the same pattern position through different * expansions
+		if (!selection.visits.add(((long) node.id << 32) | position)) return;
+		
+		if (position == wildcard.length()) {
+			selection.add(node);
+			return;
+		}
+		
+		char c = wildcard.charAt(position);
+		
+		switch (c) {
+			case '*':
+				int next = position + 1;
+				while (next < wildcard.length() && wildcard.charAt(next) == '*') next++;
+				
+				if (next == wildcard.length()) selection.addAll(node);
+				else {
+					selectTags(node, wildcard, next, selection);
+					for (int i = 0; i < node.totalChildren; i++) selectTags(node.children[i], wildcard, position, selection);
+				}
+				break;
+			case '?':
+				for (int i = 0; i < node.totalChildren; i++) selectTags(node.children[i], wildcard, position + 1, selection);
+				break;
+			default:
+				TagNode child = node.getChild(c);
+				if (child != null) selectTags(child, wildcard, position + 1, selection);
+				break;
+		} // end switch
+	}
+	
+	/**
+	 * Index the entries by queue manager name, the index holds entry numbers plus one 
+	 * so that zero marks a free slot. A queue manager listed more than once is indexed 
+	 * to its last entry, which links back to the previous ones.
+	 * 
+	 */
+	private void buildQmNameIndex() {
+		
+		int size = Integer.highestOneBit(Math.max(this.totalEntries, 1) * 2) * 2;
+		int mask = size - 1;
+		
+		this.qmNameIndex = new int[size];
+		this.previousQmEntry = new int[this.totalEntries];
+		
+		for (int entry = 0; entry < this.totalEntries; entry++) {
+			int offset = this.entryOffsets[entry];
+			int end = trimmedLineEnd(offset);
+			int qmNameStart = fieldEnd(offset, end) + 1;
+			int qmNameEnd = fieldEnd(qmNameStart, end);
+			int slot = hash(qmNameStart, qmNameEnd) & mask;
+			
+			this.previousQmEntry[entry] = -1;
+			
+			while (this.qmNameIndex[slot] != 0) {
+				int other = this.entryOffsets[this.qmNameIndex[slot] - 1];
+				int otherEnd = trimmedLineEnd(other);
+				int otherQmNameStart = fieldEnd(other, otherEnd) + 1;
+				
+				if (bytesEqual(otherQmNameStart, fieldEnd(otherQmNameStart, otherEnd), qmNameStart, qmNameEnd)) {
+					this.previousQmEntry[entry] = this.qmNameIndex[slot] - 1;
+					break;
+				}
+				slot = (slot + 1) & mask;
+			} // end while
+			
+			this.qmNameIndex[slot] = entry + 1;
+		} // end for
+	}
+	
+	private boolean qmNameEquals(int entry, byte[] name) {
+		
+		int offset = this.entryOffsets[entry];
+		int end = trimmedLineEnd(offset);
+		int qmNameStart = fieldEnd(offset, end) + 1;
+		int qmNameEnd = fieldEnd(qmNameStart, end);
+		
+		if (qmNameEnd - qmNameStart != name.length) return false;
+		
+		for (int i = 0; i < name.length; i++) {
+			if (this.inventory.get(qmNameStart + i) != name[i]) return false;
+		}
+		
+		return true;
+	}
+	
+	private boolean bytesEqual(int start1, int end1, int start2, int end2) {
+		
+		if (end1 - start1 != end2 - start2) return false;
+		
+		for (int i = 0; i < end1 - start1; i++) {
+			if (this.inventory.get(start1 + i) != this.inventory.get(start2 + i)) return false;
+		}
+		
+		return true;
+	}
+	
+	private static int hash(byte[] bytes) {
+		
+		int h = 0x811c9dc5;
+		
+		for (byte b : bytes) h = (h ^ b) * 0x01000193;
+		
+		return h ^ (h >>> 16);
+	}
+	
+	private int hash(int start, int end) {
+		
+		int h = 0x811c9dc5;
+		
+		for (int i = start; i < end; i++) h = (h ^ this.inventory.get(i)) * 0x01000193;
+		
+		return h ^ (h >>> 16);
+	}
+	
+	private int lineEnd(int offset) {
+		
+		int limit = this.inventory.limit();
+		
+		while (offset < limit && this.inventory.get(offset) != '\n') offset++;
+		
+		return offset;
+	}
+	
+	private int trimmedLineEnd(int offset) {
+		
+		int end = lineEnd(offset);
+		
+		if (end > offset && this.inventory.get(end - 1) == '\r') end--;
+		
+		return end;
+	}
+	
+	private int fieldEnd(int offset, int end) {
+		
+		while (offset < end && this.inventory.get(offset) != INVENTORY_SEPARATOR) offset++;
+		
+		return offset;
+	}
+	
+	private byte[] bytes(int start, int end) {
+		
+		byte[] bytes = new byte[end - start];
+		ByteBuffer buffer = ((ByteBuffer) this.inventory).duplicate();
+		
+		buffer.position(start);
+		buffer.get(bytes);
+		
+		return bytes;
+	}
+	
+	private String decode(int start, int end) {
+		return new String(bytes(start, end), this.charset);
+	}
+	
+	/**
+	 * Trie node, one per tag prefix, holding the entries whose tag ends at this node
+	 * 
+	 */
+	private static class TagNode {
+		
+		private int id;
+		private char[] labels = new char[0];
+		private TagNode[] children = new TagNode[0];
+		private int totalChildren;
+		private int[] entries = new int[0];
+		private int totalEntries;
+		
+		private TagNode(int id) {
+			this.id = id;
+		}
+		
+		private TagNode getChild(char label) {
+			
+			for (int i = 0; i < this.totalChildren; i++) {
+				if (this.labels[i] == label) return this.children[i];
+			}
+			
+			return null;
+		}
+		
+		private TagNode addChild(char label, TagNode child) {
+			
+			if (this.totalChildren == this.children.length) {
+				this.labels = Arrays.copyOf(this.labels, Math.max(2, this.totalChildren * 2));
+				this.children = Arrays.copyOf(this.children, this.labels.length);
+			}
+			
+			this.labels[this.totalChildren] = label;
+			this.children[this.totalChildren++] = child;
+			
+			return child;
+		}
+		
+		private void addEntry(int entry) {
+			
+			if (this.totalEntries == this.entries.length) this.entries = Arrays.copyOf(this.entries, Math.max(4, this.totalEntries * 2));
+			this.entries[this.totalEntries++] = entry;
+		}
+	}
+	
+	/**
+	 * Entries collected while walking the trie, each node contributes its entries once
+	 * 
+	 */
+	private static class TagSelection {
+		
+		private Set<Long> visits = new HashSet<Long>();
+		private Set<TagNode> selectedNodes = new HashSet<TagNode>();
+		private int[] entries = new int[16];
+		private int totalEntries;
+		
+		private void add(TagNode node) {
+			
+			if (!this.selectedNodes.add(node) || node.totalEntries == 0) return;
+			
+			if (this.totalEntries + node.totalEntries > this.entries.length) 
+				this.entries = Arrays.copyOf(this.entries, Math.max(this.entries.length * 2, this.totalEntries + node.totalEntries));
+			
+			System.arraycopy(node.entries, 0, this.entries, this.totalEntries, node.totalEntries);
+			this.totalEntries += node.totalEntries;
+		}
+		
+		private void addAll(TagNode node) {
+			
+			add(node);
+			for (int i = 0; i < node.totalChildren; i++) addAll(node.children[i]);
+		}
+	}
+	
+}
@@ -0,0 +1,152 @@
+package com.ibm.xmq.cluster;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQLatencyHistogram Class
+ *
+ * Histogram of latencies in nanoseconds, laid out like HdrHistogram: each power
+ * of two is split into 128 linear sub-buckets, so any value is counted with an
+ * error below 0.8% using a fixed amount of memory. Values can be recorded by
+ * several threads at the same time.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQLatencyHistogram {
+
+	// 256 sub-buckets per power of two, the upper half of them is used above the first power
+	private static final int SUB_BUCKET_BITS = 8;
+	private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+	private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT >> 1;
+
+	// Values from 2^41 nanoseconds, about 36 minutes, are counted in a last overflow bucket
+	private static final int MAX_EXPONENT = 41;
+	private static final int BUCKET_COUNT = SUB_BUCKET_COUNT + (MAX_EXPONENT - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT + 1;
+
+	private AtomicLongArray counts;
+	private AtomicLong totalCount;
+	private AtomicLong totalValue;
+	private AtomicLong maxValue;
+
+
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQLatencyHistogram() {
+
+		this.counts = new AtomicLongArray(BUCKET_COUNT);
+		this.totalCount = new AtomicLong();
+		this.totalValue = new AtomicLong();
+		this.maxValue = new AtomicLong();
+	}
+
+	/**
+	 * Record a latency
+	 *
+	 * @param nanos Latency in nanoseconds, negative values are counted as 0
+	 */
+	public void record(long nanos) {
+
+		if (nanos < 0) nanos = 0;
+
+		this.counts.incrementAndGet(bucketIndex(nanos));
+		this.totalCount.incrementAndGet();
+		this.totalValue.addAndGet(nanos);
+
+		long max = this.maxValue.get();
+		while (nanos > max && !this.maxValue.compareAndSet(max, nanos)) max = this.maxValue.get();
+	}
+
+	/**
+	 * Get the value below which a percentage of the recorded latencies fall
+	 *
+	 * @param percentile Percentage, between 0 and 100
+	 * @return nanos Highest value of the bucket holding the percentile, 0 if nothing was recorded
+	 */
+	public long getValueAtPercentile(double percentile) {
+
+		long count = this.totalCount.get();
+		if (count == 0) return 0;
+
+		long rank = (long) Math.ceil(Math.min(percentile, 100.0) / 100.0 * count);
+		if (rank < 1) rank = 1;
+
+		long seen = 0;
+
+		for (int i = 0; i < BUCKET_COUNT; i++) {
+			seen += this.counts.get(i);
+			if (seen >= rank) return Math.min(highestValue(i), getMax());
+		} // end for
+
+		return getMax();
+	}
+
+	public long getCount() {
+		return totalCount.get();
+	}
+
+	public long getTotal() {
+		return totalValue.get();
+	}
+
+	public long getMax() {
+		return maxValue.get();
+	}
+
+	public double getMean() {
+
+		long count = this.totalCount.get();
+		return count == 0 ? 0 : (double) this.totalValue.get() / count;
+	}
+
+	/**
+	 * Get the bucket of a value, values below SUB_BUCKET_COUNT get a bucket each
+	 *
+	 */
+	private static int bucketIndex(long value) {
+
+		if (value < SUB_BUCKET_COUNT) return (int) value;
+
+		int exponent = 63 - Long.numberOfLeadingZeros(value);
+		if (exponent >= MAX_EXPONENT) return BUCKET_COUNT - 1;
+
+		int subBucket = (int) (value >>> (exponent - SUB_BUCKET_BITS + 1));
+
+		return SUB_BUCKET_COUNT + (exponent - SUB_BUCKET_BITS) * SUB_BUCKET_HALF_COUNT + subBucket - SUB_BUCKET_HALF_COUNT;
+	}
+
+	/**
+	 * Get the highest value counted in a bucket
+	 *
+	 */
+	private static long highestValue(int index) {
+
+		if (index < SUB_BUCKET_COUNT) return index;
+		if (index == BUCKET_COUNT - 1) return Long.MAX_VALUE;
+
+		int exponent = SUB_BUCKET_BITS + (index - SUB_BUCKET_COUNT) / SUB_BUCKET_HALF_COUNT;
+		long subBucket = SUB_BUCKET_HALF_COUNT + (index - SUB_BUCKET_COUNT) % SUB_BUCKET_HALF_COUNT;
+		int shift = exponent - SUB_BUCKET_BITS + 1;
+
+		return ((subBucket + 1) << shift) - 1;
+	}
+
+}
@@ -0,0 +1,214 @@
+package com.ibm.xmq.cluster;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import com.ibm.mq.MQMessage;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQPCFArchive Class
+ *
+ * Archive of the PCF messages exchanged with one queue manager, written by 
+ * MQRecordingTransport and read by MQReplayTransport. Each entry is an event 
+ * of the conversation (connection, request, response or MQ error) with the 
+ * time elapsed since the previous event.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQPCFArchive {
+	
+	private static final int ARCHIVE_MAGIC = 0x50434641;
+	private static final int ARCHIVE_VERSION = 1;
+	private static final String ARCHIVE_EXTENSION = ".pcfarc";
+	
+	public static final int CONNECT = 1;
+	public static final int REQUEST = 2;
+	public static final int REPLY = 3;
+	public static final int ERROR = 4;
+	
+	
+	/**
+	 * Get the archive file of a queue manager. The characters of the queue manager name 
+	 * other than letters, digits, '.' and '_' are written as %XX, so that a name with '/' 
+	 * or '%' is a single file of the archive directory. There is one file per queue manager, 
+	 * each connection rewrites it, so that a queue manager tried again keeps the archive of 
+	 * its last attempt only.
+	 * 
+	 * @param archiveDir Archive directory
+	 * @param qmName Queue manager name
+	 * @return archiveFile The archive file
+	 */
+	public static File getArchiveFile(File archiveDir, String qmName) {
+		return new File(archiveDir, toFileName(qmName) + ARCHIVE_EXTENSION);
+	}
+	
+	private static String toFileName(String qmName) {
+		
+		StringBuilder fileName = new StringBuilder(qmName.length());
+		int codePoint;
+		
+		for (int i = 0; i < qmName.length(); i += Character.charCount(codePoint)) {
+			codePoint = qmName.codePointAt(i);
+			
+			if ((codePoint >= 'A' && codePoint <= 'Z') || (codePoint >= 'a' && codePoint <= 'z') || (codePoint >= '0' && codePoint <= '9') || codePoint == '.' || codePoint == '_') {
+				fileName.append((char) codePoint);
+			} else {
+				for (byte b : new String(Character.toChars(codePoint)).getBytes(StandardCharsets.UTF_8)) fileName.append('%').append(String.format("%02X", b & 0xFF));
+			}
+		} // end for
+		
+		return fileName.toString();
+	}
+	
+	public static void writeHeader(DataOutputStream out) 
+		throws IOException {
+		
+		out.writeInt(ARCHIVE_MAGIC);
+		out.writeInt(ARCHIVE_VERSION);
+	}
+	
+	public static void readHeader(DataInputStream in, File archiveFile) 
+		throws IOException {
+		
+		if (in.readInt() != ARCHIVE_MAGIC || in.readInt() != ARCHIVE_VERSION) throw new IOException("File '" + archiveFile + "' is not a PCF archive");
+	}
+	
+	/**
+	 * Read the next entry of an archive
+	 * 
+	 * @param in The archive, positioned after the header
+	 * @return entry The next entry, null at the end of the archive
+	 */
+	public static Entry readEntry(DataInputStream in) 
+		throws IOException {
+		
+		Entry entry = new Entry();
+		
+		try {
+			entry.type = in.readByte();
+		} catch (EOFException eofe) {
+			return null;
+		}
+		
+		entry.delay = in.readLong();
+		entry.id = new byte[in.readUnsignedShort()];
+		in.readFully(entry.id);
+		entry.encoding = in.readInt();
+		entry.ccsid = in.readInt();
+		entry.data = new byte[in.readInt()];
+		in.readFully(entry.data);
+		
+		return entry;
+	}
+	
+	/**
+	 * Event of the conversation with a queue manager. For an MQ error the completion code 
+	 * and the reason are kept in the encoding and ccsid fields, for a connection the 
+	 * platform of the queue manager is kept in the encoding field.
+	 *
+	 */
+	public static class Entry {
+		
+		private int type;
+		private long delay;
+		private byte[] id;
+		private int encoding;
+		private int ccsid;
+		private byte[] data;
+		
+		private Entry() {
+		}
+		
+		/**
+		 * Constructor
+		 *
+		 * @param type Event type
+		 * @param delay Time elapsed since the previous event (nanoseconds)
+		 * @param id Message id of a request, correlation id of a response
+		 */
+		public Entry(int type, long delay, byte[] id, int encoding, int ccsid, byte[] data) {
+			
+			this.type = type;
+			this.delay = delay;
+			this.id = id;
+			this.encoding = encoding;
+			this.ccsid = ccsid;
+			this.data = data;
+		}
+		
+		public void write(DataOutputStream out) 
+			throws IOException {
+			
+			out.writeByte(this.type);
+			out.writeLong(this.delay);
+			out.writeShort(this.id.length);
+			out.write(this.id);
+			out.writeInt(this.encoding);
+			out.writeInt(this.ccsid);
+			out.writeInt(this.data.length);
+			out.write(this.data);
+		}
+		
+		/**
+		 * Read the whole data of a message, the message is then positioned back at the start
+		 * 
+		 * @param message A message
+		 * @return data The message data
+		 */
+		public static byte[] readData(MQMessage message) 
+			throws IOException {
+			
+			message.seek(0);
+			byte[] data = new byte[message.getDataLength()];
+			message.readFully(data);
+			message.seek(0);
+			
+			return data;
+		}
+
+		public int getType() {
+			return type;
+		}
+
+		public long getDelay() {
+			return delay;
+		}
+
+		public byte[] getId() {
+			return id;
+		}
+
+		public int getEncoding() {
+			return encoding;
+		}
+
+		public int getCcsid() {
+			return ccsid;
+		}
+
+		public byte[] getData() {
+			return data;
+		}
+	}
+	
+}
@@ -0,0 +1,269 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+import java.io.UnsupportedEncodingException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import com.ibm.mq.MQMessage;
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.constants.CMQCFC;
+import com.ibm.mq.headers.CCSID;
+import com.ibm.mq.pcf.PCFException;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQPCFReply Class
+ *
+ * A PCF response message decoded straight from the message bytes. The MQCFH 
+ * header and the parameter structures are walked once to record where each 
+ * parameter is, values are only read when asked for. Integer (MQCFIN) and 
+ * string (MQCFST) parameters are supported, the other structures are skipped.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQPCFReply {
+	
+	// Offsets of the MQCFH fields
+	private static final int CFH_TYPE = 0;
+	private static final int CFH_COMMAND = 12;
+	private static final int CFH_MSG_SEQ_NUMBER = 16;
+	private static final int CFH_CONTROL = 20;
+	private static final int CFH_COMP_CODE = 24;
+	private static final int CFH_REASON = 28;
+	private static final int CFH_PARAMETER_COUNT = 32;
+	
+	// Offsets of the fields common to all the parameter structures
+	private static final int CF_TYPE = 0;
+	private static final int CF_STRUC_LENGTH = 4;
+	private static final int CF_PARAMETER = 8;
+	
+	// Offsets of the MQCFIN and MQCFST fields
+	private static final int CFIN_VALUE = 12;
+	private static final int CFST_CODED_CHAR_SET_ID = 12;
+	private static final int CFST_STRING_LENGTH = 16;
+	
+	private static final Map<Integer, Codepage> codepages = new ConcurrentHashMap<Integer, Codepage>();
+	
+	private ByteBuffer data;
+	private int ccsid;
+	private int parameterCount;
+	private int[] parameters;
+	private int[] parameterOffsets;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param message A PCF response message, positioned at the start of the MQCFH
+	 */
+	public MQPCFReply(MQMessage message) 
+		throws IOException {
+		
+		this(readMessage(message), message.encoding, message.characterSet);
+	}
+	
+	/**
+	 * Constructor
+	 *
+	 * @param data The PCF response message data, starting with the MQCFH
+	 * @param encoding Encoding of the message data
+	 * @param ccsid Coded character set of the message data, used for the strings with no CCSID of their own
+	 */
+	public MQPCFReply(byte[] data, int encoding, int ccsid) 
+		throws IOException {
+		
+		this.data = ByteBuffer.wrap(data);
+		this.data.order((encoding & CMQC.MQENC_INTEGER_MASK) == CMQC.MQENC_INTEGER_REVERSED ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN);
+		this.ccsid = ccsid;
+		
+		if (data.length < CMQCFC.MQCFH_STRUC_LENGTH) throw new IOException("Message is not a PCF response");
+		
+		switch (this.data.getInt(0)) {
+			case CMQCFC.MQCFT_RESPONSE:
+			case CMQCFC.MQCFT_XR_MSG:
+			case CMQCFC.MQCFT_XR_ITEM:
+			case CMQCFC.MQCFT_XR_SUMMARY:
+				break;
+			default:
+				throw new IOException("Message is not a PCF response");
+		} // end switch
+		
+		// Record the parameter identifiers and offsets, a response has a few dozen parameters at most
+		this.parameterCount = this.data.getInt(CFH_PARAMETER_COUNT);
+		this.parameters = new int[this.parameterCount];
+		this.parameterOffsets = new int[this.parameterCount];
+		
+		int offset = this.data.getInt(CF_STRUC_LENGTH);
+		
+		for (int i = 0; i < this.parameterCount; i++) {
+			if (offset + CF_PARAMETER + 4 > data.length) throw new IOException("PCF response truncated at parameter " + (i + 1) + " of " + this.parameterCount);
+			
+			this.parameters[i] = this.data.getInt(offset + CF_PARAMETER);
+			this.parameterOffsets[i] = offset;
+			
+			offset += this.data.getInt(offset + CF_STRUC_LENGTH);
+		} // end for
+	}
+	
+	/**
+	 * Get the value of an integer parameter
+	 * 
+	 * @param parameter Parameter identifier
+	 * @return value The parameter value
+	 */
+	public int getIntParameterValue(int parameter) 
+		throws PCFException {
+		
+		int offset = find(parameter, CMQCFC.MQCFT_INTEGER);
+		
+		if (offset < 0) throw new PCFException(CMQC.MQCC_FAILED, CMQCFC.MQRCCF_CFIN_PARM_ID_ERROR, this);
+		
+		return this.data.getInt(offset + CFIN_VALUE);
+	}
+	
+	/**
+	 * Get the value of a string parameter, without its trailing blanks
+	 * 
+	 * @param parameter Parameter identifier
+	 * @return value The parameter value
+	 */
+	public String getStringParameterValue(int parameter) 
+		throws PCFException {
+		
+		int offset = find(parameter, CMQCFC.MQCFT_STRING);
+		
+		if (offset < 0) throw new PCFException(CMQC.MQCC_FAILED, CMQCFC.MQRCCF_CFST_PARM_ID_ERROR, this);
+		
+		int ccsid = this.data.getInt(offset + CFST_CODED_CHAR_SET_ID);
+		int start = offset + CMQCFC.MQCFST_STRUC_LENGTH_FIXED;
+		int end = start + this.data.getInt(offset + CFST_STRING_LENGTH);
+		
+		if (ccsid == CMQC.MQCCSI_DEFAULT) ccsid = this.ccsid;
+		
+		Codepage codepage = getCodepage(ccsid);
+		
+		// Trim without copying, only the remaining characters are decoded
+		while (end > start && (this.data.get(end - 1) == codepage.blank || this.data.get(end - 1) == 0)) end--;
+		
+		return new String(this.data.array(), start, end - start, codepage.charset);
+	}
+	
+	/**
+	 * Check whether the response contains a parameter
+	 * 
+	 * @param parameter Parameter identifier
+	 * @return true if the parameter is present, false otherwise
+	 */
+	public boolean hasParameter(int parameter) {
+		
+		for (int i = 0; i < this.parameterCount; i++) {
+			if (this.parameters[i] == parameter) return true;
+		}
+		
+		return false;
+	}
+	
+	public int getType() {
+		return this.data.getInt(CFH_TYPE);
+	}
+	
+	public int getCommand() {
+		return this.data.getInt(CFH_COMMAND);
+	}
+	
+	public int getMsgSeqNumber() {
+		return this.data.getInt(CFH_MSG_SEQ_NUMBER);
+	}
+	
+	public int getControl() {
+		return this.data.getInt(CFH_CONTROL);
+	}
+	
+	public int getCompCode() {
+		return this.data.getInt(CFH_COMP_CODE);
+	}
+	
+	public int getReason() {
+		return this.data.getInt(CFH_REASON);
+	}
+	
+	public int getParameterCount() {
+		return parameterCount;
+	}
+	
+	private int find(int parameter, int type) {
+		
+		for (int i = 0; i < this.parameterCount; i++) {
+			if (this.parameters[i] == parameter && this.data.getInt(this.parameterOffsets[i] + CF_TYPE) == type) return this.parameterOffsets[i];
+		}
+		
+		return -1;
+	}
+	
+	private static Codepage getCodepage(int ccsid) 
+		throws PCFException {
+		
+		Codepage codepage = codepages.get(ccsid);
+		
+		if (codepage == null) {
+			try {
+				codepage = new Codepage(Charset.forName(CCSID.getCodepage(ccsid)));
+			} catch (UnsupportedEncodingException | IllegalArgumentException e) {
+				throw new PCFException(CMQC.MQCC_FAILED, CMQC.MQRC_SOURCE_CCSID_ERROR, Integer.valueOf(ccsid));
+			}
+			codepages.put(ccsid, codepage);
+		}
+		
+		return codepage;
+	}
+	
+	private static byte[] readMessage(MQMessage message) 
+		throws IOException {
+		
+		byte[] data = new byte[message.getDataLength()];
+		message.readFully(data);
+		
+		return data;
+	}
+
+	/**
+	 * Java charset of a CCSID, with the encoding of the blank character used to trim strings
+	 * 
+	 */
+	private static class Codepage {
+		
+		private Charset charset;
+		private byte blank;
+		
+		private Codepage(Charset charset) {
+			this.charset = charset;
+			this.blank = charset.encode(" ").get(0);
+		}
+	}
+
+	@Override
+	public String toString() {
+		return "MQPCFReply [command=" + getCommand() + ", msgSeqNumber=" + getMsgSeqNumber() + ", control=" + getControl() 
+				+ ", compCode=" + getCompCode() + ", reason=" + getReason() + ", parameterCount=" + parameterCount + "]";
+	}
+	
+}
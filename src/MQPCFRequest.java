@@ -0,0 +1,198 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.pcf.PCFMessage;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQPCFRequest Class
+ *
+ * A PCF request submitted to the command server of a queue manager, and the 
+ * responses received for it that have not been consumed yet
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQPCFRequest {
+	
+	private MQAgent mqAgent;
+	private PCFMessage pcfRequest;
+	private byte[] messageId;
+	private Deque<PCFMessage> pcfResponse;
+	private boolean rawResponse;
+	private Deque<MQPCFReply> replies;
+	private boolean complete;
+	private long submitTime;
+	private Object flightEvent;
+	private int replyCount;
+	private long replyBytes;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQPCFRequest(MQAgent mqAgent, PCFMessage pcfRequest, byte[] messageId) {
+		
+		this(mqAgent, pcfRequest, messageId, false);
+	}
+	
+	/**
+	 * Constructor
+	 *
+	 * @param rawResponse Keep the response messages as MQPCFReply objects decoded from the 
+	 *                    message bytes, instead of PCFMessage objects
+	 */
+	public MQPCFRequest(MQAgent mqAgent, PCFMessage pcfRequest, byte[] messageId, boolean rawResponse) {
+		
+		this.mqAgent = mqAgent;
+		this.pcfRequest = pcfRequest;
+		this.messageId = messageId;
+		this.rawResponse = rawResponse;
+		this.pcfResponse = new ArrayDeque<PCFMessage>();
+		this.replies = new ArrayDeque<MQPCFReply>();
+	}
+	
+	/**
+	 * Wait for the complete response to the request
+	 * 
+	 * @return pcfResponse An array of PCFMessage objects containing the PCF response
+	 */
+	public PCFMessage[] getResponse()
+		throws MQException, IOException {
+		
+		return this.mqAgent.receivePCF(this);
+	}
+	
+	/**
+	 * Get the next response message as soon as it has been received. Messages are not
+	 * kept once returned, so a large response can be processed one message at a time.
+	 * If both methods are used, getResponse() only returns the messages not already 
+	 * returned by this method.
+	 * 
+	 * @return response The next response message, or null when the response is complete
+	 */
+	public PCFMessage nextResponse()
+		throws MQException, IOException {
+		
+		return this.mqAgent.receiveNextPCF(this);
+	}
+	
+	/**
+	 * Wait for the complete response to a request submitted for a raw response
+	 * 
+	 * @return replies The response messages
+	 */
+	public MQPCFReply[] getReplies()
+		throws MQException, IOException {
+		
+		return this.mqAgent.receiveReplies(this);
+	}
+	
+	/**
+	 * Get the next response message of a request submitted for a raw response, as soon 
+	 * as it has been received
+	 * 
+	 * @return reply The next response message, or null when the response is complete
+	 */
+	public MQPCFReply nextReply()
+		throws MQException, IOException {
+		
+		return this.mqAgent.receiveNextReply(this);
+	}
+	
+	void addResponse(PCFMessage response) {
+		this.pcfResponse.add(response);
+	}
+	
+	Deque<PCFMessage> getResponseQueue() {
+		return pcfResponse;
+	}
+	
+	void addReply(MQPCFReply reply) {
+		this.replies.add(reply);
+	}
+	
+	Deque<MQPCFReply> getReplyQueue() {
+		return replies;
+	}
+	
+	void setSubmitTime(long submitTime) {
+		this.submitTime = submitTime;
+	}
+	
+	Object getFlightEvent() {
+		return flightEvent;
+	}
+	
+	void setFlightEvent(Object flightEvent) {
+		this.flightEvent = flightEvent;
+	}
+	
+	void countReply(int bytes) {
+		this.replyCount++;
+		this.replyBytes += bytes;
+	}
+	
+	int getReplyCount() {
+		return replyCount;
+	}
+	
+	long getReplyBytes() {
+		return replyBytes;
+	}
+	
+	/**
+	 * Get the time the request was put to the command queue
+	 * 
+	 * @return submitTime A System.nanoTime() value
+	 */
+	public long getSubmitTime() {
+		return submitTime;
+	}
+
+	public boolean isRawResponse() {
+		return rawResponse;
+	}
+
+	public PCFMessage getPcfRequest() {
+		return pcfRequest;
+	}
+
+	public byte[] getMessageId() {
+		return messageId;
+	}
+
+	public boolean isComplete() {
+		return complete;
+	}
+
+	void setComplete(boolean complete) {
+		this.complete = complete;
+	}
+
+	@Override
+	public String toString() {
+		return "MQPCFRequest [command=" + pcfRequest.getCommand() + ", messageId=" + StringUtils.toHex(messageId)
+				+ ", responses=" + (rawResponse ? replies.size() : pcfResponse.size()) + ", complete=" + complete + "]";
+	}
+
+}
@@ -0,0 +1,85 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQQueueManagerGate Class
+ * 
+ * Hold the records of one collection attempt of a queue manager on the
+ * collector thread, and pass them to a sink only if the attempt succeeds.
+ * Gates of several collector threads feed the same sink at the same time.
+ * 
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQQueueManagerGate implements MQRecordSink {
+	
+	private MQRecordSink sink;
+	private MQQueueManagerRecords records;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param inventoryEntry The inventory entry of the queue manager
+	 * @param sink The sink receiving the records of the attempt if it succeeds, safe for concurrent use
+	 */
+	public MQQueueManagerGate(MQQueueManagerInventoryData inventoryEntry, MQRecordSink sink) {
+		
+		this.sink = sink;
+		this.records = new MQQueueManagerRecords(inventoryEntry);
+	}
+	
+	@Override
+	public void addQueueManager(MQQueueManagerData qmd)
+		throws IOException {
+		
+		this.records.add(qmd);
+	}
+	
+	@Override
+	public void addClusteredQueueManager(MQClusterQueueManagerData cqmd)
+		throws IOException {
+		
+		this.records.add(cqmd);
+	}
+	
+	@Override
+	public void addClusteredQueue(MQClusterQueueData cqd)
+		throws IOException {
+		
+		this.records.add(cqd);
+	}
+	
+	/**
+	 * End the attempt, its records are passed to the sink if it succeeded and dropped if
+	 * it failed. The queue manager itself is ended by the record pipeline, once its outcome
+	 * is final
+	 *
+	 * @param inventoryEntry The inventory entry of the queue manager
+	 * @param success True if the attempt succeeded
+	 */
+	@Override
+	public void endQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success)
+		throws IOException {
+		
+		if (success) this.records.replay(this.sink);
+		else this.records.discard();
+	}
+	
+}
@@ -0,0 +1,153 @@
+package com.ibm.xmq.cluster;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQQueueManagerRecords Class
+ *
+ * Records of one queue manager, held until the queue manager ends. The first
+ * records are kept in memory, the others are spilled to a temporary file.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQQueueManagerRecords {
+	
+	/**
+	 * Records kept in memory before spilling to a temporary file
+	 */
+	public static final int MEMORY_RECORDS = 1000;
+	
+	private MQQueueManagerInventoryData inventoryEntry;
+	private List<Object> records;
+	private File spillFile;
+	private ObjectOutputStream spillStream;
+	private int spilledCount;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param inventoryEntry The inventory entry of the queue manager
+	 */
+	public MQQueueManagerRecords(MQQueueManagerInventoryData inventoryEntry) {
+		
+		this.inventoryEntry = inventoryEntry;
+		this.records = new ArrayList<Object>();
+	}
+	
+	/**
+	 * Hold a queue manager, cluster queue manager or cluster queue record
+	 *
+	 * @param record A record
+	 */
+	public void add(Object record)
+		throws IOException {
+		
+		if (this.records.size() < MEMORY_RECORDS) {
+			this.records.add(record);
+			return;
+		}
+		
+		if (this.spillStream == null) {
+			this.spillFile = File.createTempFile("xmqcocls-", ".records");
+			this.spillStream = new ObjectOutputStream(new BufferedOutputStream(new FileOutputStream(this.spillFile)));
+		}
+		
+		// Reset after each record so that the stream does not keep a reference to every record written
+		this.spillStream.writeObject(record);
+		this.spillStream.reset();
+		this.spilledCount++;
+	}
+	
+	/**
+	 * Pass the records to a sink in the order they were added, then release them
+	 *
+	 * @param sink The sink receiving the records
+	 */
+	public void replay(MQRecordSink sink)
+		throws IOException {
+		
+		try {
+			for (Object record : this.records) pass(record, sink);
+			
+			if (this.spillStream != null) {
+				this.spillStream.close();
+				this.spillStream = null;
+				
+				ObjectInputStream spilledRecords = new ObjectInputStream(new BufferedInputStream(new FileInputStream(this.spillFile)));
+				try {
+					for (int i = 0; i < this.spilledCount; i++) pass(spilledRecords.readObject(), sink);
+				} catch (ClassNotFoundException cnfe) {
+					throw new IOException("Cannot read the records spilled to file " + this.spillFile, cnfe);
+				} finally {
+					spilledRecords.close();
+				}
+			} // end if
+		} finally {
+			discard();
+		}
+	}
+	
+	/**
+	 * Drop the records and delete the temporary file
+	 *
+	 */
+	public void discard() {
+		
+		this.records.clear();
+		
+		if (this.spillStream != null) {
+			try {
+				this.spillStream.close();
+			} catch (IOException ioe) {
+				// ignore, the file is deleted
+			}
+			this.spillStream = null;
+		}
+		
+		if (this.spillFile != null) {
+			this.spillFile.delete();
+			this.spillFile = null;
+		}
+		
+		this.spilledCount = 0;
+	}
+	
+	private void pass(Object record, MQRecordSink sink)
+		throws IOException {
+		
+		if (record instanceof MQQueueManagerData) sink.addQueueManager((MQQueueManagerData) record);
+		else if (record instanceof MQClusterQueueManagerData) sink.addClusteredQueueManager((MQClusterQueueManagerData) record);
+		else if (record instanceof MQClusterQueueData) sink.addClusteredQueue((MQClusterQueueData) record);
+	}
+	
+	public MQQueueManagerInventoryData getInventoryEntry() {
+		return inventoryEntry;
+	}
+	
+}
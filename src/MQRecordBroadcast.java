@@ -0,0 +1,73 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQRecordBroadcast Class
+ *
+ * Pass each record to several sinks, in order, on the calling thread
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQRecordBroadcast implements MQRecordSink {
+	
+	private List<MQRecordSink> sinks;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param sinks The sinks receiving every record
+	 */
+	public MQRecordBroadcast(List<MQRecordSink> sinks) {
+		
+		this.sinks = new ArrayList<MQRecordSink>(sinks);
+	}
+	
+	@Override
+	public void addQueueManager(MQQueueManagerData qmd)
+		throws IOException {
+		
+		for (MQRecordSink sink : this.sinks) sink.addQueueManager(qmd);
+	}
+	
+	@Override
+	public void addClusteredQueueManager(MQClusterQueueManagerData cqmd)
+		throws IOException {
+		
+		for (MQRecordSink sink : this.sinks) sink.addClusteredQueueManager(cqmd);
+	}
+	
+	@Override
+	public void addClusteredQueue(MQClusterQueueData cqd)
+		throws IOException {
+		
+		for (MQRecordSink sink : this.sinks) sink.addClusteredQueue(cqd);
+	}
+	
+	@Override
+	public void endQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success)
+		throws IOException {
+		
+		for (MQRecordSink sink : this.sinks) sink.endQueueManager(inventoryEntry, success);
+	}
+	
+}
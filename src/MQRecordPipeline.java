@@ -0,0 +1,311 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQRecordPipeline Class
+ *
+ * Pass the records published by the collectors to a set of sinks through
+ * a bounded queue, collectors wait when the queue is full. The records of
+ * each queue manager are held on a single consumer thread until the end of
+ * the queue manager, then passed to the sinks together if it succeeded, or
+ * dropped if it failed. The records of an attempt that is retried are
+ * dropped as well, before the records of the next attempt.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQRecordPipeline {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQRecordPipeline.class);
+	
+	private static final Object END_OF_RECORDS = new Object();
+	
+	private BlockingQueue<Object> records;
+	private MQRecordSink sinks;
+	private Map<MQQueueManagerInventoryData, MQQueueManagerRecords> pendingRecords;
+	private Thread consumer;
+	private volatile Exception sinkException;
+	private boolean closed;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param capacity Maximum number of records waiting for the sinks
+	 * @param sinks The sinks receiving the records of the queue managers that succeeded, in order
+	 */
+	public MQRecordPipeline(int capacity, List<MQRecordSink> sinks) {
+		
+		log.trace("[{}] Entry {}.constructor, capacity={}, sinks={}", Thread.currentThread().getId(), this.getClass().getName(), capacity, sinks);
+		
+		this.records = new ArrayBlockingQueue<Object>(capacity);
+		this.sinks = new MQRecordBroadcast(sinks);
+		this.pendingRecords = new HashMap<MQQueueManagerInventoryData, MQQueueManagerRecords>();
+		
+		this.consumer = new Thread(new Runnable() {
+			@Override
+			public void run() {
+				consume();
+			}
+		}, "MQRecordPipeline");
+		this.consumer.setDaemon(true);
+		this.consumer.start();
+		
+		log.trace("[{}] Exit {}.constructor", Thread.currentThread().getId(), this.getClass().getName());
+	}
+	
+	/**
+	 * Get a sink publishing the records of a queue manager, they are held until the end
+	 * of the queue manager
+	 * 
+	 * @param inventoryEntry The inventory entry of the queue manager
+	 * @return sink The sink to pass to the collector of the queue manager
+	 */
+	public MQRecordSink forQueueManager(final MQQueueManagerInventoryData inventoryEntry) {
+		
+		return new MQRecordSink() {
+			@Override
+			public void addQueueManager(MQQueueManagerData qmd)
+				throws IOException {
+				
+				publish(new QueueManagerRecord(inventoryEntry, qmd));
+			}
+			
+			@Override
+			public void addClusteredQueueManager(MQClusterQueueManagerData cqmd)
+				throws IOException {
+				
+				publish(new QueueManagerRecord(inventoryEntry, cqmd));
+			}
+			
+			@Override
+			public void addClusteredQueue(MQClusterQueueData cqd)
+				throws IOException {
+				
+				publish(new QueueManagerRecord(inventoryEntry, cqd));
+			}
+			
+			@Override
+			public void endQueueManager(MQQueueManagerInventoryData entry, boolean success)
+				throws IOException {
+				
+				MQRecordPipeline.this.endQueueManager(entry, success);
+			}
+		};
+	}
+	
+	/**
+	 * End a queue manager once its outcome is final, its records are passed to the sinks 
+	 * if it succeeded and dropped if it failed
+	 * 
+	 * @param inventoryEntry The inventory entry of the queue manager
+	 * @param success True if the queue manager was collected successfully
+	 */
+	public void endQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success)
+		throws IOException {
+		
+		publish(new EndOfQueueManager(inventoryEntry, success));
+	}
+	
+	/**
+	 * Drop the records of a failed attempt of a queue manager that is collected again, 
+	 * the queue manager is not ended
+	 * 
+	 * @param inventoryEntry The inventory entry of the queue manager
+	 */
+	public void discardQueueManager(MQQueueManagerInventoryData inventoryEntry)
+		throws IOException {
+		
+		publish(new DiscardOfQueueManager(inventoryEntry));
+	}
+	
+	/**
+	 * Wait until all the published records have been passed to the sinks
+	 * 
+	 */
+	public void close()
+		throws IOException {
+		
+		log.trace("[{}] Entry {}.close", Thread.currentThread().getId(), this.getClass().getName());
+		
+		if (!this.closed) {
+			this.closed = true;
+			
+			try {
+				this.records.put(END_OF_RECORDS);
+				this.consumer.join();
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new InterruptedIOException("Interrupted while waiting for the records to be processed");
+			}
+		}
+		
+		checkSinkException();
+		
+		log.trace("[{}] Exit {}.close", Thread.currentThread().getId(), this.getClass().getName());
+	}
+	
+	/**
+	 * Queue a record for the sinks, waiting while the queue is full
+	 * 
+	 * @param record A record
+	 */
+	private void publish(Object record)
+		throws IOException {
+		
+		checkSinkException();
+		
+		if (this.closed) throw new IllegalStateException("Record pipeline is closed!");
+		
+		try {
+			this.records.put(record);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			throw new InterruptedIOException("Interrupted while waiting to publish a record");
+		}
+	}
+	
+	/**
+	 * Hold the queued records per queue manager until the end of the records, and pass 
+	 * them to the sinks at the end of each queue manager
+	 * 
+	 */
+	private void consume() {
+		
+		Object record;
+		
+		try {
+			while ((record = this.records.take()) != END_OF_RECORDS) {
+				try {
+					if (record instanceof QueueManagerRecord) hold((QueueManagerRecord) record);
+					else if (record instanceof EndOfQueueManager) end((EndOfQueueManager) record);
+					else if (record instanceof DiscardOfQueueManager) discard((DiscardOfQueueManager) record);
+				} catch (Exception e) {
+					this.sinkException = e;
+				}
+			} // end while
+		} catch (InterruptedException ie) {
+			// exit
+		} finally {
+			// Records of queue managers never ended are dropped
+			for (MQQueueManagerRecords pending : this.pendingRecords.values()) pending.discard();
+			this.pendingRecords.clear();
+		}
+	}
+	
+	private void hold(QueueManagerRecord record)
+		throws IOException {
+		
+		// Keep draining after a failure so that the collectors never wait forever
+		if (this.sinkException != null) return;
+		
+		MQQueueManagerRecords pending = this.pendingRecords.get(record.inventoryEntry);
+		if (pending == null) {
+			pending = new MQQueueManagerRecords(record.inventoryEntry);
+			this.pendingRecords.put(record.inventoryEntry, pending);
+		}
+		
+		pending.add(record.record);
+	}
+	
+	private void end(EndOfQueueManager end)
+		throws IOException {
+		
+		MQQueueManagerRecords pending = this.pendingRecords.remove(end.inventoryEntry);
+		
+		if (pending != null) {
+			if (end.success && this.sinkException == null) pending.replay(this.sinks);
+			else pending.discard();
+		}
+		
+		if (this.sinkException == null) this.sinks.endQueueManager(end.inventoryEntry, end.success);
+	}
+	
+	private void discard(DiscardOfQueueManager discard) {
+		
+		MQQueueManagerRecords pending = this.pendingRecords.remove(discard.inventoryEntry);
+		
+		if (pending != null) pending.discard();
+	}
+	
+	private void checkSinkException()
+		throws IOException {
+		
+		Exception e = this.sinkException;
+		
+		if (e instanceof IOException) throw (IOException) e;
+		else if (e != null) throw new IOException(e.getClass().getSimpleName() + " - " + e.getLocalizedMessage(), e);
+	}
+	
+	/**
+	 * Record of a queue manager, with the inventory entry it is held under
+	 *
+	 */
+	private static class QueueManagerRecord {
+		
+		private MQQueueManagerInventoryData inventoryEntry;
+		private Object record;
+		
+		public QueueManagerRecord(MQQueueManagerInventoryData inventoryEntry, Object record) {
+			
+			this.inventoryEntry = inventoryEntry;
+			this.record = record;
+		}
+	}
+	
+	/**
+	 * End of the records of a queue manager, queued after them
+	 *
+	 */
+	private static class EndOfQueueManager {
+		
+		private MQQueueManagerInventoryData inventoryEntry;
+		private boolean success;
+		
+		public EndOfQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success) {
+			
+			this.inventoryEntry = inventoryEntry;
+			this.success = success;
+		}
+	}
+	
+	/**
+	 * Drop of the records of a failed attempt, queued after them
+	 *
+	 */
+	private static class DiscardOfQueueManager {
+		
+		private MQQueueManagerInventoryData inventoryEntry;
+		
+		public DiscardOfQueueManager(MQQueueManagerInventoryData inventoryEntry) {
+			
+			this.inventoryEntry = inventoryEntry;
+		}
+	}
+	
+}
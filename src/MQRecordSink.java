@@ -0,0 +1,49 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQRecordSink Interface
+ *
+ * Receive the records collected for queue managers, such as a CSV writer,
+ * a graph builder or a pipeline feeding other sinks
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public interface MQRecordSink {
+	
+	public void addQueueManager(MQQueueManagerData qmd)
+		throws IOException;
+	
+	public void addClusteredQueueManager(MQClusterQueueManagerData cqmd)
+		throws IOException;
+	
+	public void addClusteredQueue(MQClusterQueueData cqd)
+		throws IOException;
+	
+	/**
+	 * All the records of a queue manager have been added
+	 * 
+	 * @param inventoryEntry The inventory entry of the queue manager
+	 * @param success True if the data of the queue manager was collected
+	 */
+	public void endQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success)
+		throws IOException;
+	
+}
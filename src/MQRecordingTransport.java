@@ -0,0 +1,177 @@
+package com.ibm.xmq.cluster;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQMessage;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQRecordingTransport Class
+ *
+ * Record the PCF conversation of another transport with a queue manager into 
+ * an archive file per queue manager, with the time taken by each step. Each 
+ * connection rewrites the archive, a retried queue manager keeps its last attempt
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQRecordingTransport implements MQTransport {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQRecordingTransport.class);
+	
+	private static final byte[] NO_DATA = new byte[0];
+	
+	private MQTransport transport;
+	private File archiveDir;
+	private DataOutputStream archive;
+	private long lastEventTime;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param transport The transport to record
+	 * @param archiveDir Directory of the archive files
+	 */
+	public MQRecordingTransport(MQTransport transport, File archiveDir) {
+		
+		this.transport = transport;
+		this.archiveDir = archiveDir;
+	}
+	
+	@Override
+	public void connect(MQAgent mqAgent) 
+		throws MQException {
+		
+		File archiveFile = MQPCFArchive.getArchiveFile(this.archiveDir, mqAgent.getQmName());
+		
+		log.trace("[{}] Entry {}.connect, archiveFile={}", Thread.currentThread().getId(), this.getClass().getName(), archiveFile);
+		
+		try {
+			this.archive = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(archiveFile)));
+			MQPCFArchive.writeHeader(this.archive);
+		} catch (IOException ioe) {
+			System.err.println("IOException - " + ioe.getLocalizedMessage() + " while creating archive file '" + archiveFile + "'");
+			this.archive = null;
+		}
+		
+		this.lastEventTime = System.nanoTime();
+		
+		try {
+			this.transport.connect(mqAgent);
+		} catch (MQException mqe) {
+			record(MQPCFArchive.ERROR, NO_DATA, mqe.getCompCode(), mqe.getReason(), NO_DATA);
+			closeArchive();
+			throw mqe;
+		}
+		
+		// The platform is kept in place of the encoding of the connect event
+		record(MQPCFArchive.CONNECT, NO_DATA, this.transport.getPlatform(), 0, NO_DATA);
+		
+		log.trace("[{}]  Exit {}.connect", Thread.currentThread().getId(), this.getClass().getName());
+	}
+	
+	@Override
+	public int getPlatform() {
+		return this.transport.getPlatform();
+	}
+	
+	@Override
+	public void putRequest(MQMessage requestMessage) 
+		throws MQException, IOException {
+		
+		byte[] data = MQPCFArchive.Entry.readData(requestMessage);
+		
+		try {
+			this.transport.putRequest(requestMessage);
+		} catch (MQException mqe) {
+			record(MQPCFArchive.ERROR, NO_DATA, mqe.getCompCode(), mqe.getReason(), NO_DATA);
+			throw mqe;
+		}
+		
+		record(MQPCFArchive.REQUEST, requestMessage.messageId, requestMessage.encoding, requestMessage.characterSet, data);
+	}
+	
+	@Override
+	public MQMessage getReply(int waitInterval) 
+		throws MQException, IOException {
+		
+		MQMessage responseMessage;
+		
+		try {
+			responseMessage = this.transport.getReply(waitInterval);
+		} catch (MQException mqe) {
+			record(MQPCFArchive.ERROR, NO_DATA, mqe.getCompCode(), mqe.getReason(), NO_DATA);
+			throw mqe;
+		}
+		
+		record(MQPCFArchive.REPLY, responseMessage.correlationId, responseMessage.encoding, responseMessage.characterSet, MQPCFArchive.Entry.readData(responseMessage));
+		
+		return responseMessage;
+	}
+	
+	@Override
+	public void disconnect() 
+		throws MQException {
+		
+		try {
+			this.transport.disconnect();
+		} finally {
+			closeArchive();
+		}
+	}
+	
+	/**
+	 * Add an event to the archive, a failure to write the archive does not fail the collection
+	 * 
+	 */
+	private void record(int type, byte[] id, int encoding, int ccsid, byte[] data) {
+		
+		long now = System.nanoTime();
+		
+		if (this.archive != null) {
+			try {
+				new MQPCFArchive.Entry(type, now - this.lastEventTime, id, encoding, ccsid, data).write(this.archive);
+			} catch (IOException ioe) {
+				System.err.println("IOException - " + ioe.getLocalizedMessage() + " while recording, the archive is incomplete");
+				closeArchive();
+			}
+		}
+		
+		this.lastEventTime = now;
+	}
+	
+	private void closeArchive() {
+		
+		try {
+			if (this.archive != null) this.archive.close();
+		} catch (IOException ioe) {
+			System.err.println("IOException - " + ioe.getLocalizedMessage() + " while closing archive");
+		}
+		
+		this.archive = null;
+	}
+	
+}
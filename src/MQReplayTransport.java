@@ -0,0 +1,172 @@
+package com.ibm.xmq.cluster;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQMessage;
+import com.ibm.mq.constants.CMQC;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQReplayTransport Class
+ *
+ * Replay the PCF conversation recorded with a queue manager, no MQ server is 
+ * needed. The requests must come in the recorded order, which is the case 
+ * when the collector runs with the same options as when it was recorded. Each 
+ * response is returned once its recorded delay, scaled, has elapsed since the 
+ * previous event.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQReplayTransport implements MQTransport {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQReplayTransport.class);
+	
+	private File archiveDir;
+	private double latencyScale;
+	private Deque<MQPCFArchive.Entry> entries;
+	private long lastEventTime;
+	private int platform;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param archiveDir Directory of the archive files
+	 * @param latencyScale Factor applied to the recorded delays, 0 to replay without delay
+	 */
+	public MQReplayTransport(File archiveDir, double latencyScale) {
+		
+		this.archiveDir = archiveDir;
+		this.latencyScale = latencyScale;
+	}
+	
+	@Override
+	public void connect(MQAgent mqAgent) 
+		throws MQException {
+		
+		File archiveFile = MQPCFArchive.getArchiveFile(this.archiveDir, mqAgent.getQmName());
+		MQPCFArchive.Entry entry;
+		
+		log.trace("[{}] Entry {}.connect, archiveFile={}", Thread.currentThread().getId(), this.getClass().getName(), archiveFile);
+		
+		this.entries = new ArrayDeque<MQPCFArchive.Entry>();
+		this.lastEventTime = System.nanoTime();
+		
+		try {
+			DataInputStream archive = new DataInputStream(new BufferedInputStream(new FileInputStream(archiveFile)));
+			try {
+				MQPCFArchive.readHeader(archive, archiveFile);
+				while ((entry = MQPCFArchive.readEntry(archive)) != null) this.entries.add(entry);
+			} finally {
+				archive.close();
+			}
+		} catch (IOException ioe) {
+			System.err.println("IOException - " + ioe.getLocalizedMessage() + " while reading archive file '" + archiveFile + "'");
+			throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_Q_MGR_NOT_AVAILABLE, this);
+		}
+		
+		// Archives recorded before the platform was kept have 0, which is not z/OS
+		this.platform = next(MQPCFArchive.CONNECT).getEncoding();
+		
+		log.trace("[{}]  Exit {}.connect, entries={}", Thread.currentThread().getId(), this.getClass().getName(), this.entries.size());
+	}
+	
+	@Override
+	public int getPlatform() {
+		return platform;
+	}
+	
+	@Override
+	public void putRequest(MQMessage requestMessage) 
+		throws MQException, IOException {
+		
+		requestMessage.messageId = next(MQPCFArchive.REQUEST).getId();
+	}
+	
+	@Override
+	public MQMessage getReply(int waitInterval) 
+		throws MQException, IOException {
+		
+		MQPCFArchive.Entry entry = next(MQPCFArchive.REPLY);
+		
+		MQMessage responseMessage = new MQMessage();
+		responseMessage.messageType = CMQC.MQMT_REPLY;
+		responseMessage.format = CMQC.MQFMT_ADMIN;
+		responseMessage.correlationId = entry.getId();
+		responseMessage.encoding = entry.getEncoding();
+		responseMessage.characterSet = entry.getCcsid();
+		responseMessage.write(entry.getData());
+		responseMessage.seek(0);
+		
+		return responseMessage;
+	}
+	
+	@Override
+	public void disconnect() 
+		throws MQException {
+		
+		this.entries = null;
+	}
+	
+	/**
+	 * Take the next event of the archive once its delay has elapsed, recorded MQ errors are thrown 
+	 * 
+	 * @param type Expected event type
+	 * @return entry The event
+	 */
+	private MQPCFArchive.Entry next(int type) 
+		throws MQException {
+		
+		if (this.entries == null) throw new IllegalStateException("Not connected to a queue manager!");
+		
+		MQPCFArchive.Entry entry = this.entries.poll();
+		
+		// The collector no longer follows the recorded conversation
+		if (entry == null) throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_NO_MSG_AVAILABLE, this);
+		
+		long dueTime = this.lastEventTime + (long) (entry.getDelay() * this.latencyScale);
+		long wait;
+		
+		while ((wait = dueTime - System.nanoTime()) > 0) {
+			try {
+				Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_CONNECTION_BROKEN, this);
+			}
+		} // end while
+		
+		this.lastEventTime = System.nanoTime();
+		
+		if (entry.getType() == MQPCFArchive.ERROR) throw new MQException(entry.getEncoding(), entry.getCcsid(), this);
+		if (entry.getType() != type) throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_NO_MSG_AVAILABLE, this);
+		
+		return entry;
+	}
+	
+}
@@ -0,0 +1,219 @@
+package com.ibm.xmq.cluster;
+
+import java.util.Random;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+import com.ibm.mq.constants.CMQC;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQRetryScheduler Class
+ *
+ * Collect again the queue managers that failed with a transient reason code,
+ * such as 2009, 2059 or 2538, while the sweep goes on. A failed task waits in
+ * a delay queue, then a dispatcher thread submits it to the collector threads
+ * and it completes like any other task. The delay doubles at each attempt, up
+ * to a maximum, and is drawn between half and all of it so the queue managers
+ * that failed together are not tried again together.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQRetryScheduler {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQRetryScheduler.class);
+	
+	public static final int DEFAULT_MAX_RETRIES = 3;
+	
+	// Delay before the first retry, and the most a retry can be delayed (milliseconds)
+	public static final long DEFAULT_BASE_DELAY = 2000;
+	private static final long MAX_DELAY = 60000;
+	
+	// Reason codes of failures expected to go away: queue manager or network busy, restarting or briefly unreachable
+	private static final int[] TRANSIENT_REASON_CODES = {
+			CMQC.MQRC_CONNECTION_BROKEN,
+			CMQC.MQRC_MAX_CONNS_LIMIT_REACHED,
+			CMQC.MQRC_NO_MSG_AVAILABLE,
+			CMQC.MQRC_Q_MGR_NOT_AVAILABLE,
+			CMQC.MQRC_STORAGE_NOT_AVAILABLE,
+			CMQC.MQRC_RESOURCE_PROBLEM,
+			CMQC.MQRC_Q_MGR_QUIESCING,
+			CMQC.MQRC_Q_MGR_STOPPING,
+			CMQC.MQRC_CONNECTION_QUIESCING,
+			CMQC.MQRC_CONNECTION_STOPPING,
+			CMQC.MQRC_Q_MGR_NOT_ACTIVE,
+			CMQC.MQRC_CHANNEL_NOT_AVAILABLE,
+			CMQC.MQRC_HOST_NOT_AVAILABLE };
+	
+	private CompletionService<MQCollectionTask> completedTasks;
+	private int maxRetries;
+	private long baseDelay;
+	private DelayQueue<DelayedTask> delayedTasks;
+	private Random random;
+	private Thread dispatcher;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param completedTasks The completion service of the collector threads, the tasks are submitted to
+	 * @param maxRetries Maximum number of retries of a queue manager, 0 for none
+	 * @param baseDelay Delay before the first retry (milliseconds)
+	 */
+	public MQRetryScheduler(CompletionService<MQCollectionTask> completedTasks, int maxRetries, long baseDelay) {
+		
+		this.completedTasks = completedTasks;
+		this.maxRetries = maxRetries;
+		this.baseDelay = baseDelay;
+		this.delayedTasks = new DelayQueue<DelayedTask>();
+		this.random = new Random();
+	}
+	
+	/**
+	 * Check if a reason code reports a failure that may go away if the queue manager is tried again later
+	 * 
+	 * @param reasonCode MQ reason code
+	 * @return transient True if the failure is transient, false if it is permanent
+	 */
+	public static boolean isTransient(int reasonCode) {
+		
+		for (int transientReasonCode : TRANSIENT_REASON_CODES) if (reasonCode == transientReasonCode) return true;
+		
+		return false;
+	}
+	
+	/**
+	 * Schedule a failed task to run again, if its failure is transient and it has retries left
+	 * 
+	 * @param task A completed collection task that failed
+	 * @return scheduled True if the task runs again later, false if its failure is final
+	 */
+	public synchronized boolean schedule(MQCollectionTask task) {
+		
+		if (task.getAttempts() > this.maxRetries || task.getDataCollector() == null || !task.getDataCollector().isRetryable()) return false;
+		
+		long delay = getDelay(task.getAttempts());
+		
+		log.trace("[{}] {}.schedule, entry={}, attempts={}, reasonCode={}, delay={}", Thread.currentThread().getId(), this.getClass().getName(), 
+				task.getInventoryEntry(), task.getAttempts(), task.getDataCollector().getReasonCode(), delay);
+		
+		this.delayedTasks.put(new DelayedTask(task, System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(delay)));
+		
+		if (this.dispatcher == null) {
+			this.dispatcher = new Thread(new Runnable() {
+				@Override
+				public void run() {
+					dispatch();
+				}
+			}, "xmq-retry-dispatcher");
+			this.dispatcher.setDaemon(true);
+			this.dispatcher.start();
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Get the delay before the next attempt, with the jitter
+	 * 
+	 * @param attempts Number of attempts already made
+	 * @return delay Delay (milliseconds)
+	 */
+	private long getDelay(int attempts) {
+		
+		long delay = Math.min(this.baseDelay << Math.min(attempts - 1, 20), MAX_DELAY);
+		
+		return delay / 2 + (long) (this.random.nextDouble() * (delay - delay / 2));
+	}
+	
+	/**
+	 * Submit the tasks to the collector threads as their delay expires
+	 * 
+	 */
+	private void dispatch() {
+		
+		try {
+			while (!Thread.currentThread().isInterrupted()) {
+				DelayedTask delayedTask = this.delayedTasks.take();
+				this.completedTasks.submit(delayedTask.task);
+			} // end while
+		} catch (InterruptedException ie) {
+			// closed
+		}
+	}
+	
+	/**
+	 * Get the number of tasks waiting for their delay to expire
+	 * 
+	 * @return count Number of tasks waiting
+	 */
+	public int getWaitingCount() {
+		return this.delayedTasks.size();
+	}
+	
+	public int getMaxRetries() {
+		return maxRetries;
+	}
+	
+	/**
+	 * Stop the dispatcher thread, the tasks still waiting are dropped
+	 * 
+	 */
+	public synchronized void close() {
+		
+		if (this.dispatcher != null) this.dispatcher.interrupt();
+		this.delayedTasks.clear();
+	}
+	
+	/**
+	 * Task waiting in the delay queue
+	 *
+	 */
+	private static class DelayedTask implements Delayed {
+		
+		private MQCollectionTask task;
+		private long dueTime;
+		
+		public DelayedTask(MQCollectionTask task, long dueTime) {
+			
+			this.task = task;
+			this.dueTime = dueTime;
+		}
+
+		@Override
+		public long getDelay(TimeUnit unit) {
+			return unit.convert(this.dueTime - System.nanoTime(), TimeUnit.NANOSECONDS);
+		}
+
+		@Override
+		public int compareTo(Delayed other) {
+			return Long.compare(getDelay(TimeUnit.NANOSECONDS), other.getDelay(TimeUnit.NANOSECONDS));
+		}
+	}
+	
+	@Override
+	public String toString() {
+		return "MQRetryScheduler [maxRetries=" + maxRetries + ", baseDelay=" + baseDelay + ", waiting=" + delayedTasks.size() + "]";
+	}
+	
+}
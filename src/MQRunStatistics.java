@@ -0,0 +1,335 @@
+package com.ibm.xmq.cluster;
+
+import java.io.FileNotFoundException;
+import java.io.PrintWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQRunStatistics Class
+ *
+ * Latencies of a collection run: a histogram per phase, recorded by the agents,
+ * collectors, CSV writer and graph builder from any thread, and the collection
+ * time of each queue manager. The run report is written as JSON, with p50/p99/max
+ * per phase, per tag and per host, and the slowest queue managers.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQRunStatistics {
+
+	// Phases, in report order
+	public static final String CONNECTION_PERMIT_WAIT = "connectionPermitWait";
+	public static final String CONNECT = "connect";
+	public static final String PCF_COMMAND = "pcfCommand";
+	public static final String PCF_REPLY_WAIT = "pcfReplyWait";
+	public static final String DECODE = "decode";
+	public static final String COLLECT = "collect";
+	public static final String CSV_WRITE = "csvWrite";
+	public static final String GRAPH_ADD_QUEUE_MANAGER = "graphAddQueueManager";
+	public static final String GRAPH_ADD_CLUSTERED_QUEUE_MANAGER = "graphAddClusteredQueueManager";
+	public static final String GRAPH_ADD_CLUSTERED_QUEUE = "graphAddClusteredQueue";
+	public static final String GRAPH_WRITE_GRAPHML = "graphWriteGraphML";
+	public static final String GRAPH_WRITE_JSON = "graphWriteJSON";
+
+	private static final String[] PHASES = { CONNECTION_PERMIT_WAIT, CONNECT, PCF_COMMAND, PCF_REPLY_WAIT, DECODE, COLLECT, CSV_WRITE,
+			GRAPH_ADD_QUEUE_MANAGER, GRAPH_ADD_CLUSTERED_QUEUE_MANAGER, GRAPH_ADD_CLUSTERED_QUEUE, GRAPH_WRITE_GRAPHML, GRAPH_WRITE_JSON };
+
+	// Number of queue managers listed as the slowest in the report
+	private static final int SLOWEST_QUEUE_MANAGERS = 20;
+
+	private Map<String, MQLatencyHistogram> phases;
+	private List<QueueManagerTiming> queueManagers;
+	private int retries;
+	private Instant startTime;
+
+
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQRunStatistics() {
+
+		// Every phase is created up front, the map is only read afterwards and can be shared by all threads
+		this.phases = new LinkedHashMap<String, MQLatencyHistogram>();
+		for (String phase : PHASES) this.phases.put(phase, new MQLatencyHistogram());
+
+		this.queueManagers = new ArrayList<QueueManagerTiming>();
+		this.startTime = Instant.now();
+	}
+
+	/**
+	 * Record the latency of a phase
+	 *
+	 * @param phase One of the phase constants
+	 * @param nanos Latency in nanoseconds
+	 */
+	public void record(String phase, long nanos) {
+
+		MQLatencyHistogram histogram = this.phases.get(phase);
+		if (histogram != null) histogram.record(nanos);
+	}
+
+	/**
+	 * Record the outcome of the collection of a queue manager
+	 *
+	 * @param inventoryEntry The inventory entry of the queue manager
+	 * @param success True if the data of the queue manager was collected
+	 * @param collectNanos Collection time, from connect to disconnect
+	 * @param connectNanos Connection time, successful or not
+	 */
+	public synchronized void addQueueManager(MQQueueManagerInventoryData inventoryEntry, boolean success, long collectNanos, long connectNanos) {
+
+		this.queueManagers.add(new QueueManagerTiming(inventoryEntry.getQmName(), inventoryEntry.getTag(), getHost(inventoryEntry.getConnNameList()),
+				success, collectNanos, connectNanos));
+	}
+
+	/**
+	 * Count a queue manager collected again after a transient failure
+	 * 
+	 */
+	public synchronized void addRetry() {
+		this.retries++;
+	}
+	
+	public MQLatencyHistogram getHistogram(String phase) {
+		return phases.get(phase);
+	}
+
+	/**
+	 * Write the run report
+	 *
+	 * @param fileName Report file name
+	 */
+	public synchronized void writeReport(String fileName)
+		throws FileNotFoundException {
+
+		Instant endTime = Instant.now();
+		int failed = 0;
+
+		for (QueueManagerTiming qm : this.queueManagers) if (!qm.success) failed++;
+
+		PrintWriter writer = new PrintWriter(fileName);
+
+		try {
+			writer.println("{");
+			writer.println("  \"start\": " + quote(this.startTime.toString()) + ",");
+			writer.println("  \"end\": " + quote(endTime.toString()) + ",");
+			writer.println("  \"elapsedMillis\": " + (endTime.toEpochMilli() - this.startTime.toEpochMilli()) + ",");
+			writer.println("  \"queueManagers\": { \"processed\": " + this.queueManagers.size() + ", \"succeeded\": " + (this.queueManagers.size() - failed) + ", \"failed\": " + failed + ", \"retries\": " + this.retries + " },");
+
+			// Phases, all of them so the report always has the same structure
+			writer.println("  \"phases\": {");
+			int i = 0;
+			for (Map.Entry<String, MQLatencyHistogram> phase : this.phases.entrySet()) {
+				MQLatencyHistogram h = phase.getValue();
+				writer.print("    " + quote(phase.getKey()) + ": { \"count\": " + h.getCount() + ", \"totalMillis\": " + millis(h.getTotal()) + ", \"meanMillis\": " + millis((long) h.getMean())
+						+ ", \"p50Millis\": " + millis(h.getValueAtPercentile(50)) + ", \"p99Millis\": " + millis(h.getValueAtPercentile(99)) + ", \"maxMillis\": " + millis(h.getMax()) + " }");
+				writer.println(++i < this.phases.size() ? "," : "");
+			} // end for
+			writer.println("  },");
+
+			writeGroups(writer, "tags", true);
+			writeGroups(writer, "hosts", false);
+
+			// Slowest queue managers
+			List<QueueManagerTiming> slowest = new ArrayList<QueueManagerTiming>(this.queueManagers);
+			Collections.sort(slowest, new Comparator<QueueManagerTiming>() {
+				@Override
+				public int compare(QueueManagerTiming qm1, QueueManagerTiming qm2) {
+					return Long.compare(qm2.collectNanos, qm1.collectNanos);
+				}
+			});
+			if (slowest.size() > SLOWEST_QUEUE_MANAGERS) slowest = slowest.subList(0, SLOWEST_QUEUE_MANAGERS);
+
+			writer.println("  \"slowestQueueManagers\": [");
+			i = 0;
+			for (QueueManagerTiming qm : slowest) {
+				writer.print("    { \"qmName\": " + quote(qm.qmName) + ", \"tag\": " + quote(qm.tag) + ", \"host\": " + quote(qm.host) + ", \"success\": " + qm.success
+						+ ", \"collectMillis\": " + millis(qm.collectNanos) + ", \"connectMillis\": " + millis(qm.connectNanos) + " }");
+				writer.println(++i < slowest.size() ? "," : "");
+			} // end for
+			writer.println("  ]");
+			writer.println("}");
+		} finally {
+			writer.close();
+		}
+	}
+
+	/**
+	 * Write the queue manager collection and connection times grouped by tag or by host, the
+	 * groups with the highest p99 collection time first. The percentiles are exact, each group
+	 * keeps the times of its queue managers.
+	 *
+	 */
+	private void writeGroups(PrintWriter writer, String name, boolean byTag) {
+
+		Map<String, List<QueueManagerTiming>> groups = new LinkedHashMap<String, List<QueueManagerTiming>>();
+
+		for (QueueManagerTiming qm : this.queueManagers) {
+			String key = byTag ? qm.tag : qm.host;
+			List<QueueManagerTiming> group = groups.get(key);
+			if (group == null) {
+				group = new ArrayList<QueueManagerTiming>();
+				groups.put(key, group);
+			}
+			group.add(qm);
+		} // end for
+
+		List<GroupTiming> timings = new ArrayList<GroupTiming>();
+		for (Map.Entry<String, List<QueueManagerTiming>> group : groups.entrySet()) timings.add(new GroupTiming(group.getKey(), group.getValue()));
+
+		Collections.sort(timings, new Comparator<GroupTiming>() {
+			@Override
+			public int compare(GroupTiming g1, GroupTiming g2) {
+				return Long.compare(g2.collect[percentileIndex(g2.collect.length, 99)], g1.collect[percentileIndex(g1.collect.length, 99)]);
+			}
+		});
+
+		writer.println("  " + quote(name) + ": {");
+		int i = 0;
+		for (GroupTiming group : timings) {
+			writer.print("    " + quote(group.key) + ": { \"queueManagers\": " + group.collect.length + ", \"failed\": " + group.failed
+					+ ", \"collect\": " + percentiles(group.collect) + ", \"connect\": " + percentiles(group.connect) + " }");
+			writer.println(++i < timings.size() ? "," : "");
+		} // end for
+		writer.println("  },");
+	}
+
+	/**
+	 * Get the host of the first connection name of a connection name list
+	 *
+	 */
+	private static String getHost(String connNameList) {
+
+		if (connNameList == null) return "";
+
+		String host = connNameList.trim();
+
+		int end = host.indexOf(',');
+		if (end >= 0) host = host.substring(0, end);
+		end = host.indexOf('(');
+		if (end >= 0) host = host.substring(0, end);
+
+		return host.trim();
+	}
+
+	private static int percentileIndex(int count, double percentile) {
+
+		int rank = (int) Math.ceil(percentile / 100.0 * count);
+		return Math.max(rank, 1) - 1;
+	}
+
+	private static String percentiles(long[] sortedNanos) {
+
+		return "{ \"p50Millis\": " + millis(sortedNanos[percentileIndex(sortedNanos.length, 50)]) + ", \"p99Millis\": " + millis(sortedNanos[percentileIndex(sortedNanos.length, 99)])
+				+ ", \"maxMillis\": " + millis(sortedNanos[sortedNanos.length - 1]) + " }";
+	}
+
+	/**
+	 * Format nanoseconds as milliseconds with 3 decimals
+	 *
+	 */
+	private static String millis(long nanos) {
+
+		long micros = nanos / 1000;
+		String fraction = "" + (1000 + micros % 1000);
+
+		return (micros / 1000) + "." + fraction.substring(1);
+	}
+
+	private static String quote(String value) {
+
+		if (value == null) return "null";
+
+		StringBuilder sb = new StringBuilder(value.length() + 2);
+		sb.append('"');
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+
+			if (c == '"' || c == '\\') sb.append('\\').append(c);
+			else if (c < 0x20) {
+				String hex = Integer.toHexString(0x10000 + c);
+				sb.append("\\u").append(hex.substring(1));
+			} else sb.append(c);
+		} // end for
+
+		return sb.append('"').toString();
+	}
+
+	/**
+	 * Collection times of a single queue manager
+	 *
+	 */
+	private static class QueueManagerTiming {
+
+		private String qmName;
+		private String tag;
+		private String host;
+		private boolean success;
+		private long collectNanos;
+		private long connectNanos;
+
+		public QueueManagerTiming(String qmName, String tag, String host, boolean success, long collectNanos, long connectNanos) {
+
+			this.qmName = qmName;
+			this.tag = tag;
+			this.host = host;
+			this.success = success;
+			this.collectNanos = collectNanos;
+			this.connectNanos = connectNanos;
+		}
+	}
+
+	/**
+	 * Sorted collection and connection times of a group of queue managers
+	 *
+	 */
+	private static class GroupTiming {
+
+		private String key;
+		private long[] collect;
+		private long[] connect;
+		private int failed;
+
+		public GroupTiming(String key, List<QueueManagerTiming> queueManagers) {
+
+			this.key = key;
+			this.collect = new long[queueManagers.size()];
+			this.connect = new long[queueManagers.size()];
+
+			for (int i = 0; i < queueManagers.size(); i++) {
+				QueueManagerTiming qm = queueManagers.get(i);
+				this.collect[i] = qm.collectNanos;
+				this.connect[i] = qm.connectNanos;
+				if (!qm.success) this.failed++;
+			} // end for
+
+			Arrays.sort(this.collect);
+			Arrays.sort(this.connect);
+		}
+	}
+
+}
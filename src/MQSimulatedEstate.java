@@ -0,0 +1,453 @@
+package com.ibm.xmq.cluster;
+
+import java.io.BufferedWriter;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.constants.CMQCFC;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQSimulatedEstate Class
+ *
+ * Synthetic MQ estate generated from a few parameters, answered by 
+ * MQSimulatedTransport. Every queue manager is a member of one cluster, the 
+ * first members of each cluster are its full repositories. Nothing is stored 
+ * per queue manager: each attribute is derived from the queue manager number 
+ * and the seed, so the estate is the same for every queue manager asked about 
+ * it and for every run with the same parameters.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQSimulatedEstate {
+	
+	private static final String QM_NAME_PREFIX = "SQM";
+	private static final String CLUSTER_NAME_PREFIX = "SCL";
+	private static final String QUEUE_NAME_PREFIX = "SIM.Q";
+	private static final String CHANNEL_NAME_PREFIX = "TO.";
+	private static final String SVRCONN_CHANNEL_NAME = "SIM.SVRCONN";
+	private static final String QM_ID_SUFFIX = "_2018-01-01_00.00.00";
+	private static final int LISTENER_PORT = 1414;
+	
+	private static final int[] COMMAND_LEVELS = { 750, 800, 910, 930 };
+	private static final String[] VERSIONS = { "07050000", "08000000", "09010000", "09030000" };
+	
+	// Queue managers a partial repository sends to, besides the full repositories, because it uses their queues
+	private static final int USED_QUEUE_MANAGERS = 3;
+	
+	// Every n-th cluster queue has a second instance on the next member of its cluster
+	private static final int SECOND_INSTANCE_INTERVAL = 4;
+	
+	// Salts of the values derived from the seed
+	private static final int COMMAND_LEVEL_SALT = 1;
+	private static final int CONNECT_FAILURE_SALT = 2;
+	private static final int USED_QUEUE_MANAGER_SALT = 3;
+	private static final int CHANNEL_STATUS_SALT = 4;
+	private static final int HOST_DOWN_SALT = 5;
+	private static final int PLATFORM_SALT = 6;
+	
+	private int clusters;
+	private int queueManagers;
+	private double fullRepositoryRatio;
+	private int clusterQueues;
+	private double runningRatio;
+	private double retryingRatio;
+	private double stoppedRatio;
+	private double latency;
+	private double connectLatency;
+	private double connectFailureRatio;
+	private double transientConnectFailureRatio;
+	private int queueManagersPerHost;
+	private double hostDownRatio;
+	private double connectTimeout;
+	private double commandFailureRatio;
+	private double zosRatio;
+	private long seed;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public MQSimulatedEstate() {
+		
+		this.clusters = 10;
+		this.queueManagers = 1000;
+		this.fullRepositoryRatio = 0.02;
+		this.clusterQueues = 1000;
+		this.runningRatio = 0.9;
+		this.retryingRatio = 0.05;
+		this.stoppedRatio = 0.02;
+		this.queueManagersPerHost = 1;
+		this.seed = 1;
+	}
+	
+	/**
+	 * Parse an estate specification, a list of name=value separated by ','
+	 * 
+	 *    clusters        Number of clusters (default 10)
+	 *    qmgrs           Number of queue managers (default 1000)
+	 *    fullrepos       Ratio of full repositories in each cluster, at least one (default 0.02)
+	 *    queues          Number of cluster queues (default 1000)
+	 *    running         Ratio of running cluster sender channels (default 0.9)
+	 *    retrying        Ratio of retrying cluster sender channels (default 0.05)
+	 *    stopped         Ratio of stopped cluster sender channels, the others are inactive (default 0.02)
+	 *    latency         Mean time taken by the command server to answer a request (milliseconds, default 0)
+	 *    connlatency     Mean time taken to connect (milliseconds, default 0)
+	 *    connfailures    Ratio of queue managers that cannot be connected to (default 0)
+	 *    conntransient   Ratio of connection attempts failing for a while, drawn again at each attempt (default 0)
+	 *    qmgrsperhost    Number of queue managers on each host, each one with its own listener port (default 1)
+	 *    hostsdown       Ratio of hosts that cannot be reached (default 0)
+	 *    conntimeout     Time taken by a connection to a host down to fail (milliseconds, default 0)
+	 *    cmdfailures     Ratio of requests failed by the command server (default 0)
+	 *    zos             Ratio of z/OS queue managers, which only take extended PCF requests (default 0)
+	 *    seed            Seed of the estate (default 1)
+	 * 
+	 * @param spec Estate specification
+	 * @return estate The estate, null if the specification is not valid
+	 */
+	public static MQSimulatedEstate parse(String spec) {
+		
+		MQSimulatedEstate estate = new MQSimulatedEstate();
+		
+		if (spec.isEmpty()) return estate;
+		
+		try {
+			for (String param : spec.split(",")) {
+				int p1 = param.indexOf('=');
+				if (p1 < 0) return null;
+				
+				String name = param.substring(0, p1).trim();
+				String value = param.substring(p1 + 1).trim();
+				
+				if (name.equals("clusters")) estate.clusters = Integer.parseInt(value);
+				else if (name.equals("qmgrs")) estate.queueManagers = Integer.parseInt(value);
+				else if (name.equals("fullrepos")) estate.fullRepositoryRatio = Double.parseDouble(value);
+				else if (name.equals("queues")) estate.clusterQueues = Integer.parseInt(value);
+				else if (name.equals("running")) estate.runningRatio = Double.parseDouble(value);
+				else if (name.equals("retrying")) estate.retryingRatio = Double.parseDouble(value);
+				else if (name.equals("stopped")) estate.stoppedRatio = Double.parseDouble(value);
+				else if (name.equals("latency")) estate.latency = Double.parseDouble(value);
+				else if (name.equals("connlatency")) estate.connectLatency = Double.parseDouble(value);
+				else if (name.equals("connfailures")) estate.connectFailureRatio = Double.parseDouble(value);
+				else if (name.equals("conntransient")) estate.transientConnectFailureRatio = Double.parseDouble(value);
+				else if (name.equals("qmgrsperhost")) estate.queueManagersPerHost = Integer.parseInt(value);
+				else if (name.equals("hostsdown")) estate.hostDownRatio = Double.parseDouble(value);
+				else if (name.equals("conntimeout")) estate.connectTimeout = Double.parseDouble(value);
+				else if (name.equals("cmdfailures")) estate.commandFailureRatio = Double.parseDouble(value);
+				else if (name.equals("zos")) estate.zosRatio = Double.parseDouble(value);
+				else if (name.equals("seed")) estate.seed = Long.parseLong(value);
+				else return null;
+			} // end for
+		} catch (NumberFormatException nfe) {
+			return null;
+		}
+		
+		if (estate.clusters < 1 || estate.queueManagers < estate.clusters || estate.clusterQueues < 0) return null;
+		if (estate.latency < 0 || estate.connectLatency < 0 || estate.connectTimeout < 0 || estate.queueManagersPerHost < 1) return null;
+		
+		return estate;
+	}
+	
+	/**
+	 * Write the inventory of the estate, tagged with the cluster name of each queue manager
+	 * 
+	 * @param fileName Inventory file name
+	 */
+	public void writeInventory(String fileName) 
+		throws IOException {
+		
+		BufferedWriter writer = new BufferedWriter(new FileWriter(fileName));
+		
+		try {
+			for (int qm = 0; qm < this.queueManagers; qm++) {
+				writer.write(getClusterName(getCluster(qm)) + ":" + getQmName(qm) + ":" + getConnectionName(qm) + ":" + SVRCONN_CHANNEL_NAME);
+				writer.newLine();
+			} // end for
+		} finally {
+			writer.close();
+		}
+	}
+	
+	public String getQmName(int qm) {
+		return pad(QM_NAME_PREFIX, qm, 6);
+	}
+	
+	/**
+	 * Get the number of a queue manager of the estate
+	 * 
+	 * @param qmName Queue manager name
+	 * @return qm The queue manager number, -1 if the queue manager is not part of the estate
+	 */
+	public int getQueueManager(String qmName) {
+		
+		if (!qmName.startsWith(QM_NAME_PREFIX)) return -1;
+		
+		try {
+			int qm = Integer.parseInt(qmName.substring(QM_NAME_PREFIX.length()));
+			if (qm >= 0 && qm < this.queueManagers && qmName.equals(getQmName(qm))) return qm;
+		} catch (NumberFormatException nfe) {
+			// not a simulated queue manager
+		}
+		
+		return -1;
+	}
+	
+	public String getQmId(int qm) {
+		return getQmName(qm) + QM_ID_SUFFIX;
+	}
+	
+	public String getConnectionName(int qm) {
+		return "simhost" + (qm / this.queueManagersPerHost) + "(" + (LISTENER_PORT + qm % this.queueManagersPerHost) + ")";
+	}
+	
+	public boolean isHostDown(int qm) {
+		return random(qm / this.queueManagersPerHost, HOST_DOWN_SALT, 0) < this.hostDownRatio;
+	}
+	
+	public int getPlatform(int qm) {
+		return random(qm, PLATFORM_SALT, 0) < this.zosRatio ? CMQC.MQPL_ZOS : CMQC.MQPL_UNIX;
+	}
+	
+	public String getChannelName(int qm) {
+		return CHANNEL_NAME_PREFIX + getQmName(qm);
+	}
+	
+	public int getCommandLevel(int qm) {
+		return COMMAND_LEVELS[(int) (random(qm, COMMAND_LEVEL_SALT, 0) * COMMAND_LEVELS.length)];
+	}
+	
+	public String getVersion(int qm) {
+		return VERSIONS[(int) (random(qm, COMMAND_LEVEL_SALT, 0) * VERSIONS.length)];
+	}
+	
+	public boolean isConnectFailure(int qm) {
+		return random(qm, CONNECT_FAILURE_SALT, 0) < this.connectFailureRatio;
+	}
+	
+	/**
+	 * Check if a connection attempt fails for a while, unlike the other values it is
+	 * not derived from the seed and changes at each attempt
+	 * 
+	 */
+	public boolean isTransientConnectFailure() {
+		return this.transientConnectFailureRatio > 0 && ThreadLocalRandom.current().nextDouble() < this.transientConnectFailureRatio;
+	}
+	
+	public String getClusterName(int cluster) {
+		return pad(CLUSTER_NAME_PREFIX, cluster, 4);
+	}
+	
+	public int getCluster(int qm) {
+		return qm % this.clusters;
+	}
+	
+	public int getClusterSize(int cluster) {
+		return this.queueManagers / this.clusters + (cluster < this.queueManagers % this.clusters ? 1 : 0);
+	}
+	
+	/**
+	 * Get a member of a cluster
+	 * 
+	 * @param cluster Cluster number
+	 * @param member Member number within the cluster, the full repositories come first
+	 * @return qm The queue manager number
+	 */
+	public int getMember(int cluster, int member) {
+		return cluster + member * this.clusters;
+	}
+	
+	public int getMemberNumber(int qm) {
+		return qm / this.clusters;
+	}
+	
+	public int getFullRepositoryCount(int cluster) {
+		
+		int clusterSize = getClusterSize(cluster);
+		
+		return Math.max(1, Math.min(clusterSize, (int) Math.round(clusterSize * this.fullRepositoryRatio)));
+	}
+	
+	public boolean isFullRepository(int qm) {
+		return getMemberNumber(qm) < getFullRepositoryCount(getCluster(qm));
+	}
+	
+	public int getQueueManagerType(int qm) {
+		return isFullRepository(qm) ? CMQCFC.MQQMT_REPOSITORY : CMQCFC.MQQMT_NORMAL;
+	}
+	
+	/**
+	 * Get the partial repositories of its cluster a partial repository sends to because it 
+	 * uses their queues
+	 * 
+	 * @param qm A partial repository
+	 * @return usedQms The queue manager numbers, may repeat
+	 */
+	public int[] getUsedQueueManagers(int qm) {
+		
+		int cluster = getCluster(qm);
+		int fullRepositories = getFullRepositoryCount(cluster);
+		int partialRepositories = getClusterSize(cluster) - fullRepositories;
+		
+		if (partialRepositories <= 1) return new int[0];
+		
+		int[] usedQms = new int[USED_QUEUE_MANAGERS];
+		
+		for (int i = 0; i < usedQms.length; i++) {
+			int member = fullRepositories + (int) (random(qm, USED_QUEUE_MANAGER_SALT, i) * (partialRepositories - 1));
+			
+			// Skip the queue manager itself
+			if (member >= getMemberNumber(qm)) member++;
+			usedQms[i] = getMember(cluster, member);
+		} // end for
+		
+		return usedQms;
+	}
+	
+	/**
+	 * Get the status of the cluster sender channel of a queue manager to another one
+	 * 
+	 * @param qm Queue manager owning the channel
+	 * @param targetQm Queue manager the channel sends to
+	 * @return status The channel status
+	 */
+	public int getChannelStatus(int qm, int targetQm) {
+		
+		double r = random(qm, CHANNEL_STATUS_SALT, targetQm);
+		
+		if (r < this.runningRatio) return CMQCFC.MQCHS_RUNNING;
+		if (r < this.runningRatio + this.retryingRatio) return CMQCFC.MQCHS_RETRYING;
+		if (r < this.runningRatio + this.retryingRatio + this.stoppedRatio) return CMQCFC.MQCHS_STOPPED;
+		
+		return CMQCFC.MQCHS_INACTIVE;
+	}
+	
+	public String getQueueName(int queue) {
+		return pad(QUEUE_NAME_PREFIX, queue, 6);
+	}
+	
+	public int getQueueCluster(int queue) {
+		return queue % this.clusters;
+	}
+	
+	public int getQueueCount(int cluster) {
+		return this.clusterQueues / this.clusters + (cluster < this.clusterQueues % this.clusters ? 1 : 0);
+	}
+	
+	/**
+	 * Get the queue managers hosting an instance of a cluster queue
+	 * 
+	 * @param queue Cluster queue number
+	 * @return hostQms The queue manager numbers
+	 */
+	public int[] getQueueHosts(int queue) {
+		
+		int cluster = getQueueCluster(queue);
+		int clusterSize = getClusterSize(cluster);
+		int member = (queue / this.clusters) % clusterSize;
+		
+		if (queue % SECOND_INSTANCE_INTERVAL != 0 || clusterSize == 1) return new int[] { getMember(cluster, member) };
+		
+		return new int[] { getMember(cluster, member), getMember(cluster, (member + 1) % clusterSize) };
+	}
+	
+	/**
+	 * Append a number with leading zeros to a prefix, names are built for every record sent
+	 * 
+	 */
+	private static String pad(String prefix, int n, int width) {
+		
+		StringBuilder name = new StringBuilder(prefix.length() + width + 4).append(prefix);
+		String digits = Integer.toString(n);
+		
+		for (int i = digits.length(); i < width; i++) name.append('0');
+		
+		return name.append(digits).toString();
+	}
+	
+	/**
+	 * Derive a value in [0, 1) from the seed and three numbers
+	 * 
+	 */
+	private double random(long a, long b, long c) {
+		
+		long h = this.seed;
+		
+		h = mix(h ^ a);
+		h = mix(h ^ (b << 32 | (c & 0xFFFFFFFFL)));
+		
+		return (h >>> 11) * 0x1.0p-53;
+	}
+	
+	/**
+	 * SplitMix64 finalizer
+	 * 
+	 */
+	private static long mix(long z) {
+		
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		
+		return z ^ (z >>> 31);
+	}
+
+	public int getClusters() {
+		return clusters;
+	}
+
+	public int getQueueManagers() {
+		return queueManagers;
+	}
+
+	public int getClusterQueues() {
+		return clusterQueues;
+	}
+
+	public double getLatency() {
+		return latency;
+	}
+
+	public double getConnectLatency() {
+		return connectLatency;
+	}
+
+	public double getConnectTimeout() {
+		return connectTimeout;
+	}
+
+	public double getCommandFailureRatio() {
+		return commandFailureRatio;
+	}
+
+	public long getSeed() {
+		return seed;
+	}
+
+	@Override
+	public String toString() {
+		return "MQSimulatedEstate [clusters=" + clusters + ", queueManagers=" + queueManagers + ", fullRepositoryRatio="
+				+ fullRepositoryRatio + ", clusterQueues=" + clusterQueues + ", runningRatio=" + runningRatio
+				+ ", retryingRatio=" + retryingRatio + ", stoppedRatio=" + stoppedRatio + ", latency=" + latency
+				+ ", connectLatency=" + connectLatency + ", connectFailureRatio=" + connectFailureRatio + ", transientConnectFailureRatio=" + transientConnectFailureRatio
+				+ ", queueManagersPerHost=" + queueManagersPerHost + ", hostDownRatio=" + hostDownRatio + ", connectTimeout=" + connectTimeout
+				+ ", commandFailureRatio=" + commandFailureRatio + ", zosRatio=" + zosRatio + ", seed=" + seed + "]";
+	}
+	
+}
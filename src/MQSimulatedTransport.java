@@ -0,0 +1,611 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.Random;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQMessage;
+import com.ibm.mq.constants.CMQC;
+import com.ibm.mq.constants.CMQCFC;
+import com.ibm.mq.constants.CMQXC;
+import com.ibm.mq.pcf.MQCFIF;
+import com.ibm.mq.pcf.MQCFSF;
+import com.ibm.mq.pcf.PCFMessage;
+import com.ibm.mq.pcf.PCFParameter;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQSimulatedTransport Class
+ *
+ * Answer the PCF requests of an MQAgent for a queue manager of a simulated 
+ * estate, with no MQ server. INQUIRE_Q_MGR, INQUIRE_CLUSTER_Q_MGR and 
+ * INQUIRE_Q are supported, with the name parameters and filters the collector 
+ * sends. Names matching no object are answered with MQRC_UNKNOWN_OBJECT_NAME,
+ * filters matching no record with MQRCCF_NONE_FOUND.
+ * The command server latency and failures are drawn from the estate 
+ * parameters. Like theirs, the command server of z/OS queue managers only takes 
+ * extended requests and answers with item messages ended by a summary. The 
+ * responses are encoded directly, building them as PCFMessage objects would 
+ * cost more than the collection being measured.
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQSimulatedTransport implements MQTransport {
+	
+	private static final Logger log = LoggerFactory.getLogger(MQSimulatedTransport.class);
+	
+	private static final String XMIT_QUEUE = "SYSTEM.CLUSTER.TRANSMIT.QUEUE";
+	private static final int RESPONSE_ENCODING = CMQC.MQENC_INTEGER_NORMAL | CMQC.MQENC_DECIMAL_NORMAL | CMQC.MQENC_FLOAT_IEEE_NORMAL;
+	private static final int RESPONSE_CCSID = 1208;
+	
+	private MQSimulatedEstate estate;
+	private int qm;
+	private int platform;
+	private Random random;
+	private Deque<Reply> replies;
+	private long lastDueTime;
+	private int requestCount;
+	private int nameMatches;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param estate The simulated estate
+	 */
+	public MQSimulatedTransport(MQSimulatedEstate estate) {
+		
+		this.estate = estate;
+		this.qm = -1;
+	}
+	
+	@Override
+	public void connect(MQAgent mqAgent) 
+		throws MQException {
+		
+		log.trace("[{}] Entry {}.connect, qmName={}", Thread.currentThread().getId(), this.getClass().getName(), mqAgent.getQmName());
+		
+		int qm = this.estate.getQueueManager(mqAgent.getQmName());
+		
+		if (qm < 0) throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_Q_MGR_NOT_AVAILABLE, this);
+		
+		this.random = new Random(this.estate.getSeed() ^ qm);
+		this.replies = new ArrayDeque<Reply>();
+		this.lastDueTime = System.nanoTime();
+		this.requestCount = 0;
+		
+		// A host down is only known to be once the connection times out
+		if (this.estate.isHostDown(qm)) {
+			sleepUntil(this.lastDueTime + (long) (this.estate.getConnectTimeout() * 1000000));
+			throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_HOST_NOT_AVAILABLE, this);
+		}
+		
+		sleepUntil(this.lastDueTime + nextLatency(this.estate.getConnectLatency()));
+		
+		if (this.estate.isConnectFailure(qm)) throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_HOST_NOT_AVAILABLE, this);
+		if (this.estate.isTransientConnectFailure()) throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_Q_MGR_NOT_AVAILABLE, this);
+		
+		this.qm = qm;
+		this.platform = this.estate.getPlatform(qm);
+		
+		log.trace("[{}]  Exit {}.connect", Thread.currentThread().getId(), this.getClass().getName());
+	}
+	
+	@Override
+	public int getPlatform() {
+		return platform;
+	}
+	
+	/**
+	 * Answer a request, its responses become available once the command server latency has 
+	 * elapsed, after the responses of the previous requests
+	 * 
+	 * @param requestMessage The request message, its message id is set
+	 */
+	@Override
+	public void putRequest(MQMessage requestMessage) 
+		throws MQException, IOException {
+		
+		if (this.qm < 0) throw new IllegalStateException("Not connected to a queue manager!");
+		
+		requestMessage.messageId = ByteBuffer.allocate(CMQC.MQ_MSG_ID_LENGTH).putInt(this.qm).putInt(++this.requestCount).array();
+		
+		requestMessage.seek(0);
+		PCFMessage request = new PCFMessage(requestMessage);
+		requestMessage.seek(0);
+		
+		List<Record> records;
+		int reason = CMQC.MQRC_NONE;
+		boolean extended = this.platform == CMQC.MQPL_ZOS;
+		
+		this.nameMatches = 0;
+		
+		switch (request.getCommand()) {
+			case CMQCFC.MQCMD_INQUIRE_Q_MGR:
+				records = inquireQueueManager();
+				break;
+			case CMQCFC.MQCMD_INQUIRE_CLUSTER_Q_MGR:
+				records = inquireClusterQueueManagers(request);
+				break;
+			case CMQCFC.MQCMD_INQUIRE_Q:
+				records = inquireClusterQueues(request);
+				break;
+			default:
+				records = new ArrayList<Record>();
+				reason = CMQCFC.MQRCCF_COMMAND_FAILED;
+		} // end switch
+		
+		// Like the command server, names that match no object and filters that match no record are errors
+		if (request.getCommand() != CMQCFC.MQCMD_INQUIRE_Q_MGR && reason == CMQC.MQRC_NONE && records.isEmpty()) {
+			reason = this.nameMatches == 0 ? CMQC.MQRC_UNKNOWN_OBJECT_NAME : CMQCFC.MQRCCF_NONE_FOUND;
+		}
+		
+		if (this.random.nextDouble() < this.estate.getCommandFailureRatio()) reason = CMQCFC.MQRCCF_COMMAND_FAILED;
+		
+		// Requests of the wrong type for the platform are rejected, with a plain response
+		if (request.getType() != (extended ? CMQCFC.MQCFT_COMMAND_XR : CMQCFC.MQCFT_COMMAND)) {
+			reason = CMQCFC.MQRCCF_CFH_TYPE_ERROR;
+			extended = false;
+		}
+		
+		this.lastDueTime = Math.max(this.lastDueTime, System.nanoTime()) + nextLatency(this.estate.getLatency());
+		
+		if (reason != CMQC.MQRC_NONE) {
+			this.replies.add(new Reply(this.lastDueTime, errorResponse(extended, request.getCommand(), reason, requestMessage.messageId)));
+			return;
+		}
+		
+		// The command server always sends at least one response message, a summary ends an extended response
+		if (records.isEmpty() && !extended) records.add(new Record());
+		
+		for (int i = 0; i < records.size(); i++) {
+			MQMessage responseMessage = newResponseMessage(requestMessage.messageId);
+			responseMessage.write(records.get(i).encode(extended ? CMQCFC.MQCFT_XR_ITEM : CMQCFC.MQCFT_RESPONSE, request.getCommand(), i + 1, !extended && i == records.size() - 1));
+			responseMessage.seek(0);
+			this.replies.add(new Reply(this.lastDueTime, responseMessage));
+		} // end for
+		
+		if (extended) {
+			MQMessage responseMessage = newResponseMessage(requestMessage.messageId);
+			responseMessage.write(new Record().encode(CMQCFC.MQCFT_XR_SUMMARY, request.getCommand(), records.size() + 1, true));
+			responseMessage.seek(0);
+			this.replies.add(new Reply(this.lastDueTime, responseMessage));
+		}
+	}
+	
+	@Override
+	public MQMessage getReply(int waitInterval) 
+		throws MQException, IOException {
+		
+		if (this.qm < 0) throw new IllegalStateException("Not connected to a queue manager!");
+		
+		// Every response is queued when the request is put, nothing else can arrive
+		Reply reply = this.replies.poll();
+		if (reply == null) throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_NO_MSG_AVAILABLE, this);
+		
+		sleepUntil(reply.dueTime);
+		
+		return reply.message;
+	}
+	
+	@Override
+	public void disconnect() 
+		throws MQException {
+		
+		this.qm = -1;
+		this.replies = null;
+	}
+	
+	private List<Record> inquireQueueManager() {
+		
+		List<Record> records = new ArrayList<Record>();
+		Record record = new Record();
+		
+		record.add(CMQC.MQCA_Q_MGR_NAME, this.estate.getQmName(this.qm));
+		record.add(CMQC.MQCA_Q_MGR_IDENTIFIER, this.estate.getQmId(this.qm));
+		record.add(CMQC.MQCA_Q_MGR_DESC, "Simulated queue manager " + this.qm);
+		record.add(CMQC.MQIA_PLATFORM, this.platform);
+		record.add(CMQC.MQIA_COMMAND_LEVEL, this.estate.getCommandLevel(this.qm));
+		record.add(CMQC.MQCA_VERSION, this.estate.getVersion(this.qm));
+		records.add(record);
+		
+		return records;
+	}
+	
+	/**
+	 * Build the cluster queue manager records known to the queue manager: its cluster receiver 
+	 * channel, an explicit cluster sender channel to a full repository and the automatic cluster 
+	 * sender channels to every other member for a full repository, to the other full repositories 
+	 * and the queue managers whose queues it uses for a partial repository
+	 * 
+	 * @param request The INQUIRE_CLUSTER_Q_MGR request
+	 * @return records The records matching the request
+	 */
+	private List<Record> inquireClusterQueueManagers(PCFMessage request) {
+		
+		List<Record> records = new ArrayList<Record>();
+		int cluster = this.estate.getCluster(this.qm);
+		int fullRepositories = this.estate.getFullRepositoryCount(cluster);
+		int member = this.estate.getMemberNumber(this.qm);
+		int explicitMember = this.estate.isFullRepository(this.qm) ? (member + 1) % fullRepositories : 0;
+		
+		addClusterQueueManager(records, request, this.qm, CMQCFC.MQQMDT_CLUSTER_RECEIVER);
+		if (explicitMember != member) addClusterQueueManager(records, request, this.estate.getMember(cluster, explicitMember), CMQCFC.MQQMDT_AUTO_EXP_CLUSTER_SENDER);
+		
+		int autoMembers = this.estate.isFullRepository(this.qm) ? this.estate.getClusterSize(cluster) : fullRepositories;
+		
+		for (int i = 0; i < autoMembers; i++) {
+			if (i != member && i != explicitMember) addClusterQueueManager(records, request, this.estate.getMember(cluster, i), CMQCFC.MQQMDT_AUTO_CLUSTER_SENDER);
+		} // end for
+		
+		if (!this.estate.isFullRepository(this.qm)) {
+			int[] usedQms = this.estate.getUsedQueueManagers(this.qm);
+			
+			for (int i = 0; i < usedQms.length; i++) {
+				if (!contains(usedQms, i, usedQms[i])) addClusterQueueManager(records, request, usedQms[i], CMQCFC.MQQMDT_AUTO_CLUSTER_SENDER);
+			} // end for
+		}
+		
+		return records;
+	}
+	
+	private void addClusterQueueManager(List<Record> records, PCFMessage request, int targetQm, int definitionType) {
+		
+		Record record = new Record();
+		
+		record.add(CMQC.MQCA_CLUSTER_Q_MGR_NAME, this.estate.getQmName(targetQm));
+		record.add(CMQC.MQCA_Q_MGR_IDENTIFIER, this.estate.getQmId(targetQm));
+		record.add(CMQCFC.MQIACF_Q_MGR_TYPE, this.estate.getQueueManagerType(targetQm));
+		record.add(CMQC.MQCA_CLUSTER_NAME, this.estate.getClusterName(this.estate.getCluster(targetQm)));
+		record.add(CMQCFC.MQCACH_CHANNEL_NAME, this.estate.getChannelName(targetQm));
+		record.add(CMQCFC.MQCACH_CONNECTION_NAME, this.estate.getConnectionName(targetQm));
+		record.add(CMQCFC.MQIACF_Q_MGR_DEFINITION_TYPE, definitionType);
+		record.add(CMQCFC.MQIACH_SSL_CLIENT_AUTH, CMQXC.MQSCA_REQUIRED);
+		record.add(CMQCFC.MQCACH_SSL_CIPHER_SPEC, "");
+		record.add(CMQCFC.MQCACH_SSL_PEER_NAME, "");
+		
+		// Like the command server, no channel status for the cluster receiver channel
+		if (definitionType != CMQCFC.MQQMDT_CLUSTER_RECEIVER) record.add(CMQCFC.MQIACH_CHANNEL_STATUS, this.estate.getChannelStatus(this.qm, targetQm));
+		
+		record.add(CMQCFC.MQCACH_XMIT_Q_NAME, XMIT_QUEUE);
+		record.add(CMQC.MQCA_VERSION, this.estate.getVersion(targetQm));
+		
+		if (!matchesName(record, request, CMQC.MQCA_CLUSTER_Q_MGR_NAME) || !matchesName(record, request, CMQC.MQCA_CLUSTER_NAME)) return;
+		this.nameMatches++;
+		if (!matchesFilters(record, request)) return;
+		
+		records.add(record);
+	}
+	
+	/**
+	 * Build the cluster queue records known to the queue manager: every instance of the queues of 
+	 * its cluster for a full repository, the instances it hosts or uses for a partial repository
+	 * 
+	 * @param request The INQUIRE_Q request
+	 * @return records The records matching the request
+	 */
+	private List<Record> inquireClusterQueues(PCFMessage request) {
+		
+		List<Record> records = new ArrayList<Record>();
+		int cluster = this.estate.getCluster(this.qm);
+		int[] usedQms = this.estate.isFullRepository(this.qm) ? null : this.estate.getUsedQueueManagers(this.qm);
+		
+		for (int i = 0; i < this.estate.getQueueCount(cluster); i++) {
+			int queue = cluster + i * this.estate.getClusters();
+			
+			for (int hostQm : this.estate.getQueueHosts(queue)) {
+				if (usedQms != null && hostQm != this.qm && !contains(usedQms, usedQms.length, hostQm)) continue;
+				
+				Record record = new Record();
+				
+				record.add(CMQC.MQCA_Q_NAME, this.estate.getQueueName(queue));
+				record.add(CMQC.MQCA_CLUSTER_NAME, this.estate.getClusterName(cluster));
+				record.add(CMQC.MQCA_CLUSTER_Q_MGR_NAME, this.estate.getQmName(hostQm));
+				record.add(CMQC.MQIA_CLUSTER_Q_TYPE, CMQC.MQCQT_LOCAL_Q);
+				record.add(CMQC.MQIA_CLWL_Q_PRIORITY, 0);
+				record.add(CMQC.MQIA_CLWL_Q_RANK, 0);
+				record.add(CMQC.MQIA_DEF_BIND, CMQC.MQBND_BIND_ON_OPEN);
+				record.add(CMQC.MQCA_Q_DESC, "Simulated cluster queue " + queue);
+				record.add(CMQC.MQIA_INHIBIT_PUT, CMQC.MQQA_PUT_ALLOWED);
+				record.add(CMQC.MQCA_Q_MGR_IDENTIFIER, this.estate.getQmId(hostQm));
+				
+				if (!matchesName(record, request, CMQC.MQCA_Q_NAME)) continue;
+				this.nameMatches++;
+				if (!matchesFilters(record, request)) continue;
+				
+				records.add(record);
+			} // end for
+		} // end for
+		
+		return records;
+	}
+	
+	/**
+	 * Check a record against a generic name parameter of the request
+	 * 
+	 */
+	private boolean matchesName(Record record, PCFMessage request, int parameter) {
+		
+		PCFParameter requestParameter = request.getParameter(parameter);
+		
+		if (requestParameter == null) return true;
+		
+		String value = record.getString(parameter);
+		
+		return value != null && matchesGenericName(value, requestParameter.getStringValue().trim());
+	}
+	
+	/**
+	 * Check a record against the integer and string filters of the request
+	 * 
+	 */
+	private boolean matchesFilters(Record record, PCFMessage request) {
+		
+		Enumeration<?> parameters = request.getParameters();
+		
+		while (parameters.hasMoreElements()) {
+			Object parameter = parameters.nextElement();
+			
+			if (parameter instanceof MQCFIF) {
+				MQCFIF filter = (MQCFIF) parameter;
+				
+				// The record does not have the filtered attribute
+				if (!record.hasInt(filter.getParameter())) return false;
+				
+				if (!matchesOperator(filter.getOperator(), Integer.compare(record.getInt(filter.getParameter()), filter.getFilterValue()))) return false;
+			} else if (parameter instanceof MQCFSF) {
+				MQCFSF filter = (MQCFSF) parameter;
+				String value = record.getString(filter.getParameter());
+				String filterValue = filter.getFilterValue().trim();
+				
+				if (value == null) return false;
+				
+				if (filter.getOperator() == CMQCFC.MQCFOP_LIKE) {
+					if (!matchesGenericName(value, filterValue)) return false;
+				} else if (filter.getOperator() == CMQCFC.MQCFOP_NOT_LIKE) {
+					if (matchesGenericName(value, filterValue)) return false;
+				} else if (!matchesOperator(filter.getOperator(), value.compareTo(filterValue))) return false;
+			}
+		} // end while
+		
+		return true;
+	}
+	
+	private static boolean matchesOperator(int operator, int c) {
+		
+		switch (operator) {
+			case CMQCFC.MQCFOP_EQUAL: return c == 0;
+			case CMQCFC.MQCFOP_NOT_EQUAL: return c != 0;
+			case CMQCFC.MQCFOP_LESS: return c < 0;
+			case CMQCFC.MQCFOP_NOT_LESS: return c >= 0;
+			case CMQCFC.MQCFOP_GREATER: return c > 0;
+			case CMQCFC.MQCFOP_NOT_GREATER: return c <= 0;
+			default: return false;
+		} // end switch
+	}
+	
+	/**
+	 * Match a name with an MQ generic name, a single trailing * matches any characters
+	 * 
+	 */
+	private static boolean matchesGenericName(String name, String genericName) {
+		
+		if (genericName.endsWith("*")) return name.startsWith(genericName.substring(0, genericName.length() - 1));
+		
+		return name.equals(genericName);
+	}
+	
+	private static boolean contains(int[] values, int length, int value) {
+		
+		for (int i = 0; i < length; i++) {
+			if (values[i] == value) return true;
+		}
+		
+		return false;
+	}
+	
+	private MQMessage newResponseMessage(byte[] correlationId) {
+		
+		MQMessage responseMessage = new MQMessage();
+		responseMessage.messageType = CMQC.MQMT_REPLY;
+		responseMessage.format = CMQC.MQFMT_ADMIN;
+		responseMessage.correlationId = correlationId;
+		responseMessage.encoding = RESPONSE_ENCODING;
+		responseMessage.characterSet = RESPONSE_CCSID;
+		
+		return responseMessage;
+	}
+	
+	/**
+	 * Build a response message reporting a command failure, a header alone, the summary of 
+	 * an extended response
+	 * 
+	 */
+	private MQMessage errorResponse(boolean extended, int command, int reason, byte[] correlationId) 
+		throws IOException {
+		
+		MQMessage responseMessage = newResponseMessage(correlationId);
+		
+		responseMessage.writeInt(extended ? CMQCFC.MQCFT_XR_SUMMARY : CMQCFC.MQCFT_RESPONSE);
+		responseMessage.writeInt(CMQCFC.MQCFH_STRUC_LENGTH);
+		responseMessage.writeInt(extended ? CMQCFC.MQCFH_VERSION_3 : CMQCFC.MQCFH_VERSION_1);
+		responseMessage.writeInt(command);
+		responseMessage.writeInt(1);
+		responseMessage.writeInt(CMQCFC.MQCFC_LAST);
+		responseMessage.writeInt(CMQC.MQCC_FAILED);
+		responseMessage.writeInt(reason);
+		responseMessage.writeInt(0);
+		responseMessage.seek(0);
+		
+		return responseMessage;
+	}
+	
+	/**
+	 * Draw a latency from an exponential distribution
+	 * 
+	 * @param meanLatency Mean latency (milliseconds)
+	 * @return latency The latency (nanoseconds)
+	 */
+	private long nextLatency(double meanLatency) {
+		
+		if (meanLatency == 0) return 0;
+		
+		return (long) (-meanLatency * Math.log(1 - this.random.nextDouble()) * 1000000);
+	}
+	
+	private static void sleepUntil(long dueTime) 
+		throws MQException {
+		
+		long wait;
+		
+		while ((wait = dueTime - System.nanoTime()) > 0) {
+			try {
+				Thread.sleep(wait / 1000000, (int) (wait % 1000000));
+			} catch (InterruptedException ie) {
+				Thread.currentThread().interrupt();
+				throw new MQException(CMQC.MQCC_FAILED, CMQC.MQRC_CONNECTION_BROKEN, ie);
+			}
+		} // end while
+	}
+	
+	/**
+	 * Attributes of a response message, looked up by the filters then encoded as a PCF response
+	 *
+	 */
+	private static class Record {
+		
+		private int[] intParameters = new int[4];
+		private int[] intValues = new int[4];
+		private int intCount;
+		private int[] stringParameters = new int[8];
+		private String[] stringValues = new String[8];
+		private int stringCount;
+		
+		public void add(int parameter, int value) {
+			
+			if (this.intCount == this.intParameters.length) {
+				this.intParameters = Arrays.copyOf(this.intParameters, this.intCount * 2);
+				this.intValues = Arrays.copyOf(this.intValues, this.intCount * 2);
+			}
+			
+			this.intParameters[this.intCount] = parameter;
+			this.intValues[this.intCount++] = value;
+		}
+		
+		public void add(int parameter, String value) {
+			
+			if (this.stringCount == this.stringParameters.length) {
+				this.stringParameters = Arrays.copyOf(this.stringParameters, this.stringCount * 2);
+				this.stringValues = Arrays.copyOf(this.stringValues, this.stringCount * 2);
+			}
+			
+			this.stringParameters[this.stringCount] = parameter;
+			this.stringValues[this.stringCount++] = value;
+		}
+		
+		public boolean hasInt(int parameter) {
+			
+			for (int i = 0; i < this.intCount; i++) {
+				if (this.intParameters[i] == parameter) return true;
+			}
+			
+			return false;
+		}
+		
+		public int getInt(int parameter) {
+			
+			for (int i = 0; i < this.intCount; i++) {
+				if (this.intParameters[i] == parameter) return this.intValues[i];
+			}
+			
+			return 0;
+		}
+		
+		public String getString(int parameter) {
+			
+			for (int i = 0; i < this.stringCount; i++) {
+				if (this.stringParameters[i] == parameter) return this.stringValues[i];
+			}
+			
+			return null;
+		}
+		
+		/**
+		 * Encode the record as a PCF response message of a type, strings are padded to a multiple of 4 bytes
+		 * 
+		 */
+		public byte[] encode(int type, int command, int msgSeqNumber, boolean last) {
+			
+			byte[][] strings = new byte[this.stringCount][];
+			int length = CMQCFC.MQCFH_STRUC_LENGTH + this.intCount * CMQCFC.MQCFIN_STRUC_LENGTH;
+			
+			for (int i = 0; i < this.stringCount; i++) {
+				strings[i] = this.stringValues[i].getBytes(StandardCharsets.UTF_8);
+				length += CMQCFC.MQCFST_STRUC_LENGTH_FIXED + ((strings[i].length + 3) & ~3);
+			} // end for
+			
+			ByteBuffer data = ByteBuffer.allocate(length);
+			
+			data.putInt(type).putInt(CMQCFC.MQCFH_STRUC_LENGTH).putInt(type == CMQCFC.MQCFT_RESPONSE ? CMQCFC.MQCFH_VERSION_1 : CMQCFC.MQCFH_VERSION_3);
+			data.putInt(command).putInt(msgSeqNumber).putInt(last ? CMQCFC.MQCFC_LAST : CMQCFC.MQCFC_NOT_LAST);
+			data.putInt(CMQC.MQCC_OK).putInt(CMQC.MQRC_NONE).putInt(this.intCount + this.stringCount);
+			
+			for (int i = 0; i < this.intCount; i++) {
+				data.putInt(CMQCFC.MQCFT_INTEGER).putInt(CMQCFC.MQCFIN_STRUC_LENGTH).putInt(this.intParameters[i]).putInt(this.intValues[i]);
+			} // end for
+			
+			for (int i = 0; i < this.stringCount; i++) {
+				int paddedLength = (strings[i].length + 3) & ~3;
+				
+				data.putInt(CMQCFC.MQCFT_STRING).putInt(CMQCFC.MQCFST_STRUC_LENGTH_FIXED + paddedLength).putInt(this.stringParameters[i]);
+				data.putInt(RESPONSE_CCSID).putInt(paddedLength).put(strings[i]);
+				for (int j = strings[i].length; j < paddedLength; j++) data.put((byte) ' ');
+			} // end for
+			
+			return data.array();
+		}
+	}
+	
+	/**
+	 * Response message and the time it becomes available
+	 *
+	 */
+	private static class Reply {
+		
+		private long dueTime;
+		private MQMessage message;
+		
+		public Reply(long dueTime, MQMessage message) {
+			
+			this.dueTime = dueTime;
+			this.message = message;
+		}
+	}
+	
+}
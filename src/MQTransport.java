@@ -0,0 +1,49 @@
+package com.ibm.xmq.cluster;
+
+import java.io.IOException;
+
+import com.ibm.mq.MQException;
+import com.ibm.mq.MQMessage;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQTransport Interface
+ *
+ * Carry PCF request and response messages between an MQAgent and the command 
+ * server of a queue manager, either over a client connection or from a 
+ * recorded archive
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public interface MQTransport {
+	
+	public void connect(MQAgent mqAgent)
+		throws MQException;
+	
+	public int getPlatform();
+	
+	public void putRequest(MQMessage requestMessage)
+		throws MQException, IOException;
+	
+	public MQMessage getReply(int waitInterval)
+		throws MQException, IOException;
+	
+	public void disconnect()
+		throws MQException;
+	
+}
@@ -0,0 +1,144 @@
+package com.ibm.xmq.cluster;
+
+import java.io.File;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * MQTransportFactory Class
+ *
+ * Create the transport of each MQAgent: a client connection, a client 
+ * connection recorded to an archive directory, a replay of an archive 
+ * directory, or a simulated estate
+ *
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ */
+public class MQTransportFactory {
+	
+	public static final int CLIENT = 0;
+	public static final int RECORD = 1;
+	public static final int REPLAY = 2;
+	public static final int SIMULATE = 3;
+	
+	private int mode;
+	private File archiveDir;
+	private double latencyScale;
+	private MQSimulatedEstate estate;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param mode CLIENT, RECORD or REPLAY
+	 * @param archiveDir Directory of the archive files, for RECORD and REPLAY
+	 * @param latencyScale Factor applied to the recorded delays, for REPLAY
+	 */
+	public MQTransportFactory(int mode, File archiveDir, double latencyScale) {
+		
+		this.mode = mode;
+		this.archiveDir = archiveDir;
+		this.latencyScale = latencyScale;
+	}
+	
+	/**
+	 * Constructor
+	 *
+	 * @param estate The simulated estate
+	 */
+	public MQTransportFactory(MQSimulatedEstate estate) {
+		
+		this.mode = SIMULATE;
+		this.estate = estate;
+	}
+	
+	/**
+	 * Parse a transport specification, record:dir, replay:dir[,scale] or simulate:[name=value,...]
+	 * 
+	 * @param spec Transport specification
+	 * @return factory The transport factory, null if the specification is not valid
+	 */
+	public static MQTransportFactory parse(String spec) {
+		
+		int p1 = spec.indexOf(':');
+		
+		if (p1 < 0) return null;
+		
+		String mode = spec.substring(0, p1);
+		String dir = spec.substring(p1 + 1);
+		
+		if (mode.equalsIgnoreCase("simulate")) {
+			MQSimulatedEstate estate = MQSimulatedEstate.parse(dir);
+			return estate == null ? null : new MQTransportFactory(estate);
+		}
+		
+		if (dir.isEmpty()) return null;
+		
+		if (mode.equalsIgnoreCase("record")) return new MQTransportFactory(RECORD, new File(dir), 1.0);
+		if (!mode.equalsIgnoreCase("replay")) return null;
+		
+		double latencyScale = 1.0;
+		int p2 = dir.lastIndexOf(',');
+		
+		if (p2 >= 0) {
+			try {
+				latencyScale = Double.parseDouble(dir.substring(p2 + 1));
+			} catch (NumberFormatException nfe) {
+				return null;
+			}
+			if (latencyScale < 0) return null;
+			dir = dir.substring(0, p2);
+		}
+		
+		return new MQTransportFactory(REPLAY, new File(dir), latencyScale);
+	}
+	
+	public MQTransport newTransport() {
+		
+		switch (this.mode) {
+			case RECORD:
+				return new MQRecordingTransport(new MQClientTransport(), this.archiveDir);
+			case REPLAY:
+				return new MQReplayTransport(this.archiveDir, this.latencyScale);
+			case SIMULATE:
+				return new MQSimulatedTransport(this.estate);
+			default:
+				return new MQClientTransport();
+		} // end switch
+	}
+
+	public int getMode() {
+		return mode;
+	}
+
+	public File getArchiveDir() {
+		return archiveDir;
+	}
+
+	public double getLatencyScale() {
+		return latencyScale;
+	}
+
+	public MQSimulatedEstate getEstate() {
+		return estate;
+	}
+
+	@Override
+	public String toString() {
+		return "MQTransportFactory [mode=" + mode + ", archiveDir=" + archiveDir + ", latencyScale=" + latencyScale + ", estate=" + estate + "]";
+	}
+	
+}
@@ -0,0 +1,124 @@
+package com.ibm.xmq.cluster;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ---------------------------------------------------------------------------- 
+ * 
+ * WildcardMatcher Class
+ * 
+ * Match strings against one or more wildcard patterns compiled once. A '*' in 
+ * a pattern replaces any number of characters, a '?' replaces one character. 
+ * Patterns without wildcards are matched with a hash lookup, all the other 
+ * patterns are combined into a single regular expression so a string is 
+ * checked in one pass.
+ * 
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ *
+ */
+public final class WildcardMatcher {
+	
+	private Set<String> literals;
+	private Pattern pattern;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 * @param wildcard A wildcard pattern
+	 */
+	public WildcardMatcher(String wildcard) {
+		
+		this(Collections.singletonList(wildcard));
+	}
+	
+	/**
+	 * Constructor
+	 *
+	 * @param wildcards A list of wildcard patterns, a string matches if it matches any of them
+	 */
+	public WildcardMatcher(Collection<String> wildcards) {
+		
+		StringBuilder sb = new StringBuilder();
+		
+		this.literals = new HashSet<String>();
+		
+		for (String wildcard : wildcards) {
+			if (wildcard.indexOf('*') < 0 && wildcard.indexOf('?') < 0) {
+				this.literals.add(wildcard);
+				continue;
+			}
+			
+			if (sb.length() != 0) sb.append('|');
+			sb.append("(?:").append(toRegexp(wildcard)).append(')');
+		} // end for
+		
+		if (sb.length() != 0) this.pattern = Pattern.compile(sb.toString(), Pattern.DOTALL);
+	}
+	
+	/**
+	 * Check whether a string matches any of the patterns
+	 *
+	 * @param original The string to check
+	 * @return true if the string matches, false otherwise
+	 */
+	public boolean matches(String original) {
+		
+		if (original == null) return false;
+		
+		if (this.literals.contains(original)) return true;
+		
+		return this.pattern != null && this.pattern.matcher(original).matches();
+	} // end of method matches()
+	
+	/**
+	 * Convert a wildcard pattern to a regular expression
+	 *
+	 * @param wildcard A wildcard pattern
+	 * @return regexp The equivalent regular expression
+	 */
+	public static String toRegexp(String wildcard) {
+		
+		StringBuilder sb = new StringBuilder();
+		int literalStart = 0;
+		
+		for (int i = 0, l = wildcard.length(); i < l; i++) {
+			char c = wildcard.charAt(i);
+			
+			if (c != '*' && c != '?') continue;
+			
+			// Quote the literal characters preceding the wildcard
+			if (i > literalStart) sb.append(Pattern.quote(wildcard.substring(literalStart, i)));
+			sb.append(c == '*' ? ".*" : ".");
+			literalStart = i + 1;
+		} // end for
+		
+		if (literalStart < wildcard.length()) sb.append(Pattern.quote(wildcard.substring(literalStart)));
+		
+		return sb.toString();
+	} // end of method toRegexp()
+	
+	@Override
+	public String toString() {
+		return "WildcardMatcher [literals=" + literals + ", pattern=" + pattern + "]";
+	}
+	
+}
@@ -1,447 +1,944 @@
-package com.ibm.xmq.cluster;
-
-import java.io.FileNotFoundException;
-import java.io.IOException;
-import java.io.PrintWriter;
-import java.time.LocalDateTime;
-import java.time.LocalTime;
-import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
-
-import com.ibm.mq.MQException;
-
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-
-/**
- * Copyright 2018 IBM Corporation
- * 
- * Licensed under the Apache License, Version 2.0 (the "License");
- * you may not use this file except in compliance with the License.
- * You may obtain a copy of the License at
- *
- *    http://www.apache.org/licenses/LICENSE-2.0
- *
- * Unless required by applicable law or agreed to in writing, software
- * distributed under the License is distributed on an "AS IS" BASIS,
- * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
- * See the License for the specific language governing permissions and
- * limitations under the License.
- * ----------------------------------------------------------------------------
- * __  __                               _
- * \ \/ /_ __ ___   __ _  ___ ___   ___| |___
- *  \  /| '_ ` _ \ / _` |/ __/ _ \ / __| / __|
- *  /  \| | | | | | (_| | (_| (_) | (__| \__ \
- * /_/\_\_| |_| |_|\__, |\___\___/ \___|_|___/
- *                    |_|   
- *
- * Xmqcocls - Collect IBM MQ cluster data to build a graph of cluster objects 
- * 
- * Xmqcocls collects IBM MQ cluster data and optionally build a graph of cluster
- * objects. Data collected is also stored in several CSV files that can be used 
- * to build a graph using a separate tool. If a graph is generated, it is saved
- * in both GRAPHML and JSON formats. The graph can then be imported into various
- * other tools to either perform queries or visualize the data.
- * 
- * Return codes:
- *      0 - Successful completion
- *      1 - Partially successful completion
- *     10 - No matching tag found in the queue manager inventory
- *     20 - A file could not be found or opened
- *     30 - An I/O exception occurred processing a file
- *     98 - Missing or invalid parameter was provided
- *     99 - No parameter provided, usage is displayed
- *     
- * @author Oliver Fisse (IBM) - fisse@us.ibm.com
- * @version 1.0
- *       
- */
-public class Xmqcocls {
-	
-	private static final Logger log = LoggerFactory.getLogger(Xmqcocls.class);
-	
-	public static final String progName = "Xmqcocls";
-	public static final String progVersion = "1.0";
-	public static final String progAuthor = "Oliver Fisse (IBM)";
-	public static final String progAuthorEmail = "fisse@us.ibm.com";
-	public static final String progCopyright = "(c) Copyright IBM Corp. 2018, all rights reserved";
-	
-	private String csvFilePrefix;
-	private String qmDataFileName;
-	private String qmClusterQueueManagerFileName;
-	private String qmClusterQueueDataFileName;
-	
-	private String inventoryFileName;
-	private ArrayList<String> tagList;
-	private boolean generateGraph;
-	private String graphFileName;
-	private boolean collectClusterQueues;
-	private String cipherSuite;
-	private String userId;
-	private String password;
-	
-	
-	/**
-	 * Constructor
-	 *
-	 */
-	public Xmqcocls() {
-		
-		this.csvFilePrefix = "";
-		this.collectClusterQueues = false;
-		this.tagList = new ArrayList<String>();
-	}
-		
-	/**
-	 * Parse command line arguments
-	 * 
-	 * @param args Command line arguments
-	 * @return rc Return code
-	 */
-	private int parseArgs(String[] args) {
-		
-		log.trace("[{}] Entry {}.parseArgs, args={}", Thread.currentThread().getId(), this.getClass().getName(), args);
-		
-		int rc = 0;
-		int argc = args.length;
-		char c = ' ';
-		
-		System.out.println(Xmqcocls.progName + " v" + Xmqcocls.progVersion + " - Developed by " + Xmqcocls.progAuthor);
-		System.out.println(Xmqcocls.progCopyright);
-		System.out.println();
-		
-		// Parse arguments
-		for (int i = 0; i < argc; i++) {
-			
-			if (args[i].startsWith("-")) {
-				try {
-					c = args[i].charAt(1);
-				} catch (StringIndexOutOfBoundsException sioobe) {
-					System.err.println("Missing option character for option " + (i + 1) + "!");
-					rc = 98;
-				}
-				
-				switch (c) {
-					case 'c':
-						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
-							System.err.println("Argument for option -" + c + " must be specified!");
-							rc = 98;
-						}
-						this.cipherSuite = args[i + 1];
-						i++;
-						break;
-					case 'f':
-						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
-							System.err.println("Argument for option -" + c + " must be specified!");
-							rc = 98;
-						}
-						this.inventoryFileName = args[i + 1];
-						i++;
-						break;
-					case 'g':
-						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
-							System.err.println("Argument for option -" + c + " must be specified!");
-							rc = 98;
-						}
-						this.graphFileName = args[i + 1];
-						this.generateGraph = true;
-						i++;
-						break;
-					case 'p':
-						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
-							System.err.println("Argument for option -" + c + " must be specified!");
-							rc = 98;
-						}
-						this.password = args[i + 1];
-						i++;
-						break;
-					case 'q':
-						if (i + 1 < argc && !args[i + 1].startsWith("-")) {
-							System.err.println("Option -" + c + " does not accept any arguments!");
-							rc = 98;
-						}
-						this.collectClusterQueues = true;
-						break;
-					case 't':
-						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
-							System.err.println("Argument for option -" + c + " must be specified!");
-							rc = 98;
-						}
-						
-						while (i + 1 < argc && !args[i + 1].startsWith("-")) {
-							this.tagList.add(args[i + 1]);
-							i++;
-						} // end while
-						break;
-					case 'u':
-						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
-							System.err.println("Argument for option -" + c + " must be specified!");
-							rc = 98;
-						}
-						this.userId = args[i + 1];
-						i++;
-						break;
-					case 'x':
-						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
-							System.err.println("Argument for option -" + c + " must be specified!");
-							rc = 98;
-						}
-						this.csvFilePrefix = args[i + 1];
-						i++;
-						break;
-					default: 
-						System.err.println(args[i] + " is not a valid option!");
-						rc = 98;
-				} // end switch
-			} else {
-				System.err.println(args[i] + " is not a valid! Options should start with '-'.");
-				rc = 98;
-			} // end if
-        } // end for
-		
-		if (rc == 0) {
-			if (this.inventoryFileName == null) {
-				System.err.println("Missing option -f, queue manager inventory file name must be specified!");
-				rc = 98;
-			} else {
-				String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH.mm.ss"));
-				
-				this.qmDataFileName = this.csvFilePrefix + "qmdata-" + timestamp + ".csv";
-				this.qmClusterQueueManagerFileName = this.csvFilePrefix + "clusqmdata-" + timestamp + ".csv";
-				this.qmClusterQueueDataFileName = this.csvFilePrefix + "clusqueuedata-" + timestamp + ".csv";
-			}
-		}
-		
-		log.trace("[{}]  Exit {}.parseArgs, rc={}", Thread.currentThread().getId(), this.getClass().getName(), rc);
-		
-		return rc;
-	}
-	
-	/**
-	 * Run the tool
-	 * 
-	 */
-	private int run() {
-		
-		log.trace("[{}] Entry {}.run", Thread.currentThread().getId(), this.getClass().getName());
-		
-		MQQueueManagerInventoryData inventoryEntry;
-		MQDataCollector dc;
-		MQGraphBuilder gb = null;
-		
-		MQException.log = null;
-		
-		int totalQMSuccess = 0;
-		int totalQMFailure = 0;
-		
-		double percentComplete;
-		
-		PrintWriter qmDataWriter = null;
-		PrintWriter qmClusterDataWriter = null;
-		PrintWriter qmClusterQueueDataWriter = null;
-		
-		int rc = 0;
-			
-		try {
-			System.out.println("Reading queue manager inventory from file '" + this.inventoryFileName + "'...");
-			if (this.tagList.size() != 0) {
-				System.out.println("Matching the following tags...");
-				for (String tag : tagList) System.out.println("   --> " + tag);
-			}
-				
-			// Read the queue manager inventory
-			MQQueueManagerInventory inventory = new MQQueueManagerInventory(this.inventoryFileName, this.tagList);
-				
-			if (inventory.getTotalInventoryEntries() == 0) {
-				System.out.println("No matching tag found in the inventory, no work to be done!");
-				rc = 10;
-			}
-			
-			if (rc == 0) {
-				System.out.println(inventory.getTotalInventoryEntries() + " queue managers found in the inventory, let's go we got work to do!");
-				System.out.println();
-
-				// Open CSV files
-				qmDataWriter = new PrintWriter(this.qmDataFileName);
-				qmClusterDataWriter = new PrintWriter(this.qmClusterQueueManagerFileName);
-				if (this.collectClusterQueues) qmClusterQueueDataWriter = new PrintWriter(this.qmClusterQueueDataFileName);
-				
-				// Create and open an empty graph
-				if (this.generateGraph) gb = new MQGraphBuilder();
-				
-				if (this.generateGraph) System.out.println(LocalTime.now() + " - Collecting queue managers cluster information and building graph...");
-				else System.out.println(LocalTime.now() + " - Collecting queue managers cluster information...");
-				
-				// Collect data for all queue managers in the inventory
-				while ((inventoryEntry = inventory.next()) != null) {
-					dc = new MQDataCollector();
-					if (dc.collect(inventory, inventoryEntry, this.collectClusterQueues, this.userId, this.password, this.cipherSuite)) totalQMSuccess++;
-					else { 
-						totalQMFailure++;
-						rc = 1;
-						continue;
-					}
-					
-					// Process queue manager data
-					qmDataWriter.println(dc.getQmData().toCSV());
-					
-					// Add vertices (queue managers) to the graph
-					if (this.generateGraph) gb.addQueueManager(dc.getQmData());
-						
-					// Process cluster queue manager data
-					for (MQClusterQueueManagerData cqmd : dc.getClusterQueueManagerData()) {
-						// Write data to CSV file
-						qmClusterDataWriter.println(cqmd.toCSV());
-						
-						// Add edges (connects) between queue managers to the graph
-						if (this.generateGraph) gb.addClusteredQueueManager(cqmd);
-					} // end for
-					
-					// Process cluster queue  data
-					if (this.collectClusterQueues) {
-						for (MQClusterQueueData cqd : dc.getClusterQueueData()) {
-							// Write data to CSV file
-							qmClusterQueueDataWriter.println(cqd.toCSV());
-							
-							// Add edges (owns, uses) from queue managers to cluster queues to the graph
-							if (this.generateGraph) gb.addClusteredQueue(cqd);
-						} // end for
-					} // end if
-			
-					// Display progress
-					percentComplete = ((double)(totalQMSuccess + totalQMFailure) / inventory.getTotalInventoryEntries()) * 100.0;
-					if (percentComplete % 10 == 0) {
-						System.out.println(LocalTime.now() + " - " + (int)percentComplete + "% complete" + " - " + inventory.getCurrentInventoryEntry() + " queue managers processed");
-					} // end if		
-				} // while
-				
-				System.out.println();
-				System.out.println("Total queue managers processed successfully: " + totalQMSuccess);
-				System.out.println("Total queue managers that could not be processed: " + totalQMFailure);
-				System.out.println();
-				
-				if (totalQMSuccess != 0) {
-					System.out.println("Queue manager data written to file: " + this.qmDataFileName);
-					System.out.println("Queue manager cluster data written to file: " + this.qmClusterQueueManagerFileName);
-					if (this.collectClusterQueues) System.out.println("Queue cluster data written to file: " + this.qmClusterQueueDataFileName);
-				}
-				
-				System.out.println();
-				
-				// Format and write graph to files
-				if (this.generateGraph) {
-					System.out.println("Writing graph (GRAPHML) to file '" + this.graphFileName + ".graphml'...");
-					gb.writeGraphMLToFile(this.graphFileName + ".graphml");
-					System.out.println("Writing graph (JSON) to file '" + this.graphFileName + ".json'...");
-					gb.writeGraphJSONToFile(this.graphFileName + ".json");
-					System.out.println();
-				} // end if
-				
-				System.out.println("All done folks!");
-			} // end if
-				
-		} catch (FileNotFoundException fnfe) {
-			System.err.println("FileNotFoundException - " + fnfe.getLocalizedMessage());
-			rc = 20;
-		} catch (IOException ioe) {
-			System.err.println("IOException - " + ioe.getLocalizedMessage());
-			rc = 30;
-		} finally {	
-			// Close CSV files
-			if (qmDataWriter != null) qmDataWriter.close();
-			if (qmClusterDataWriter != null) qmClusterDataWriter.close();
-			if (qmClusterQueueDataWriter != null) qmClusterQueueDataWriter.close();
-				
-			// Close graph
-			if (gb != null) gb.closeGraph();
-		}
-			
-		log.trace("[{}]  Exit {}.run, rc={}", Thread.currentThread().getId(), this.getClass().getName(), rc);
-		
-		return rc;
-	}
-	
-	/**
-	 * Display usage
-	 * 
-	 */
-	private static void usage() {
-		
-		System.out.println("__  __                               _");
-		System.out.println("\\ \\/ /_ __ ___   __ _  ___ ___   ___| |___");
-		System.out.println(" \\  /| '_ ` _ \\ / _` |/ __/ _ \\ / __| / __|");
-		System.out.println(" /  \\| | | | | | (_| | (_| (_) | (__| \\__ \\");
-		System.out.println("/_/\\_\\_| |_| |_|\\__, |\\___\\___/ \\___|_|___/");
-		System.out.println("                   |_|");             
-        System.out.println();
-		
-		System.out.println(Xmqcocls.progName + " v" + Xmqcocls.progVersion + " - Collect IBM MQ cluster data to build a graph of cluster objects");
-		System.out.println(Xmqcocls.progCopyright);
-		System.out.println();
-		System.out.println(Xmqcocls.progName + " collects IBM MQ cluster data and optionally build a graph of cluster");
-		System.out.println("objects. Data collected is also stored in several CSV files that can be used"); 
-		System.out.println("to build a graph using a separate tool. If a graph is generated, it is saved");
-		System.out.println("in both GRAPHML and JSON formats. The graph can then be imported into various");
-		System.out.println("other tools to either perform queries or visualize the data.");
-		System.out.println();
-		
-		System.out.println("Usage: " + Xmqcocls.progName + " -f inv-file [-g graph-file] [-q] [-x csv-file-prefix]");
-		System.out.println("                [-t tag-list] [-c cipher-suite] [-u user-id [-p password]]");
-		System.out.println();
-		
-		System.out.println("Options:");
-		System.out.println("    -c cipher-suite    Cipher suite for SSL/TLS connection");
-		System.out.println("    -f inv-file        Queue manager inventory file name");
-		System.out.println("    -g graph-file      Generate graph and save it to files (no extension)");
-		System.out.println("    -p password        Password associated with user-id for authentication");
-		System.out.println("    -q                 Collect cluster queue information");
-		System.out.println("    -t tag-list        List of tags to process");
-		System.out.println("    -u user-id         User-id for authentication/authorization");
-		System.out.println("    -x csv-file-prefix File name prefix for the CSV files");
-		System.out.println();
-		
-		System.out.println("    Inventory file should follow the structure below for each queue manager:");
-		System.out.println("       tag:qm_name:hostname(port),...:channel_name");
-		System.out.println();
-		
-		System.out.println("    tag-list: list of one or more tags separated by space");
-		System.out.println();
-		System.out.println("    Wildcards * and ? may be used for tags. * replaces one or more");
-		System.out.println("    characters, ? replaces a single character.");
-		System.out.println();
-		
-		System.out.println("Send bug reports, comments, etc... to " + Xmqcocls.progAuthor + " at "+ Xmqcocls.progAuthorEmail);
-		System.out.println();
-		  
-		System.out.println("This tool is provided in good faith and AS-IS. There is no warranty");
-		System.out.println("or further service implied or committed via IBM product service channels.");
-	} // end of method usage()
-	
-	/**
-	 * Main
-	 * 
-	 * @param args
-	 */
-	public static void main(String[] args) {
-		
-		int rc = 0;
-		int argc = args.length;
-		
-		// Display usage if no argument, ?, -?, -h or --help is passed
-		if (argc == 0 || 
-		   (argc == 1 && (args[0].compareTo("?") == 0 ||
-						  args[0].compareTo("-?") == 0 ||
-						  args[0].compareTo("-h") == 0 ||
-						  args[0].compareTo("--help") == 0))) {
-			usage();
-			rc = 99;
-		} else {
-			// Execute the tool
-			Xmqcocls util = new Xmqcocls();
-			if ((rc = util.parseArgs(args)) == 0) rc = util.run();
-		}
-		
-		System.exit(rc);
-	} 
-
-}
+package com.ibm.xmq.cluster;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import com.ibm.mq.MQException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Copyright 2018 IBM Corporation
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *    http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ * ----------------------------------------------------------------------------
+ * __  __                               _
+ * \ \/ /_ __ ___   __ _  ___ ___   ___| |___
+ *  \  /| '_ ` _ \ / _` |/ __/ _ \ / __| / __|
+ *  /  \| | | | | | (_| | (_| (_) | (__| \__ \
+ * /_/\_\_| |_| |_|\__, |\___\___/ \___|_|___/
+ *                    |_|   
+ *
+ * Xmqcocls - Collect IBM MQ cluster data to build a graph of cluster objects 
+ * 
+ * Xmqcocls collects IBM MQ cluster data and optionally build a graph of cluster
+ * objects. Data collected is also stored in several CSV files that can be used 
+ * to build a graph using a separate tool. If a graph is generated, it is saved
+ * in both GRAPHML and JSON formats. The graph can then be imported into various
+ * other tools to either perform queries or visualize the data. A JSON run report
+ * gives the latencies of each phase of the collection, per tag and per host.
+ * The progress of the collection is kept in a journal, an interrupted run can
+ * be resumed from it and only collects the queue managers left or failed.
+ * Queue managers that fail with a transient reason code are collected again
+ * later, the ones whose listener cannot be reached fail fast.
+ * 
+ * Return codes:
+ *      0 - Successful completion
+ *      1 - Partially successful completion
+ *     10 - No matching tag found in the queue manager inventory
+ *     20 - A file could not be found or opened
+ *     30 - An I/O exception occurred processing a file
+ *     98 - Missing or invalid parameter was provided
+ *     99 - No parameter provided, usage is displayed
+ *     
+ * @author Oliver Fisse (IBM) - fisse@us.ibm.com
+ * @version 1.0
+ *       
+ */
+public class Xmqcocls {
+	
+	private static final Logger log = LoggerFactory.getLogger(Xmqcocls.class);
+	
+	public static final String progName = "Xmqcocls";
+	public static final String progVersion = "1.0";
+	public static final String progAuthor = "Oliver Fisse (IBM)";
+	public static final String progAuthorEmail = "fisse@us.ibm.com";
+	public static final String progCopyright = "(c) Copyright IBM Corp. 2018, all rights reserved";
+	
+	// Maximum number of collected records waiting to be written to the CSV files
+	private static final int RECORD_PIPELINE_CAPACITY = 10000;
+	
+	// Queue managers in flight per collector thread, or per connection when they are capped
+	private static final int TASKS_IN_FLIGHT_PER_COLLECTOR = 2;
+	
+	private String csvFilePrefix;
+	private String qmDataFileName;
+	private String qmClusterQueueManagerFileName;
+	private String qmClusterQueueDataFileName;
+	private String runReportFileName;
+	private String journalFileName;
+	private String resumeJournalFileName;
+	
+	private String inventoryFileName;
+	private ArrayList<String> tagList;
+	private boolean generateGraph;
+	private String graphFileName;
+	private boolean collectClusterQueues;
+	private boolean sharedQueueVertices;
+	private MQCollectionFilter collectionFilter;
+	private MQTransportFactory transportFactory;
+	private String cipherSuite;
+	private String userId;
+	private String password;
+	private int collectorThreads;
+	private int maxConnections;
+	private int maxRetries;
+	private String unreachableFileName;
+	private long unreachableTtl;
+	
+	private int totalQMSuccess;
+	private int totalQMFailure;
+	private int totalRetries;
+	private int progressStep;
+	private MQRunStatistics statistics;
+	private MQRecordPipeline recordPipeline;
+	private MQRetryScheduler retryScheduler;
+	private MQCircuitBreaker circuitBreaker;
+	
+	
+	/**
+	 * Constructor
+	 *
+	 */
+	public Xmqcocls() {
+		
+		this.csvFilePrefix = "";
+		this.collectClusterQueues = false;
+		this.collectorThreads = 1;
+		this.maxRetries = MQRetryScheduler.DEFAULT_MAX_RETRIES;
+		this.unreachableTtl = MQCircuitBreaker.DEFAULT_CACHE_TTL;
+		this.tagList = new ArrayList<String>();
+		this.collectionFilter = new MQCollectionFilter();
+	}
+		
+	/**
+	 * Parse command line arguments
+	 * 
+	 * @param args Command line arguments
+	 * @return rc Return code
+	 */
+	private int parseArgs(String[] args) {
+		
+		log.trace("[{}] Entry {}.parseArgs, args={}", Thread.currentThread().getId(), this.getClass().getName(), args);
+		
+		int rc = 0;
+		int argc = args.length;
+		char c = ' ';
+		
+		System.out.println(Xmqcocls.progName + " v" + Xmqcocls.progVersion + " - Developed by " + Xmqcocls.progAuthor);
+		System.out.println(Xmqcocls.progCopyright);
+		System.out.println();
+		
+		// Parse arguments
+		for (int i = 0; i < argc; i++) {
+			
+			if (args[i].startsWith("-")) {
+				try {
+					c = args[i].charAt(1);
+				} catch (StringIndexOutOfBoundsException sioobe) {
+					System.err.println("Missing option character for option " + (i + 1) + "!");
+					rc = 98;
+				}
+				
+				switch (c) {
+					case '-':
+						if (args[i].compareTo("--resume") != 0 && args[i].compareTo("--retry") != 0 && args[i].compareTo("--unreachable") != 0) {
+							System.err.println(args[i] + " is not a valid option!");
+							rc = 98;
+						} else if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option " + args[i] + " must be specified!");
+							rc = 98;
+						} else if (args[i].compareTo("--resume") == 0) {
+							this.resumeJournalFileName = args[i + 1];
+							i++;
+						} else if (args[i].compareTo("--unreachable") == 0) {
+							int p1 = args[i + 1].lastIndexOf(',');
+							this.unreachableFileName = p1 < 0 ? args[i + 1] : args[i + 1].substring(0, p1);
+							try {
+								if (p1 >= 0) this.unreachableTtl = Long.parseLong(args[i + 1].substring(p1 + 1).trim());
+								if (this.unreachableTtl < 0) throw new NumberFormatException();
+							} catch (NumberFormatException nfe) {
+								System.err.println("Time to live for option " + args[i] + " must be a number of minutes!");
+								rc = 98;
+							}
+							i++;
+						} else {
+							try {
+								this.maxRetries = Integer.parseInt(args[i + 1]);
+								if (this.maxRetries < 0) throw new NumberFormatException();
+							} catch (NumberFormatException nfe) {
+								System.err.println("Argument for option " + args[i] + " must be a positive number or 0!");
+								rc = 98;
+							}
+							i++;
+						}
+						break;
+					case 'c':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						this.cipherSuite = args[i + 1];
+						i++;
+						break;
+					case 'd':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						
+						while (i + 1 < argc && !args[i + 1].startsWith("-")) {
+							int definitionType = MQCollectionFilter.toDefinitionType(args[i + 1]);
+							if (definitionType < 0) {
+								System.err.println(args[i + 1] + " is not a valid definition type for option -" + c + "!");
+								rc = 98;
+							} else this.collectionFilter.addDefinitionType(definitionType);
+							i++;
+						} // end while
+						break;
+					case 'e':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						this.transportFactory = MQTransportFactory.parse(args[i + 1]);
+						if (this.transportFactory == null) {
+							System.err.println(args[i + 1] + " is not a valid archive for option -" + c + "!");
+							rc = 98;
+						} else if (this.transportFactory.getMode() == MQTransportFactory.RECORD) {
+							this.transportFactory.getArchiveDir().mkdirs();
+							if (!this.transportFactory.getArchiveDir().isDirectory()) {
+								System.err.println("Archive directory " + this.transportFactory.getArchiveDir() + " cannot be created!");
+								rc = 98;
+							}
+						} else if (this.transportFactory.getMode() == MQTransportFactory.REPLAY && !this.transportFactory.getArchiveDir().isDirectory()) {
+							System.err.println("Archive directory " + this.transportFactory.getArchiveDir() + " does not exist!");
+							rc = 98;
+						}
+						i++;
+						break;
+					case 'f':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						this.inventoryFileName = args[i + 1];
+						i++;
+						break;
+					case 'g':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						this.graphFileName = args[i + 1];
+						this.generateGraph = true;
+						i++;
+						break;
+					case 'j':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						try {
+							this.collectorThreads = Integer.parseInt(args[i + 1]);
+							if (this.collectorThreads < 1) {
+								System.err.println("Argument for option -" + c + " must be a positive number!");
+								rc = 98;
+							}
+						} catch (NumberFormatException nfe) {
+							System.err.println("Argument for option -" + c + " must be a number!");
+							rc = 98;
+						}
+						i++;
+						break;
+					case 'l':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						
+						while (i + 1 < argc && !args[i + 1].startsWith("-")) {
+							this.collectionFilter.addClusterName(args[i + 1]);
+							i++;
+						} // end while
+						break;
+					case 'n':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						
+						while (i + 1 < argc && !args[i + 1].startsWith("-")) {
+							this.collectionFilter.addQueueName(args[i + 1]);
+							i++;
+						} // end while
+						break;
+					case 'p':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						this.password = args[i + 1];
+						i++;
+						break;
+					case 'q':
+						if (i + 1 < argc && !args[i + 1].startsWith("-")) {
+							System.err.println("Option -" + c + " does not accept any arguments!");
+							rc = 98;
+						}
+						this.collectClusterQueues = true;
+						break;
+					case 's':
+						if (i + 1 < argc && !args[i + 1].startsWith("-")) {
+							System.err.println("Option -" + c + " does not accept any arguments!");
+							rc = 98;
+						}
+						this.sharedQueueVertices = true;
+						break;
+					case 't':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						
+						while (i + 1 < argc && !args[i + 1].startsWith("-")) {
+							this.tagList.add(args[i + 1]);
+							i++;
+						} // end while
+						break;
+					case 'u':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						this.userId = args[i + 1];
+						i++;
+						break;
+					case 'v':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						try {
+							this.maxConnections = Integer.parseInt(args[i + 1]);
+							if (this.maxConnections < 1) {
+								System.err.println("Argument for option -" + c + " must be a positive number!");
+								rc = 98;
+							}
+						} catch (NumberFormatException nfe) {
+							System.err.println("Argument for option -" + c + " must be a number!");
+							rc = 98;
+						}
+						i++;
+						break;
+					case 'x':
+						if (i + 1 >= argc || args[i + 1].startsWith("-")) {
+							System.err.println("Argument for option -" + c + " must be specified!");
+							rc = 98;
+						}
+						this.csvFilePrefix = args[i + 1];
+						i++;
+						break;
+					default: 
+						System.err.println(args[i] + " is not a valid option!");
+						rc = 98;
+				} // end switch
+			} else {
+				System.err.println(args[i] + " is not a valid! Options should start with '-'.");
+				rc = 98;
+			} // end if
+        } // end for
+		
+		if (rc == 0 && this.collectorThreads > 1 && this.maxConnections > 0) {
+			System.err.println("Options -j and -v are mutually exclusive!");
+			rc = 98;
+		}
+		
+		if (rc == 0) {
+			if (this.inventoryFileName == null) {
+				System.err.println("Missing option -f, queue manager inventory file name must be specified!");
+				rc = 98;
+			} else {
+				String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd-HH.mm.ss"));
+				
+				this.qmDataFileName = this.csvFilePrefix + "qmdata-" + timestamp + ".csv";
+				this.qmClusterQueueManagerFileName = this.csvFilePrefix + "clusqmdata-" + timestamp + ".csv";
+				this.qmClusterQueueDataFileName = this.csvFilePrefix + "clusqueuedata-" + timestamp + ".csv";
+				this.runReportFileName = this.csvFilePrefix + "runreport-" + timestamp + ".json";
+				this.journalFileName = this.csvFilePrefix + "journal-" + timestamp + ".log";
+			}
+		}
+		
+		log.trace("[{}]  Exit {}.parseArgs, rc={}", Thread.currentThread().getId(), this.getClass().getName(), rc);
+		
+		return rc;
+	}
+	
+	/**
+	 * Run the tool
+	 * 
+	 */
+	private int run() {
+		
+		log.trace("[{}] Entry {}.run", Thread.currentThread().getId(), this.getClass().getName());
+		
+		MQQueueManagerInventoryData inventoryEntry;
+		MQCollectionTask task;
+		MQGraphBuilder gb = null;
+		MQCSVWriter csvWriter = null;
+		MQCheckpointJournal journal = null;
+		ExecutorService collectors = null;
+		CompletionService<MQCollectionTask> completedTasks = null;
+		Semaphore connectionPermits = null;
+		
+		int tasksInFlight = 0;
+		int maxTasksInFlight;
+		
+		MQException.log = null;
+		
+		int rc = 0;
+			
+		try {
+			// The inventory of a simulated estate is generated unless it already exists, to keep a subset of it
+			if (this.transportFactory != null && this.transportFactory.getMode() == MQTransportFactory.SIMULATE && !new File(this.inventoryFileName).exists()) {
+				System.out.println("Writing simulated estate inventory to file '" + this.inventoryFileName + "'...");
+				this.transportFactory.getEstate().writeInventory(this.inventoryFileName);
+			}
+			
+			System.out.println("Reading queue manager inventory from file '" + this.inventoryFileName + "'...");
+			if (this.tagList.size() != 0) {
+				System.out.println("Matching the following tags...");
+				for (String tag : tagList) System.out.println("   --> " + tag);
+			}
+				
+			// Read the queue manager inventory
+			Object phaseEvent = MQFlightEvent.RUN_PHASE.begin();
+			MQQueueManagerInventory inventory = new MQQueueManagerInventory(this.inventoryFileName, this.tagList);
+			MQFlightEvent.RUN_PHASE.commit(phaseEvent, Xmqcocls.progName, "readInventory", inventory.getTotalInventoryEntries());
+				
+			if (inventory.getTotalInventoryEntries() == 0) {
+				System.out.println("No matching tag found in the inventory, no work to be done!");
+				rc = 10;
+			}
+			
+			if (rc == 0) {
+				System.out.println(inventory.getTotalInventoryEntries() + " queue managers found in the inventory, let's go we got work to do!");
+				System.out.println();
+				
+				// Latencies of every phase of the run, for the run report
+				this.statistics = new MQRunStatistics();
+				
+				// Connection names that cannot be reached fail fast, the ones found in the previous runs are skipped
+				this.circuitBreaker = new MQCircuitBreaker();
+				if (this.unreachableFileName != null) this.circuitBreaker.load(this.unreachableFileName, this.unreachableTtl);
+
+				// Open CSV files, a resumed run appends to the files of the interrupted run
+				if (this.resumeJournalFileName != null) {
+					journal = MQCheckpointJournal.resume(this.resumeJournalFileName);
+					
+					if (this.collectClusterQueues != (journal.getQmClusterQueueDataFileName() != null)) {
+						System.err.println("Option -q must be " + (this.collectClusterQueues ? "removed" : "specified") + " to resume the run of journal '" + this.resumeJournalFileName + "'!");
+						return 98;
+					}
+					
+					this.journalFileName = this.resumeJournalFileName;
+					this.qmDataFileName = journal.getQmDataFileName();
+					this.qmClusterQueueManagerFileName = journal.getQmClusterQueueManagerFileName();
+					this.qmClusterQueueDataFileName = journal.getQmClusterQueueDataFileName();
+					
+					csvWriter = new MQCSVWriter(this.qmDataFileName, this.qmClusterQueueManagerFileName, this.collectClusterQueues ? this.qmClusterQueueDataFileName : null, journal.getOffsets());
+					System.out.println("Resuming the run of journal '" + this.resumeJournalFileName + "', " + journal.getSuccessfulCount() + " queue managers already processed, " + (journal.getCompletedCount() - journal.getSuccessfulCount()) + " failed ones tried again");
+					System.out.println();
+				} else {
+					csvWriter = new MQCSVWriter(this.qmDataFileName, this.qmClusterQueueManagerFileName, this.collectClusterQueues ? this.qmClusterQueueDataFileName : null);
+					journal = MQCheckpointJournal.create(this.journalFileName, this.qmDataFileName, this.qmClusterQueueManagerFileName, this.collectClusterQueues ? this.qmClusterQueueDataFileName : null);
+				}
+				csvWriter.setStatistics(this.statistics);
+				csvWriter.setJournal(journal);
+				
+				// Create and open an empty graph, a resumed run first adds the records already collected
+				if (this.generateGraph) {
+					gb = new MQGraphBuilder(this.sharedQueueVertices);
+					gb.setStatistics(this.statistics);
+					if (this.resumeJournalFileName != null) loadCSVFiles(gb);
+				}
+				
+				// Records flow from the collectors to the CSV files through a pipeline while collection is running,
+				// the records of a queue manager are passed on together once it succeeds. The collector threads add
+				// the records of their successful attempts to the graph themselves, at the same time
+				List<MQRecordSink> recordSinks = new ArrayList<MQRecordSink>();
+				recordSinks.add(csvWriter);
+				this.recordPipeline = new MQRecordPipeline(RECORD_PIPELINE_CAPACITY, recordSinks);
+				
+				// Start the collector threads
+				if (this.maxConnections > 0) {
+					collectors = newVirtualThreadPerTaskExecutor(this.maxConnections);
+					connectionPermits = new Semaphore(this.maxConnections);
+					System.out.println("Using one collector thread per queue manager, at most " + this.maxConnections + " connected at once");
+				} else if (this.collectorThreads > 1) {
+					collectors = Executors.newFixedThreadPool(this.collectorThreads);
+					System.out.println("Using " + this.collectorThreads + " collector threads");
+				}
+				
+				// Queue managers collected inline are retried on a thread of their own, next to the sweep
+				boolean collectInline = collectors == null;
+				if (collectInline && this.maxRetries > 0) collectors = Executors.newSingleThreadExecutor();
+				
+				if (collectors != null) completedTasks = new ExecutorCompletionService<MQCollectionTask>(collectors);
+				maxTasksInFlight = (connectionPermits != null ? this.maxConnections : this.collectorThreads) * TASKS_IN_FLIGHT_PER_COLLECTOR;
+				this.retryScheduler = new MQRetryScheduler(completedTasks, this.maxRetries, MQRetryScheduler.DEFAULT_BASE_DELAY);
+				
+				if (this.generateGraph) System.out.println(LocalTime.now() + " - Collecting queue managers cluster information and building graph...");
+				else System.out.println(LocalTime.now() + " - Collecting queue managers cluster information...");
+				
+				phaseEvent = MQFlightEvent.RUN_PHASE.begin();
+				
+				// Collect data for all queue managers in the inventory
+				while ((inventoryEntry = inventory.next()) != null) {
+					
+					// Skip the queue managers processed before a resumed run was interrupted, the failed ones are
+					// tried again as none of their records were written
+					if (journal.isSuccessful(inventoryEntry.getQmName())) {
+						this.totalQMSuccess++;
+						continue;
+					}
+					
+					task = new MQCollectionTask(inventory, inventoryEntry, this.collectClusterQueues, this.userId, this.password, this.cipherSuite);
+					task.setConnectionPermits(connectionPermits);
+					task.setRecordSink(this.recordPipeline.forQueueManager(inventoryEntry));
+					task.setGatedRecordSink(gb);
+					task.setCollectionFilter(this.collectionFilter);
+					task.setTransportFactory(this.transportFactory);
+					task.setStatistics(this.statistics);
+					task.setCircuitBreaker(this.circuitBreaker);
+					
+					if (collectInline) {
+						if (!processCollectionTask(task.call(), inventory)) tasksInFlight++;
+						continue;
+					}
+					
+					// Keep at most two queue managers per collector thread, or per connection permit, in flight, not 
+					// counting the ones waiting to be retried, otherwise the whole inventory is started at once. The
+					// completed ones are processed as they come so that their records are not held back
+					completedTasks.submit(task);
+					tasksInFlight++;
+					tasksInFlight -= processCompletedTasks(completedTasks, inventory);
+					while (tasksInFlight - this.retryScheduler.getWaitingCount() >= maxTasksInFlight) {
+						if (processCompletedTask(completedTasks, inventory)) tasksInFlight--;
+					} // end while
+				} // while
+				
+				// Process the queue managers still in flight or waiting to be retried
+				while (tasksInFlight > 0) {
+					if (processCompletedTask(completedTasks, inventory)) tasksInFlight--;
+				} // end while
+				
+				// Wait for the remaining records to be written, then force them and the journal to disk
+				this.recordPipeline.close();
+				csvWriter.sync();
+				
+				MQFlightEvent.RUN_PHASE.commit(phaseEvent, Xmqcocls.progName, "collect", this.totalQMSuccess + this.totalQMFailure);
+				
+				if (this.totalQMFailure != 0) rc = 1;
+				
+				System.out.println();
+				System.out.println("Total queue managers processed successfully: " + this.totalQMSuccess);
+				System.out.println("Total queue managers that could not be processed: " + this.totalQMFailure);
+				if (this.maxRetries > 0) System.out.println("Total queue manager retries after a transient failure: " + this.totalRetries);
+				if (this.circuitBreaker.getSkippedConnections() != 0) System.out.println("Total connections failed fast, connection name unreachable: " + this.circuitBreaker.getSkippedConnections());
+				System.out.println();
+				
+				if (this.totalQMSuccess != 0) {
+					System.out.println("Queue manager data written to file: " + this.qmDataFileName);
+					System.out.println("Queue manager cluster data written to file: " + this.qmClusterQueueManagerFileName);
+					if (this.collectClusterQueues) System.out.println("Queue cluster data written to file: " + this.qmClusterQueueDataFileName);
+				}
+				System.out.println("Progress journal written to file: " + this.journalFileName);
+				if (this.unreachableFileName != null) {
+					this.circuitBreaker.save();
+					System.out.println("Unreachable connection names written to file: " + this.unreachableFileName);
+				}
+				
+				System.out.println();
+				
+				// Format and write graph to files
+				if (this.generateGraph) {
+					phaseEvent = MQFlightEvent.RUN_PHASE.begin();
+					System.out.println("Writing graph (GRAPHML) to file '" + this.graphFileName + ".graphml'...");
+					gb.writeGraphMLToFile(this.graphFileName + ".graphml");
+					System.out.println("Writing graph (JSON) to file '" + this.graphFileName + ".json'...");
+					gb.writeGraphJSONToFile(this.graphFileName + ".json");
+					MQFlightEvent.RUN_PHASE.commit(phaseEvent, Xmqcocls.progName, "writeGraph", 2);
+					System.out.println();
+				} // end if
+				
+				this.statistics.writeReport(this.runReportFileName);
+				System.out.println("Run report written to file: " + this.runReportFileName);
+				System.out.println();
+				
+				System.out.println("All done folks!");
+			} // end if
+				
+		} catch (FileNotFoundException fnfe) {
+			System.err.println("FileNotFoundException - " + fnfe.getLocalizedMessage());
+			rc = 20;
+		} catch (IOException ioe) {
+			System.err.println("IOException - " + ioe.getLocalizedMessage());
+			rc = 30;
+		} finally {	
+			// Stop the collector threads
+			if (this.retryScheduler != null) this.retryScheduler.close();
+			if (collectors != null) collectors.shutdownNow();
+			
+			try {
+				if (this.recordPipeline != null) this.recordPipeline.close();
+			} catch (IOException ioe) {
+				// ignore, already reported
+			}
+			
+			// Close CSV files and the journal
+			if (csvWriter != null) csvWriter.close();
+			else if (journal != null) {
+				try {
+					journal.close();
+				} catch (IOException ioe) {
+					// ignore
+				}
+			}
+				
+			// Close graph
+			if (gb != null) gb.closeGraph();
+		}
+			
+		log.trace("[{}]  Exit {}.run, rc={}", Thread.currentThread().getId(), this.getClass().getName(), rc);
+		
+		return rc;
+	}
+	
+	/**
+	 * Add the records of the CSV files of an interrupted run to the graph
+	 * 
+	 * @param gb The graph builder
+	 */
+	private void loadCSVFiles(MQGraphBuilder gb)
+		throws IOException {
+		
+		BufferedReader csvFile;
+		String record;
+		
+		System.out.println("Adding the records already collected to the graph...");
+		
+		csvFile = new BufferedReader(new FileReader(this.qmDataFileName));
+		try {
+			while ((record = csvFile.readLine()) != null) {
+				MQQueueManagerData qmd = new MQQueueManagerData();
+				qmd.fromCSV(record);
+				gb.addQueueManager(qmd);
+			} // end while
+		} finally {
+			csvFile.close();
+		}
+		
+		csvFile = new BufferedReader(new FileReader(this.qmClusterQueueManagerFileName));
+		try {
+			while ((record = csvFile.readLine()) != null) {
+				MQClusterQueueManagerData cqmd = new MQClusterQueueManagerData();
+				cqmd.fromCSV(record);
+				gb.addClusteredQueueManager(cqmd);
+			} // end while
+		} finally {
+			csvFile.close();
+		}
+		
+		if (this.collectClusterQueues) {
+			csvFile = new BufferedReader(new FileReader(this.qmClusterQueueDataFileName));
+			try {
+				while ((record = csvFile.readLine()) != null) {
+					MQClusterQueueData cqd = new MQClusterQueueData();
+					cqd.fromCSV(record);
+					gb.addClusteredQueue(cqd);
+				} // end while
+			} finally {
+				csvFile.close();
+			}
+		} // end if
+	}
+	
+	/**
+	 * Create an executor that starts a new virtual thread for each task. Virtual threads
+	 * are only available from Java 21 onwards, older runtimes fall back to a fixed pool 
+	 * of platform threads, one per allowed connection.
+	 * 
+	 * @param maxConnections Maximum number of concurrent connections
+	 * @return executor An executor service
+	 */
+	private static ExecutorService newVirtualThreadPerTaskExecutor(int maxConnections) {
+		
+		try {
+			return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+		} catch (ReflectiveOperationException roe) {
+			System.out.println("Virtual threads are not available with Java " + System.getProperty("java.version") + ", using platform threads instead");
+			return Executors.newFixedThreadPool(maxConnections);
+		}
+	}
+	
+	/**
+	 * Wait for the next collection task to complete on a collector thread and count it
+	 * 
+	 * @param completedTasks The completion service of the collector threads
+	 * @param inventory The queue manager inventory
+	 * @return processed True if the queue manager is processed, false if it is retried later
+	 */
+	private boolean processCompletedTask(CompletionService<MQCollectionTask> completedTasks, MQQueueManagerInventory inventory)
+		throws IOException {
+		
+		try {
+			return processCompletedTask(completedTasks.take(), inventory);
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			this.totalQMFailure++;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Count the collection tasks already completed on the collector threads, without waiting
+	 * 
+	 * @param completedTasks The completion service of the collector threads
+	 * @param inventory The queue manager inventory
+	 * @return processed The number of queue managers processed, not counting the ones retried later
+	 */
+	private int processCompletedTasks(CompletionService<MQCollectionTask> completedTasks, MQQueueManagerInventory inventory)
+		throws IOException {
+		
+		int processed = 0;
+		Future<MQCollectionTask> completedTask;
+		
+		while ((completedTask = completedTasks.poll()) != null) {
+			if (processCompletedTask(completedTask, inventory)) processed++;
+		} // end while
+		
+		return processed;
+	}
+	
+	private boolean processCompletedTask(Future<MQCollectionTask> completedTask, MQQueueManagerInventory inventory)
+		throws IOException {
+		
+		try {
+			return processCollectionTask(completedTask.get(), inventory);
+		} catch (ExecutionException ee) {
+			System.err.println(ee.getCause().getClass().getSimpleName() + " - " + ee.getCause().getLocalizedMessage() + " while collecting queue manager data");
+			this.totalQMFailure++;
+		} catch (InterruptedException ie) {
+			Thread.currentThread().interrupt();
+			this.totalQMFailure++;
+		}
+		
+		return true;
+	}
+	
+	/**
+	 * Count a completed collection task and display progress. The collected records have 
+	 * already been passed to the record pipeline by the collector, they are followed by the
+	 * end of the queue manager once its outcome is final and dropped if it failed.
+	 * 
+	 * @param task A completed collection task
+	 * @param inventory The queue manager inventory
+	 * @return processed True if the queue manager is processed, false if it is retried later
+	 */
+	private boolean processCollectionTask(MQCollectionTask task, MQQueueManagerInventory inventory)
+		throws IOException {
+		
+		log.trace("[{}] Entry {}.processCollectionTask, entry={}, success={}", Thread.currentThread().getId(), this.getClass().getName(), task.getInventoryEntry(), task.isSuccess());
+		
+		int processed;
+		int percentComplete;
+		
+		// A transient failure is retried later, the queue manager is not processed yet and the 
+		// records of the failed attempt are dropped
+		if (!task.isSuccess() && this.retryScheduler.schedule(task)) {
+			this.recordPipeline.discardQueueManager(task.getInventoryEntry());
+			System.out.println(LocalTime.now() + " - Queue manager " + task.getInventoryEntry().getQmName() + " will be tried again, attempt " + (task.getAttempts() + 1) + " of " + (this.maxRetries + 1));
+			log.trace("[{}] Exit {}.processCollectionTask, retried", Thread.currentThread().getId(), this.getClass().getName());
+			return false;
+		}
+		
+		this.recordPipeline.endQueueManager(task.getInventoryEntry(), task.isSuccess());
+		
+		if (task.getAttempts() > 1) {
+			this.totalRetries += task.getAttempts() - 1;
+			for (int i = 1; i < task.getAttempts(); i++) this.statistics.addRetry();
+		}
+		
+		if (task.isSuccess()) this.totalQMSuccess++;
+		else this.totalQMFailure++;
+		
+		this.statistics.addQueueManager(task.getInventoryEntry(), task.isSuccess(), task.getCollectNanos(), task.getDataCollector().getConnectNanos());
+		
+		// Display progress each time another 10% of the queue managers have been processed, the 
+		// percentage is rarely an exact multiple of 10 
+		processed = this.totalQMSuccess + this.totalQMFailure;
+		percentComplete = (int) ((long) processed * 100 / inventory.getTotalInventoryEntries());
+		if (percentComplete / 10 > this.progressStep) {
+			this.progressStep = percentComplete / 10;
+			System.out.println(LocalTime.now() + " - " + percentComplete + "% complete" + " - " + processed + " queue managers processed");
+		} // end if
+		
+		log.trace("[{}] Exit {}.processCollectionTask", Thread.currentThread().getId(), this.getClass().getName());
+		
+		return true;
+	}
+	
+	/**
+	 * Display usage
+	 * 
+	 */
+	private static void usage() {
+		
+		System.out.println("__  __                               _");
+		System.out.println("\\ \\/ /_ __ ___   __ _  ___ ___   ___| |___");
+		System.out.println(" \\  /| '_ ` _ \\ / _` |/ __/ _ \\ / __| / __|");
+		System.out.println(" /  \\| | | | | | (_| | (_| (_) | (__| \\__ \\");
+		System.out.println("/_/\\_\\_| |_| |_|\\__, |\\___\\___/ \\___|_|___/");
+		System.out.println("                   |_|");             
+        System.out.println();
+		
+		System.out.println(Xmqcocls.progName + " v" + Xmqcocls.progVersion + " - Collect IBM MQ cluster data to build a graph of cluster objects");
+		System.out.println(Xmqcocls.progCopyright);
+		System.out.println();
+		System.out.println(Xmqcocls.progName + " collects IBM MQ cluster data and optionally build a graph of cluster");
+		System.out.println("objects. Data collected is also stored in several CSV files that can be used"); 
+		System.out.println("to build a graph using a separate tool. If a graph is generated, it is saved");
+		System.out.println("in both GRAPHML and JSON formats. The graph can then be imported into various");
+		System.out.println("other tools to either perform queries or visualize the data. A JSON run report");
+		System.out.println("gives the latencies of each phase of the collection, per tag and per host.");
+		System.out.println("The progress of the collection is kept in a journal, an interrupted run can");
+		System.out.println("be resumed from it and only collects the queue managers left or failed.");
+		System.out.println("Queue managers that fail with a transient reason code are collected again");
+		System.out.println("later, the ones whose listener cannot be reached fail fast.");
+		System.out.println();
+		
+		System.out.println("Usage: " + Xmqcocls.progName + " -f inv-file [-g graph-file [-s]] [-q] [-x csv-file-prefix]");
+		System.out.println("                [-t tag-list] [-l cluster-list] [-n queue-list] [-d deftype-list]");
+		System.out.println("                [-c cipher-suite] [-u user-id [-p password]]");
+		System.out.println("                [-j threads | -v max-connections] [-e archive]");
+		System.out.println("                [--resume journal-file] [--retry max-retries]");
+		System.out.println("                [--unreachable cache-file[,ttl]]");
+		System.out.println();
+		
+		System.out.println("Options:");
+		System.out.println("    -c cipher-suite    Cipher suite for SSL/TLS connection");
+		System.out.println("    -d deftype-list    List of cluster queue manager definition types to collect");
+		System.out.println("    -e archive         Record the PCF messages exchanged with each queue manager,");
+		System.out.println("                       replay them or simulate an estate, with no MQ connection");
+		System.out.println("    -f inv-file        Queue manager inventory file name");
+		System.out.println("    -g graph-file      Generate graph and save it to files (no extension)");
+		System.out.println("    -j threads         Number of queue managers to collect in parallel (default 1)");
+		System.out.println("    -l cluster-list    List of clusters to collect");
+		System.out.println("    -n queue-list      List of cluster queues to collect (with -q)");
+		System.out.println("    -p password        Password associated with user-id for authentication");
+		System.out.println("    -q                 Collect cluster queue information");
+		System.out.println("    -s                 One graph vertex per cluster queue instance, shared by all the");
+		System.out.println("                       queue managers that own or use it");
+		System.out.println("    -t tag-list        List of tags to process");
+		System.out.println("    -u user-id         User-id for authentication/authorization");
+		System.out.println("    -v max-connections Collect each queue manager on its own virtual thread (Java 21+),");
+		System.out.println("                       with at most max-connections queue managers connected at once");
+		System.out.println("    -x csv-file-prefix File name prefix for the CSV files, the run report and the journal");
+		System.out.println("    --resume journal-file");
+		System.out.println("                       Resume an interrupted run, the queue managers successful in");
+		System.out.println("                       the journal are skipped, the failed ones are tried again and");
+		System.out.println("                       the CSV files of the run are appended to");
+		System.out.println("    --retry max-retries");
+		System.out.println("                       Times a queue manager failing with a transient reason code,");
+		System.out.println("                       such as 2009, 2059 or 2538, is tried again (default 3, 0 for");
+		System.out.println("                       none), after 2 seconds doubling at each retry");
+		System.out.println("    --unreachable cache-file[,ttl]");
+		System.out.println("                       Keep the connection names found unreachable in cache-file,");
+		System.out.println("                       the next runs skip them for ttl minutes (default 60)");
+		System.out.println();
+		
+		System.out.println("    Inventory file should follow the structure below for each queue manager:");
+		System.out.println("       tag:qm_name:hostname(port),...:channel_name");
+		System.out.println();
+		
+		System.out.println("    tag-list: list of one or more tags separated by space");
+		System.out.println("    cluster-list, queue-list: list of one or more names separated by space");
+		System.out.println("    deftype-list: list of one or more of CLUSSDR, CLUSSDRA, CLUSSDRB, CLUSRCVR");
+		System.out.println("    archive: record:directory or replay:directory[,latency-scale], one file per");
+		System.out.println("    queue manager, a replay must use the options of the recording. The recorded");
+		System.out.println("    delays are multiplied by latency-scale (default 1, 0 for no delay). A queue");
+		System.out.println("    manager tried again keeps the recording of its last attempt only.");
+		System.out.println("    The archive may also be simulate:[name=value,...] with the names clusters,");
+		System.out.println("    qmgrs, fullrepos, queues, running, retrying, stopped, latency, connlatency,");
+		System.out.println("    connfailures, conntransient, qmgrsperhost, hostsdown, conntimeout, cmdfailures,");
+		System.out.println("    zos and seed. The inventory file of the estate is written first if it does");
+		System.out.println("    not exist.");
+		System.out.println();
+		System.out.println("    Wildcards * and ? may be used for tags, clusters and queues. * replaces one");
+		System.out.println("    or more characters, ? replaces a single character. Names with no wildcard");
+		System.out.println("    or a single trailing * are filtered by the command server.");
+		System.out.println();
+		
+		System.out.println("Send bug reports, comments, etc... to " + Xmqcocls.progAuthor + " at "+ Xmqcocls.progAuthorEmail);
+		System.out.println();
+		  
+		System.out.println("This tool is provided in good faith and AS-IS. There is no warranty");
+		System.out.println("or further service implied or committed via IBM product service channels.");
+	} // end of method usage()
+	
+	/**
+	 * Main
+	 * 
+	 * @param args
+	 */
+	public static void main(String[] args) {
+		
+		int rc = 0;
+		int argc = args.length;
+		
+		// Display usage if no argument, ?, -?, -h or --help is passed
+		if (argc == 0 || 
+		   (argc == 1 && (args[0].compareTo("?") == 0 ||
+						  args[0].compareTo("-?") == 0 ||
+						  args[0].compareTo("-h") == 0 ||
+						  args[0].compareTo("--help") == 0))) {
+			usage();
+			rc = 99;
+		} else {
+			// Execute the tool
+			Xmqcocls util = new Xmqcocls();
+			if ((rc = util.parseArgs(args)) == 0) rc = util.run();
+		}
+		
+		System.exit(rc);
+	} 
+
+}